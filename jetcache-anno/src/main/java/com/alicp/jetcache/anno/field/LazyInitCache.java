@@ -12,6 +12,7 @@ import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import java.lang.reflect.Field;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
@@ -242,5 +243,60 @@ class LazyInitCache implements ProxyCache {
         return cache.PUT_IF_ABSENT(key, value, expireAfterWrite, timeUnit);
     }
 
+    @Override
+    public CompletableFuture getAsync(Object key) {
+        checkInit();
+        return cache.getAsync(key);
+    }
+
+    @Override
+    public CompletableFuture getAllAsync(Set keys) {
+        checkInit();
+        return cache.getAllAsync(keys);
+    }
+
+    @Override
+    public CompletableFuture putAsync(Object key, Object value) {
+        checkInit();
+        return cache.putAsync(key, value);
+    }
+
+    @Override
+    public CompletableFuture putAsync(Object key, Object value, long expireAfterWrite, TimeUnit timeUnit) {
+        checkInit();
+        return cache.putAsync(key, value, expireAfterWrite, timeUnit);
+    }
+
+    @Override
+    public CompletableFuture putAllAsync(Map map) {
+        checkInit();
+        return cache.putAllAsync(map);
+    }
+
+    @Override
+    public CompletableFuture removeAsync(Object key) {
+        checkInit();
+        return cache.removeAsync(key);
+    }
+
+    @Override
+    public CompletableFuture computeIfAbsentAsync(Object key, Function loader) {
+        checkInit();
+        return cache.computeIfAbsentAsync(key, loader);
+    }
+
+    @Override
+    public CompletableFuture computeIfAbsentAsync(Object key, Function loader, boolean cacheNullWhenLoaderReturnNull) {
+        checkInit();
+        return cache.computeIfAbsentAsync(key, loader, cacheNullWhenLoaderReturnNull);
+    }
+
+    @Override
+    public CompletableFuture computeIfAbsentAsync(Object key, Function loader, boolean cacheNullWhenLoaderReturnNull,
+                                                  long expireAfterWrite, TimeUnit timeUnit) {
+        checkInit();
+        return cache.computeIfAbsentAsync(key, loader, cacheNullWhenLoaderReturnNull, expireAfterWrite, timeUnit);
+    }
+
 
 }
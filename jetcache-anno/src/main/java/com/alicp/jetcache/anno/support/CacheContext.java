@@ -12,11 +12,15 @@ import com.alicp.jetcache.anno.EnableCache;
 import com.alicp.jetcache.anno.method.CacheHandler;
 import com.alicp.jetcache.anno.method.CacheInvokeConfig;
 import com.alicp.jetcache.anno.method.CacheInvokeContext;
+import com.alicp.jetcache.embedded.AbstractEmbeddedCache;
 import com.alicp.jetcache.embedded.EmbeddedCacheBuilder;
+import com.alicp.jetcache.embedded.LocalCacheBudget;
+import com.alicp.jetcache.embedded.LongKeyCacheBuilder;
 import com.alicp.jetcache.external.ExternalCacheBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.Method;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
@@ -117,11 +121,11 @@ public class CacheContext {
     protected Cache buildCache(CachedAnnoConfig cachedAnnoConfig, String area, String cacheName) {
         Cache cache;
         if (cachedAnnoConfig.getCacheType() == CacheType.LOCAL) {
-            cache = buildLocal(cachedAnnoConfig, area);
+            cache = buildLocal(cachedAnnoConfig, area, cacheName);
         } else if (cachedAnnoConfig.getCacheType() == CacheType.REMOTE) {
             cache = buildRemote(cachedAnnoConfig, area, cacheName);
         } else {
-            Cache local = buildLocal(cachedAnnoConfig, area);
+            Cache local = buildLocal(cachedAnnoConfig, area, cacheName);
             Cache remote = buildRemote(cachedAnnoConfig, area, cacheName);
 
             boolean useExpireOfSubCache = cachedAnnoConfig.getLocalExpire() > 0;
@@ -177,12 +181,26 @@ public class CacheContext {
     }
 
     protected Cache buildLocal(CachedAnnoConfig cachedAnnoConfig, String area) {
+        return buildLocal(cachedAnnoConfig, area, null);
+    }
+
+    protected Cache buildLocal(CachedAnnoConfig cachedAnnoConfig, String area, String cacheName) {
         EmbeddedCacheBuilder cacheBuilder = (EmbeddedCacheBuilder) globalCacheConfig.getLocalCacheBuilders().get(area);
         if (cacheBuilder == null) {
             throw new CacheConfigException("no local cache builder: " + area);
         }
         cacheBuilder = (EmbeddedCacheBuilder) cacheBuilder.clone();
 
+        String snapshotFile = cacheBuilder.getConfig().getSnapshotFile();
+        if (snapshotFile != null) {
+            // the snapshot file of the area is shared by its caches, each cache uses a file with the cache name suffix
+            if (cacheName == null) {
+                cacheBuilder.setSnapshotFile(null);
+            } else {
+                cacheBuilder.setSnapshotFile(snapshotFile + "." + cacheName.replaceAll("[^\\w.\\-]", "_"));
+            }
+        }
+
         if (cachedAnnoConfig.getLocalLimit() != CacheConsts.UNDEFINED_INT) {
             cacheBuilder.setLimit(cachedAnnoConfig.getLocalLimit());
         }
@@ -195,8 +213,43 @@ public class CacheContext {
         if (!CacheConsts.isUndefined(cachedAnnoConfig.getKeyConvertor())) {
             cacheBuilder.setKeyConvertor(configProvider.parseKeyConvertor(cachedAnnoConfig.getKeyConvertor()));
         }
+        if (!CacheConsts.isUndefined(cachedAnnoConfig.getSerialPolicy())) {
+            // used by the snapshot and storeValueAsBytes
+            cacheBuilder.setValueEncoder(configProvider.parseValueEncoder(cachedAnnoConfig.getSerialPolicy()));
+            cacheBuilder.setValueDecoder(configProvider.parseValueDecoder(cachedAnnoConfig.getSerialPolicy()));
+        }
         cacheBuilder.setCacheNullValue(cachedAnnoConfig.isCacheNullValue());
-        return cacheBuilder.buildCache();
+        if (cachedAnnoConfig.getCacheType() == CacheType.LOCAL) {
+            // the local cache may refresh the keys by itself, it need the refresh policy when it is built
+            cacheBuilder.setRefreshPolicy(cachedAnnoConfig.getRefreshPolicy());
+        }
+        if (cacheBuilder instanceof LongKeyCacheBuilder && cachedAnnoConfig.getDefineMethod() != null
+                && !isLongKey(cachedAnnoConfig)) {
+            throw new CacheConfigException("the local cache of area " + area
+                    + " is longkey, the key of the method must be its single long parameter: "
+                    + cachedAnnoConfig.getDefineMethod());
+        }
+        Cache cache = cacheBuilder.buildCache();
+        LocalCacheBudget budget = cacheManager.getLocalCacheBudget();
+        if (budget != null && cache instanceof AbstractEmbeddedCache) {
+            if (!budget.register((AbstractEmbeddedCache) cache)) {
+                logger.warn("local cache of area " + area + " has no budget left or can't be resized, it is not managed by the local cache budget");
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Check whether the key of the method is its single primitive long parameter, which is required by the
+     * longkey local cache type.
+     */
+    protected boolean isLongKey(CachedAnnoConfig cachedAnnoConfig) {
+        Method m = cachedAnnoConfig.getDefineMethod();
+        if (m == null || m.getParameterCount() != 1 || m.getParameterTypes()[0] != long.class) {
+            return false;
+        }
+        String key = cachedAnnoConfig.getKey();
+        return key == null || CacheConsts.isUndefined(key) || "args[0]".equals(key) || key.matches("#\\w+");
     }
 
     protected CacheInvokeContext newCacheInvokeContext() {
@@ -1,10 +1,12 @@
 package com.alicp.jetcache.anno.support;
 
+import com.alicp.jetcache.embedded.LocalCacheBudget;
 import com.alicp.jetcache.support.CacheMessagePublisher;
 import com.alicp.jetcache.support.StatInfo;
 import com.alicp.jetcache.support.StatInfoLogger;
 
 import javax.annotation.Resource;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -15,6 +17,8 @@ import java.util.function.Function;
  */
 public class ConfigProvider extends AbstractLifecycle {
 
+    private static final int LOCAL_CACHE_BUDGET_REBALANCE_SECONDS = 10;
+
     @Resource
     protected GlobalCacheConfig globalCacheConfig;
 
@@ -39,9 +43,20 @@ public class ConfigProvider extends AbstractLifecycle {
     @Override
     public void doInit() {
         initDefaultCacheMonitorInstaller();
+        initLocalCacheBudget();
         cacheContext = newContext();
     }
 
+    protected void initLocalCacheBudget() {
+        long limitBudget = globalCacheConfig.getLocalLimitBudget();
+        long weightBudget = globalCacheConfig.getLocalWeightBudget();
+        if ((limitBudget > 0 || weightBudget > 0) && cacheManager.getLocalCacheBudget() == null) {
+            LocalCacheBudget budget = new LocalCacheBudget(limitBudget, weightBudget);
+            budget.start(LOCAL_CACHE_BUDGET_REBALANCE_SECONDS, TimeUnit.SECONDS);
+            cacheManager.setLocalCacheBudget(budget);
+        }
+    }
+
     protected void initDefaultCacheMonitorInstaller() {
         if (cacheMonitorManager == defaultCacheMonitorManager) {
             DefaultCacheMonitorManager installer = (DefaultCacheMonitorManager) cacheMonitorManager;
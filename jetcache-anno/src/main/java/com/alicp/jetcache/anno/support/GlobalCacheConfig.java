@@ -17,6 +17,8 @@ public class GlobalCacheConfig {
     private boolean areaInCacheName = true;
     private boolean penetrationProtect = false;
     private boolean enableMethodCache = true;
+    private long localLimitBudget;
+    private long localWeightBudget;
 
     private Map<String, CacheBuilder> localCacheBuilders;
     private Map<String, CacheBuilder> remoteCacheBuilders;
@@ -79,4 +81,27 @@ public class GlobalCacheConfig {
     public void setEnableMethodCache(boolean enableMethodCache) {
         this.enableMethodCache = enableMethodCache;
     }
+
+    /**
+     * @return the max total limit of all the local caches created by annotations, 0 means no global budget
+     */
+    public long getLocalLimitBudget() {
+        return localLimitBudget;
+    }
+
+    public void setLocalLimitBudget(long localLimitBudget) {
+        this.localLimitBudget = localLimitBudget;
+    }
+
+    /**
+     * @return the max total maximumWeight of all the local caches created by annotations which are bounded by
+     * weight, 0 means no global budget
+     */
+    public long getLocalWeightBudget() {
+        return localWeightBudget;
+    }
+
+    public void setLocalWeightBudget(long localWeightBudget) {
+        this.localWeightBudget = localWeightBudget;
+    }
 }
@@ -4,6 +4,7 @@
 package com.alicp.jetcache.anno.support;
 
 import com.alicp.jetcache.Cache;
+import com.alicp.jetcache.embedded.LocalCacheBudget;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -19,6 +20,7 @@ public class SimpleCacheManager implements CacheManager {
 
     private ConcurrentHashMap<String, ConcurrentHashMap<String, Cache>> caches = new ConcurrentHashMap<>();
     private BiFunction<String, String, Cache> cacheCreator;
+    private LocalCacheBudget localCacheBudget;
 
     static SimpleCacheManager defaultManager = new SimpleCacheManager();
 
@@ -37,6 +39,10 @@ public class SimpleCacheManager implements CacheManager {
         });
         caches.clear();
         cacheCreator = null;
+        if (localCacheBudget != null) {
+            localCacheBudget.stop();
+            localCacheBudget = null;
+        }
     }
 
     private ConcurrentHashMap<String, Cache> getCachesByArea(String area) {
@@ -67,4 +73,15 @@ public class SimpleCacheManager implements CacheManager {
     public void setCacheCreator(BiFunction<String, String, Cache> cacheCreator) {
         this.cacheCreator = cacheCreator;
     }
+
+    /**
+     * @return the budget shared by the local caches, or null if there is no global budget
+     */
+    public LocalCacheBudget getLocalCacheBudget() {
+        return localCacheBudget;
+    }
+
+    public void setLocalCacheBudget(LocalCacheBudget localCacheBudget) {
+        this.localCacheBudget = localCacheBudget;
+    }
 }
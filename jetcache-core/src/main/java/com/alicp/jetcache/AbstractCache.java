@@ -3,17 +3,25 @@ package com.alicp.jetcache;
 import com.alicp.jetcache.embedded.AbstractEmbeddedCache;
 import com.alicp.jetcache.event.*;
 import com.alicp.jetcache.external.AbstractExternalCache;
+import com.alicp.jetcache.support.JetCacheExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -80,6 +88,11 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
         return true;
     }
 
+    protected boolean needNotify() {
+        List<CacheMonitor> monitors = config().getMonitors();
+        return monitors != null && !monitors.isEmpty();
+    }
+
     public void notify(CacheEvent e) {
         List<CacheMonitor> monitors = config().getMonitors();
         for (CacheMonitor m : monitors) {
@@ -89,35 +102,60 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
 
     @Override
     public final CacheGetResult<V> GET(K key) {
-        long t = System.currentTimeMillis();
+        boolean needNotify = needNotify();
+        long t = needNotify ? System.currentTimeMillis() : 0;
         CacheGetResult<V> result;
         if (key == null) {
             result = new CacheGetResult<V>(CacheResultCode.FAIL, CacheResult.MSG_ILLEGAL_ARGUMENT, null);
         } else {
-            result = do_GET(key);
+            result = internalGET(key);
+        }
+        if (needNotify) {
+            result.future().thenRun(() -> {
+                CacheGetEvent event = new CacheGetEvent(this, System.currentTimeMillis() - t, key, result);
+                notify(event);
+            });
         }
-        result.future().thenRun(() -> {
-            CacheGetEvent event = new CacheGetEvent(this, System.currentTimeMillis() - t, key, result);
-            notify(event);
-        });
         return result;
     }
 
     protected abstract CacheGetResult<V> do_GET(K key);
 
+    /**
+     * Called by GET with a non-null key, a subclass may override it to serve some keys without do_GET.
+     */
+    protected CacheGetResult<V> internalGET(K key) {
+        return do_GET(key);
+    }
+
+    /**
+     * Called when the value of the key is put or removed by this cache, the result may be not completed yet.
+     */
+    protected void afterKeyChange(K key, CacheResult result) {
+    }
+
+    /**
+     * Called when the values of the keys are put or removed by this cache, the result may be not completed yet.
+     */
+    protected void afterKeysChange(Set<? extends K> keys, CacheResult result) {
+    }
+
     @Override
     public final MultiGetResult<K, V> GET_ALL(Set<? extends K> keys) {
-        long t = System.currentTimeMillis();
+        boolean needNotify = needNotify();
+        long t = needNotify ? System.currentTimeMillis() : 0;
         MultiGetResult<K, V> result;
         if (keys == null) {
             result = new MultiGetResult<>(CacheResultCode.FAIL, CacheResult.MSG_ILLEGAL_ARGUMENT, null);
         } else {
             result = do_GET_ALL(keys);
         }
-        result.future().thenRun(() -> {
-            CacheGetAllEvent event = new CacheGetAllEvent(this, System.currentTimeMillis() - t, keys, result);
-            notify(event);
-        });
+        if (needNotify) {
+            result.future().thenRun(() -> {
+                CacheGetAllEvent event = new CacheGetAllEvent(this, System.currentTimeMillis() - t, keys, result);
+                notify(event);
+            });
+        }
         return result;
     }
 
@@ -136,6 +174,21 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
                 expireAfterWrite, timeUnit, this);
     }
 
+    @Override
+    public final CompletableFuture<V> computeIfAbsentAsync(K key, Function<K, CompletionStage<V>> loader,
+                                                           boolean cacheNullWhenLoaderReturnNull) {
+        return computeIfAbsentAsyncImpl(key, CacheUtil.createAsyncLoader(loader), cacheNullWhenLoaderReturnNull,
+                0, null, this);
+    }
+
+    @Override
+    public final CompletableFuture<V> computeIfAbsentAsync(K key, Function<K, CompletionStage<V>> loader,
+                                                           boolean cacheNullWhenLoaderReturnNull,
+                                                           long expireAfterWrite, TimeUnit timeUnit) {
+        return computeIfAbsentAsyncImpl(key, CacheUtil.createAsyncLoader(loader), cacheNullWhenLoaderReturnNull,
+                expireAfterWrite, timeUnit, this);
+    }
+
     private static <K, V> boolean needUpdate(V loadedValue, boolean cacheNullWhenLoaderReturnNull, Function<K, V> loader) {
         if (loadedValue == null && !cacheNullWhenLoaderReturnNull) {
             return false;
@@ -183,6 +236,51 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
         }
     }
 
+    @SuppressWarnings("unchecked")
+    static <K, V> CompletableFuture<V> computeIfAbsentAsyncImpl(K key, CacheLoader<K, V> loader,
+                                                                boolean cacheNullWhenLoaderReturnNull,
+                                                                long expireAfterWrite, TimeUnit timeUnit,
+                                                                Cache<K, V> cache) {
+        AbstractCache<K, V> abstractCache = CacheUtil.getAbstractCache(cache);
+        CacheLoader<K, V> newLoader = CacheUtil.createProxyLoader(cache, loader, abstractCache::notify);
+        CacheGetResult<V> r;
+        if (cache instanceof RefreshCache) {
+            RefreshCache<K, V> refreshCache = ((RefreshCache<K, V>) cache);
+            r = refreshCache.GET(key);
+            refreshCache.addOrUpdateRefreshTask(key, newLoader);
+        } else {
+            r = cache.GET(key);
+        }
+        return r.future().handle((resultData, ex) -> {
+            if (ex == null && resultData.getResultCode() == CacheResultCode.SUCCESS) {
+                return resultData;
+            } else {
+                return null;
+            }
+        }).thenCompose(resultData -> {
+            if (resultData != null) {
+                return CompletableFuture.completedFuture((V) resultData.getData());
+            }
+            Function<V, CompletionStage<V>> cacheUpdater = loadedValue -> {
+                if (!needUpdate(loadedValue, cacheNullWhenLoaderReturnNull, newLoader)) {
+                    return CompletableFuture.completedFuture(loadedValue);
+                }
+                CacheResult putResult;
+                if (timeUnit != null) {
+                    putResult = cache.PUT(key, loadedValue, expireAfterWrite, timeUnit);
+                } else {
+                    putResult = cache.PUT(key, loadedValue);
+                }
+                return putResult.future().handle((putData, putEx) -> loadedValue);
+            };
+            if (cache.config().isCachePenetrationProtect()) {
+                return synchronizedLoadAsync(cache.config(), abstractCache, key, newLoader, cacheUpdater);
+            } else {
+                return newLoader.loadAsync(key, CacheUtil.asyncExecutor(cache)).thenCompose(cacheUpdater);
+            }
+        }).toCompletableFuture();
+    }
+
     static <K, V> V synchronizedLoad(CacheConfig config, AbstractCache<K,V> abstractCache,
                                      K key, Function<K, V> newLoader, Consumer<V> cacheUpdater) {
         ConcurrentHashMap<Object, LoaderLock> loaderMap = abstractCache.initOrGetLoaderMap();
@@ -191,47 +289,199 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
             boolean create[] = new boolean[1];
             LoaderLock ll = loaderMap.computeIfAbsent(lockKey, (unusedKey) -> {
                 create[0] = true;
-                LoaderLock loaderLock = new LoaderLock();
-                loaderLock.signal = new CountDownLatch(1);
-                loaderLock.loaderThread = Thread.currentThread();
-                return loaderLock;
+                return new LoaderLock(Thread.currentThread());
             });
             if (create[0] || ll.loaderThread == Thread.currentThread()) {
+                boolean success = false;
+                V loadedValue = null;
                 try {
-                    V loadedValue = newLoader.apply(key);
-                    ll.success = true;
-                    ll.value = loadedValue;
+                    loadedValue = newLoader.apply(key);
+                    success = true;
                     cacheUpdater.accept(loadedValue);
                     return loadedValue;
                 } finally {
                     if (create[0]) {
-                        ll.signal.countDown();
-                        loaderMap.remove(lockKey);
+                        loaderMap.remove(lockKey, ll);
+                        ll.complete(success, loadedValue, null);
                     }
                 }
             } else {
                 try {
                     Duration timeout = config.getPenetrationProtectTimeout();
                     if (timeout == null) {
-                        ll.signal.await();
+                        return (V) ll.future.get();
                     } else {
-                        boolean ok = ll.signal.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
-                        if(!ok) {
-                            logger.info("loader wait timeout:" + timeout);
-                            return newLoader.apply(key);
-                        }
+                        return (V) ll.future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
                     }
+                } catch (TimeoutException e) {
+                    logger.info("loader wait timeout:" + config.getPenetrationProtectTimeout());
+                    return newLoader.apply(key);
                 } catch (InterruptedException e) {
                     logger.warn("loader wait interrupted");
                     return newLoader.apply(key);
+                } catch (ExecutionException e) {
+                    // the loader thread failed, try again
+                    continue;
                 }
-                if (ll.success) {
-                    return (V) ll.value;
+            }
+        }
+    }
+
+    /**
+     * Bulk version of synchronizedLoad. The keys locked by this thread are loaded by one loadAll call and
+     * updated by one cacheUpdater call, then wait for the keys which are loading by other threads.
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> Map<K, V> synchronizedLoadAll(CacheConfig config, AbstractCache<K, V> abstractCache,
+                                                Set<K> keys, CacheLoader<K, V> newLoader,
+                                                Consumer<Map<K, V>> cacheUpdater) {
+        ConcurrentHashMap<Object, LoaderLock> loaderMap = abstractCache.initOrGetLoaderMap();
+        Map<K, V> result = new HashMap<>();
+        Set<K> pendingKeys = keys;
+        while (!pendingKeys.isEmpty()) {
+            Set<K> ownKeys = new LinkedHashSet<>();
+            Map<K, Object> createdLockKeys = new HashMap<>();
+            Map<K, LoaderLock> createdLocks = new HashMap<>();
+            Map<K, LoaderLock> waitLocks = new LinkedHashMap<>();
+            for (K key : pendingKeys) {
+                Object lockKey = buildLoaderLockKey(abstractCache, key);
+                boolean create[] = new boolean[1];
+                LoaderLock ll = loaderMap.computeIfAbsent(lockKey, (unusedKey) -> {
+                    create[0] = true;
+                    return new LoaderLock(Thread.currentThread());
+                });
+                if (create[0]) {
+                    ownKeys.add(key);
+                    createdLockKeys.put(key, lockKey);
+                    createdLocks.put(key, ll);
+                } else if (ll.loaderThread == Thread.currentThread()) {
+                    ownKeys.add(key);
                 } else {
-                    continue;
+                    waitLocks.put(key, ll);
                 }
+            }
 
+            if (!ownKeys.isEmpty()) {
+                boolean success = false;
+                Map<K, V> loadResult = null;
+                try {
+                    loadResult = loadAll(newLoader, ownKeys);
+                    success = true;
+                    cacheUpdater.accept(loadResult);
+                    result.putAll(loadResult);
+                } finally {
+                    for (Map.Entry<K, LoaderLock> en : createdLocks.entrySet()) {
+                        loaderMap.remove(createdLockKeys.get(en.getKey()), en.getValue());
+                        en.getValue().complete(success, success ? loadResult.get(en.getKey()) : null, null);
+                    }
+                }
+            }
+
+            Set<K> retryKeys = new LinkedHashSet<>();
+            Set<K> selfLoadKeys = new LinkedHashSet<>();
+            Duration timeout = config.getPenetrationProtectTimeout();
+            long deadline = timeout == null ? 0 : System.nanoTime() + timeout.toNanos();
+            boolean interrupted = false;
+            for (Map.Entry<K, LoaderLock> en : waitLocks.entrySet()) {
+                CompletableFuture<Object> future = en.getValue().future;
+                try {
+                    Object v;
+                    if (interrupted && !future.isDone()) {
+                        selfLoadKeys.add(en.getKey());
+                        continue;
+                    } else if (timeout == null || future.isDone()) {
+                        v = future.get();
+                    } else {
+                        v = future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    }
+                    result.put(en.getKey(), (V) v);
+                } catch (TimeoutException e) {
+                    selfLoadKeys.add(en.getKey());
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    selfLoadKeys.add(en.getKey());
+                } catch (ExecutionException e) {
+                    // the loader thread failed, try again
+                    retryKeys.add(en.getKey());
+                }
             }
+            if (!selfLoadKeys.isEmpty()) {
+                if (interrupted) {
+                    logger.warn("loader wait interrupted");
+                } else {
+                    logger.info("loader wait timeout:" + timeout);
+                }
+                result.putAll(loadAll(newLoader, selfLoadKeys));
+            }
+            pendingKeys = retryKeys;
+        }
+        return result;
+    }
+
+    private static <K, V> Map<K, V> loadAll(CacheLoader<K, V> loader, Set<K> keys) {
+        try {
+            return loader.loadAll(keys);
+        } catch (Throwable e) {
+            throw new CacheInvokeException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Async version of synchronizedLoad. Waiters attach to the future of the loading caller instead of
+     * occupying a thread.
+     */
+    static <K, V> CompletableFuture<V> synchronizedLoadAsync(CacheConfig config, AbstractCache<K, V> abstractCache,
+                                                             K key, CacheLoader<K, V> newLoader,
+                                                             Function<V, CompletionStage<V>> cacheUpdater) {
+        ConcurrentHashMap<Object, LoaderLock> loaderMap = abstractCache.initOrGetLoaderMap();
+        Object lockKey = buildLoaderLockKey(abstractCache, key);
+        boolean create[] = new boolean[1];
+        LoaderLock ll = loaderMap.computeIfAbsent(lockKey, (unusedKey) -> {
+            create[0] = true;
+            // the load runs on other threads, so there is no loader thread to re-enter
+            return new LoaderLock(null);
+        });
+        if (create[0] || ll.loaderThread == Thread.currentThread()) {
+            CompletableFuture<V> f = newLoader.loadAsync(key, CacheUtil.asyncExecutor(abstractCache))
+                    .thenCompose(cacheUpdater).toCompletableFuture();
+            if (create[0]) {
+                f.whenComplete((v, ex) -> {
+                    loaderMap.remove(lockKey, ll);
+                    ll.complete(ex == null, v, ex);
+                });
+            }
+            return f;
+        }
+        CompletableFuture<V> result = new CompletableFuture<>();
+        ll.future.whenComplete((v, ex) -> {
+            if (ex == null) {
+                result.complete((V) v);
+            } else {
+                // the loader failed, try again
+                synchronizedLoadAsync(config, abstractCache, key, newLoader, cacheUpdater)
+                        .whenComplete((v2, ex2) -> complete(result, v2, ex2));
+            }
+        });
+        Duration timeout = config.getPenetrationProtectTimeout();
+        if (timeout != null && !result.isDone()) {
+            ScheduledFuture<?> timeoutTask = JetCacheExecutor.defaultExecutor().schedule(() -> {
+                if (!result.isDone()) {
+                    logger.info("loader wait timeout:" + timeout);
+                    newLoader.loadAsync(key, CacheUtil.asyncExecutor(abstractCache))
+                            .whenComplete((v, ex) -> complete(result, v, ex));
+                }
+            }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+            // don't keep the waiter in the queue of the executor until the timeout
+            result.whenComplete((v, ex) -> timeoutTask.cancel(false));
+        }
+        return result;
+    }
+
+    private static <V> void complete(CompletableFuture<V> future, V value, Throwable ex) {
+        if (ex == null) {
+            future.complete(value);
+        } else {
+            future.completeExceptionally(ex);
         }
     }
 
@@ -254,17 +504,21 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
 
     @Override
     public final CacheResult PUT(K key, V value, long expireAfterWrite, TimeUnit timeUnit) {
-        long t = System.currentTimeMillis();
+        boolean needNotify = needNotify();
+        long t = needNotify ? System.currentTimeMillis() : 0;
         CacheResult result;
         if (key == null) {
             result = CacheResult.FAIL_ILLEGAL_ARGUMENT;
         } else {
             result = do_PUT(key, value, expireAfterWrite, timeUnit);
+            afterKeyChange(key, result);
+        }
+        if (needNotify) {
+            result.future().thenRun(() -> {
+                CachePutEvent event = new CachePutEvent(this, System.currentTimeMillis() - t, key, value, result);
+                notify(event);
+            });
         }
-        result.future().thenRun(() -> {
-            CachePutEvent event = new CachePutEvent(this, System.currentTimeMillis() - t, key, value, result);
-            notify(event);
-        });
         return result;
     }
 
@@ -272,17 +526,21 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
 
     @Override
     public final CacheResult PUT_ALL(Map<? extends K, ? extends V> map, long expireAfterWrite, TimeUnit timeUnit) {
-        long t = System.currentTimeMillis();
+        boolean needNotify = needNotify();
+        long t = needNotify ? System.currentTimeMillis() : 0;
         CacheResult result;
         if (map == null) {
             result = CacheResult.FAIL_ILLEGAL_ARGUMENT;
         } else {
             result = do_PUT_ALL(map, expireAfterWrite, timeUnit);
+            afterKeysChange(map.keySet(), result);
+        }
+        if (needNotify) {
+            result.future().thenRun(() -> {
+                CachePutAllEvent event = new CachePutAllEvent(this, System.currentTimeMillis() - t, map, result);
+                notify(event);
+            });
         }
-        result.future().thenRun(() -> {
-            CachePutAllEvent event = new CachePutAllEvent(this, System.currentTimeMillis() - t, map, result);
-            notify(event);
-        });
         return result;
     }
 
@@ -290,17 +548,21 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
 
     @Override
     public final CacheResult REMOVE(K key) {
-        long t = System.currentTimeMillis();
+        boolean needNotify = needNotify();
+        long t = needNotify ? System.currentTimeMillis() : 0;
         CacheResult result;
         if (key == null) {
             result = CacheResult.FAIL_ILLEGAL_ARGUMENT;
         } else {
             result = do_REMOVE(key);
+            afterKeyChange(key, result);
+        }
+        if (needNotify) {
+            result.future().thenRun(() -> {
+                CacheRemoveEvent event = new CacheRemoveEvent(this, System.currentTimeMillis() - t, key, result);
+                notify(event);
+            });
         }
-        result.future().thenRun(() -> {
-            CacheRemoveEvent event = new CacheRemoveEvent(this, System.currentTimeMillis() - t, key, result);
-            notify(event);
-        });
         return result;
     }
 
@@ -308,17 +570,21 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
 
     @Override
     public final CacheResult REMOVE_ALL(Set<? extends K> keys) {
-        long t = System.currentTimeMillis();
+        boolean needNotify = needNotify();
+        long t = needNotify ? System.currentTimeMillis() : 0;
         CacheResult result;
         if (keys == null) {
             result = CacheResult.FAIL_ILLEGAL_ARGUMENT;
         } else {
             result = do_REMOVE_ALL(keys);
+            afterKeysChange(keys, result);
+        }
+        if (needNotify) {
+            result.future().thenRun(() -> {
+                CacheRemoveAllEvent event = new CacheRemoveAllEvent(this, System.currentTimeMillis() - t, keys, result);
+                notify(event);
+            });
         }
-        result.future().thenRun(() -> {
-            CacheRemoveAllEvent event = new CacheRemoveAllEvent(this, System.currentTimeMillis() - t, keys, result);
-            notify(event);
-        });
         return result;
     }
 
@@ -326,26 +592,40 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
 
     @Override
     public final CacheResult PUT_IF_ABSENT(K key, V value, long expireAfterWrite, TimeUnit timeUnit) {
-        long t = System.currentTimeMillis();
+        boolean needNotify = needNotify();
+        long t = needNotify ? System.currentTimeMillis() : 0;
         CacheResult result;
         if (key == null) {
             result = CacheResult.FAIL_ILLEGAL_ARGUMENT;
         } else {
             result = do_PUT_IF_ABSENT(key, value, expireAfterWrite, timeUnit);
+            afterKeyChange(key, result);
+        }
+        if (needNotify) {
+            result.future().thenRun(() -> {
+                CachePutEvent event = new CachePutEvent(this, System.currentTimeMillis() - t, key, value, result);
+                notify(event);
+            });
         }
-        result.future().thenRun(() -> {
-            CachePutEvent event = new CachePutEvent(this, System.currentTimeMillis() - t, key, value, result);
-            notify(event);
-        });
         return result;
     }
 
     protected abstract CacheResult do_PUT_IF_ABSENT(K key, V value, long expireAfterWrite, TimeUnit timeUnit);
 
     static class LoaderLock {
-        CountDownLatch signal;
-        Thread loaderThread;
-        volatile boolean success;
-        volatile Object value;
+        final Thread loaderThread;
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+
+        LoaderLock(Thread loaderThread) {
+            this.loaderThread = loaderThread;
+        }
+
+        void complete(boolean success, Object value, Throwable ex) {
+            if (success) {
+                future.complete(value);
+            } else {
+                future.completeExceptionally(ex == null ? new CacheException("load fail") : ex);
+            }
+        }
     }
 }
@@ -1,6 +1,7 @@
 package com.alicp.jetcache;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
@@ -134,4 +135,13 @@ public abstract class AbstractCacheBuilder<T extends AbstractCacheBuilder<T>> im
     public void setCachePenetrateProtect(boolean cachePenetrateProtect) {
         getConfig().setCachePenetrationProtect(cachePenetrateProtect);
     }
+
+    public T asyncExecutor(Executor asyncExecutor) {
+        getConfig().setAsyncExecutor(asyncExecutor);
+        return self();
+    }
+
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        getConfig().setAsyncExecutor(asyncExecutor);
+    }
 }
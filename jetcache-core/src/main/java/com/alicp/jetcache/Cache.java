@@ -1,5 +1,6 @@
 package com.alicp.jetcache;
 
+import com.alicp.jetcache.support.JetCacheClock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -7,6 +8,8 @@ import java.io.Closeable;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
@@ -178,14 +181,14 @@ public interface Cache<K, V> extends Closeable {
             return null;
         }
         final String uuid = UUID.randomUUID().toString();
-        final long expireTimestamp = System.currentTimeMillis() + timeUnit.toMillis(expire);
+        final long expireTimestamp = JetCacheClock.currentTimeMillis() + timeUnit.toMillis(expire);
         final CacheConfig config = config();
 
 
         AutoReleaseLock lock = () -> {
             int unlockCount = 0;
             while (unlockCount++ < config.getTryLockUnlockCount()) {
-                if(System.currentTimeMillis() < expireTimestamp) {
+                if(JetCacheClock.currentTimeMillis() < expireTimestamp) {
                     CacheResult unlockResult = REMOVE(key);
                     if (unlockResult.getResultCode() == CacheResultCode.FAIL
                             || unlockResult.getResultCode() == CacheResultCode.PART_SUCCESS) {
@@ -223,7 +226,7 @@ public interface Cache<K, V> extends Closeable {
                         config.getTryLockInquiryCount(), key, lockResult.getMessage());
                 int inquiryCount = 0;
                 while (inquiryCount++ < config.getTryLockInquiryCount()) {
-                    CacheGetResult inquiryResult = cache.GET(key);
+                    CacheGetResult inquiryResult = cache.GET_FOR_LOCK_INQUIRY(key);
                     if (inquiryResult.isSuccess()) {
                         if (uuid.equals(inquiryResult.getValue())) {
                             logger.debug("[tryLock] [{} of {}] [{}] successfully get a lock after inquiry. Key={}",
@@ -289,6 +292,17 @@ public interface Cache<K, V> extends Closeable {
      */
     CacheGetResult<V> GET(K key);
 
+    /**
+     * Gets an entry to check the owner of a lock after tryLock failed to access the cache. The lock is written to
+     * the master, so a cache reading from the replicas should read it from the master instead.
+     * @param key the key
+     * @return the result
+     * @see #tryLock(Object, long, TimeUnit)
+     */
+    default CacheGetResult<V> GET_FOR_LOCK_INQUIRY(K key) {
+        return GET(key);
+    }
+
     /**
      * Gets a collection of entries from the Cache.
      * <p>if the implementation supports asynchronous operation, the cache access may not completed after this method
@@ -457,4 +471,131 @@ public interface Cache<K, V> extends Closeable {
      */
     CacheResult PUT_IF_ABSENT(K key, V value, long expireAfterWrite, TimeUnit timeUnit);
 
+    //--------------------------Async API---------------------------------------------
+
+    /**
+     * Gets an entry from the cache without blocking the caller.
+     * <p>If the cache's builder has specified a {@link CacheLoader} and there is no association in the cache
+     * , it will attempt to load the entry asynchronously.</p>
+     * <p>If error occurs during cache access, the future completes with null instead of completing exceptionally.</p>
+     * @param key the key whose associated value is to be returned
+     * @return a future of the associated value, see {@link #get(Object)}
+     * @see #get(Object)
+     */
+    @SuppressWarnings("unchecked")
+    default CompletableFuture<V> getAsync(K key) {
+        return GET(key).future().handle((resultData, ex) -> {
+            if (ex == null && resultData.getResultCode() == CacheResultCode.SUCCESS) {
+                return (V) resultData.getData();
+            } else {
+                return (V) null;
+            }
+        }).toCompletableFuture();
+    }
+
+    /**
+     * Gets a collection of entries from the Cache without blocking the caller.
+     * <p>If the cache's builder has specified a {@link CacheLoader} and there is no association in the cache
+     * , it will attempt to load the entries asynchronously.</p>
+     * @param keys The keys whose associated values are to be returned.
+     * @return a future of the entries that were found for the given keys, see {@link #getAll(Set)}
+     * @see #getAll(Set)
+     */
+    @SuppressWarnings("unchecked")
+    default CompletableFuture<Map<K, V>> getAllAsync(Set<? extends K> keys) {
+        return GET_ALL(keys).future().handle((resultData, ex) -> {
+            if (ex != null) {
+                return (Map<K, V>) null;
+            }
+            return MultiGetResult.unwrapValues((Map<K, CacheGetResult<V>>) resultData.getOriginData());
+        }).toCompletableFuture();
+    }
+
+    /**
+     * Associates the specified value with the specified key in the cache without blocking the caller.
+     * <p>The returned future completes when the cache operation is completed, it never completes exceptionally.</p>
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return a future which completes when the cache operation is completed
+     * @see #put(Object, Object)
+     */
+    default CompletableFuture<Void> putAsync(K key, V value) {
+        return PUT(key, value).future().handle((resultData, ex) -> (Void) null).toCompletableFuture();
+    }
+
+    /**
+     * Associates the specified value with the specified key in the cache without blocking the caller.
+     * <p>The returned future completes when the cache operation is completed, it never completes exceptionally.</p>
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @param expireAfterWrite the TTL(time to live) of the KV association
+     * @param timeUnit the time unit of expireAfterWrite
+     * @return a future which completes when the cache operation is completed
+     * @see #put(Object, Object, long, TimeUnit)
+     */
+    default CompletableFuture<Void> putAsync(K key, V value, long expireAfterWrite, TimeUnit timeUnit) {
+        return PUT(key, value, expireAfterWrite, timeUnit).future()
+                .handle((resultData, ex) -> (Void) null).toCompletableFuture();
+    }
+
+    /**
+     * Copies all of the entries from the specified map to the cache without blocking the caller.
+     * <p>The returned future completes when the cache operation is completed, it never completes exceptionally.</p>
+     * @param map mappings to be stored in this cache.
+     * @return a future which completes when the cache operation is completed
+     * @see #putAll(Map)
+     */
+    default CompletableFuture<Void> putAllAsync(Map<? extends K, ? extends V> map) {
+        return PUT_ALL(map).future().handle((resultData, ex) -> (Void) null).toCompletableFuture();
+    }
+
+    /**
+     * Removes the mapping for a key from this cache without blocking the caller.
+     * @param key key whose mapping is to be removed from the cache
+     * @return a future of true if the key is removed successfully, see {@link #remove(Object)}
+     * @see #remove(Object)
+     */
+    default CompletableFuture<Boolean> removeAsync(K key) {
+        return REMOVE(key).future().handle((resultData, ex) ->
+                ex == null && resultData.getResultCode() == CacheResultCode.SUCCESS).toCompletableFuture();
+    }
+
+    /**
+     * If there is a value associated with the key, complete with the value;
+     * otherwise use the asynchronous loader load the value, update the cache, and then complete with the value.
+     * <p>The caller is never blocked by the cache access or the loader.</p>
+     * @param key the key
+     * @param loader the asynchronous value loader
+     * @return a future of the value, completes exceptionally with {@link CacheInvokeException} if loader fails
+     * @see CacheConfig#isCacheNullValue()
+     */
+    default CompletableFuture<V> computeIfAbsentAsync(K key, Function<K, CompletionStage<V>> loader) {
+        return computeIfAbsentAsync(key, loader, config().isCacheNullValue());
+    }
+
+    /**
+     * If there is a value associated with the key, complete with the value;
+     * otherwise use the asynchronous loader load the value, update the cache, and then complete with the value.
+     * @param key the key
+     * @param loader the asynchronous value loader
+     * @param cacheNullWhenLoaderReturnNull true if null value returned by loader should put into cache use the key
+     * @return a future of the value
+     */
+    CompletableFuture<V> computeIfAbsentAsync(K key, Function<K, CompletionStage<V>> loader,
+                                              boolean cacheNullWhenLoaderReturnNull);
+
+    /**
+     * If there is a value associated with the key, complete with the value;
+     * otherwise use the asynchronous loader load the value, update the cache, and then complete with the value.
+     * @param key the key
+     * @param loader the asynchronous value loader
+     * @param cacheNullWhenLoaderReturnNull true if null value returned by loader should put into cache use the key
+     * @param expireAfterWrite the TTL(time to live) of the KV association
+     * @param timeUnit the time unit of expireAfterWrite
+     * @return a future of the value
+     */
+    CompletableFuture<V> computeIfAbsentAsync(K key, Function<K, CompletionStage<V>> loader,
+                                              boolean cacheNullWhenLoaderReturnNull,
+                                              long expireAfterWrite, TimeUnit timeUnit);
+
 }
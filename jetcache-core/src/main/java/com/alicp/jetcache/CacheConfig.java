@@ -5,6 +5,7 @@ import com.alicp.jetcache.anno.CacheConsts;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
 /**
@@ -34,6 +35,8 @@ public class CacheConfig<K, V> implements Cloneable {
     private boolean cachePenetrationProtect = false;
     private Duration penetrationProtectTimeout = null;
 
+    private Executor asyncExecutor;
+
     @Override
     public CacheConfig clone() {
         try {
@@ -163,4 +166,16 @@ public class CacheConfig<K, V> implements Cloneable {
     public void setPenetrationProtectTimeout(Duration penetrationProtectTimeout) {
         this.penetrationProtectTimeout = penetrationProtectTimeout;
     }
+
+    /**
+     * @return the executor of the async loads and the async work of the cache, null if
+     * {@link com.alicp.jetcache.support.JetCacheExecutor#asyncExecutor()} is used
+     */
+    public Executor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
 }
@@ -1,8 +1,13 @@
 package com.alicp.jetcache;
 
+import com.alicp.jetcache.support.JetCacheExecutor;
+
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
 /**
@@ -25,6 +30,35 @@ public interface CacheLoader<K, V> extends Function<K ,V> {
         return map;
     }
 
+    /**
+     * Load the value asynchronously, used by the async API of {@link Cache}.
+     * <p>The default implementation invokes {@link #load(Object)} in the executor, override it if the loader is
+     * asynchronous in nature.</p>
+     * @param key the key
+     * @param executor the async executor of the cache, {@link JetCacheExecutor#asyncExecutor()} by default
+     * @return a future of the loaded value
+     */
+    default CompletionStage<V> loadAsync(K key, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> apply(key), executor);
+    }
+
+    /**
+     * Load the values asynchronously, used by the async API of {@link Cache}.
+     * <p>The default implementation invokes {@link #loadAll(Set)} in the executor.</p>
+     * @param keys the keys
+     * @param executor the async executor of the cache, {@link JetCacheExecutor#asyncExecutor()} by default
+     * @return a future of the loaded values
+     */
+    default CompletionStage<Map<K, V>> loadAllAsync(Set<K> keys, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return loadAll(keys);
+            } catch (Throwable e) {
+                throw new CacheInvokeException(e.getMessage(), e);
+            }
+        }, executor);
+    }
+
     @Override
     default V apply(K key) {
         try {
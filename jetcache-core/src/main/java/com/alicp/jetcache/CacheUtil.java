@@ -3,9 +3,14 @@ package com.alicp.jetcache;
 import com.alicp.jetcache.event.CacheEvent;
 import com.alicp.jetcache.event.CacheLoadAllEvent;
 import com.alicp.jetcache.event.CacheLoadEvent;
+import com.alicp.jetcache.support.JetCacheExecutor;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -58,6 +63,24 @@ public class CacheUtil {
                 return kvMap;
             }
 
+            @Override
+            public CompletionStage<V> loadAsync(K key, Executor executor) {
+                long t = System.currentTimeMillis();
+                return invokeAsync(() -> loader.loadAsync(key, executor)).whenComplete((v, ex) -> {
+                    CacheLoadEvent event = new CacheLoadEvent(cache, System.currentTimeMillis() - t, key, v, ex == null);
+                    eventConsumer.accept(event);
+                });
+            }
+
+            @Override
+            public CompletionStage<Map<K, V>> loadAllAsync(Set<K> keys, Executor executor) {
+                long t = System.currentTimeMillis();
+                return invokeAsync(() -> loader.loadAllAsync(keys, executor)).whenComplete((kvMap, ex) -> {
+                    CacheLoadAllEvent event = new CacheLoadAllEvent(cache, System.currentTimeMillis() - t, keys, kvMap, ex == null);
+                    eventConsumer.accept(event);
+                });
+            }
+
             @Override
             public boolean vetoCacheUpdate() {
                 return loader.vetoCacheUpdate();
@@ -65,6 +88,42 @@ public class CacheUtil {
         };
     }
 
+    private interface AsyncInvoker<T> {
+        CompletionStage<T> invoke() throws Throwable;
+    }
+
+    private static <T> CompletionStage<T> invokeAsync(AsyncInvoker<T> invoker) {
+        try {
+            return invoker.invoke();
+        } catch (Throwable e) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(new CacheInvokeException(e.getMessage(), e));
+            return future;
+        }
+    }
+
+    /**
+     * Adapt an asynchronous loader function to CacheLoader, the load method of the returned loader blocks until
+     * the future returned by the function is completed.
+     */
+    public static <K, V> CacheLoader<K, V> createAsyncLoader(Function<K, CompletionStage<V>> asyncLoader) {
+        return new CacheLoader<K, V>() {
+            @Override
+            public V load(K key) throws Throwable {
+                try {
+                    return asyncLoader.apply(key).toCompletableFuture().get();
+                } catch (ExecutionException e) {
+                    throw e.getCause();
+                }
+            }
+
+            @Override
+            public CompletionStage<V> loadAsync(K key, Executor executor) {
+                return invokeAsync(() -> asyncLoader.apply(key));
+            }
+        };
+    }
+
     public static <K, V> ProxyLoader<K, V> createProxyLoader(Cache<K, V> cache,
                                                           Function<K, V> loader,
                                                           Consumer<CacheEvent> eventConsumer) {
@@ -98,4 +157,12 @@ public class CacheUtil {
         return (AbstractCache) c;
     }
 
+    /**
+     * @return the async executor of the cache config, or the shared one if it's not set
+     */
+    static Executor asyncExecutor(Cache<?, ?> c) {
+        Executor executor = c.config().getAsyncExecutor();
+        return executor != null ? executor : JetCacheExecutor.asyncExecutor();
+    }
+
 }
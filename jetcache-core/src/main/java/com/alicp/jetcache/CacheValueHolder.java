@@ -1,5 +1,7 @@
 package com.alicp.jetcache;
 
+import com.alicp.jetcache.support.JetCacheClock;
+
 import java.io.Serializable;
 
 /**
@@ -11,7 +13,7 @@ public final class CacheValueHolder<V> implements Serializable {
     private static final long serialVersionUID = -7973743507831565203L;
     private V value;
     private long expireTime;
-    private long accessTime;
+    private volatile long accessTime;
 
     /**
      * used by kyro
@@ -21,7 +23,7 @@ public final class CacheValueHolder<V> implements Serializable {
 
     public CacheValueHolder(V value, long expireAfterWrite) {
         this.value = value;
-        this.accessTime = System.currentTimeMillis();
+        this.accessTime = JetCacheClock.currentTimeMillis();
         this.expireTime = accessTime + expireAfterWrite;
     }
 
@@ -6,6 +6,7 @@ import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -37,6 +38,17 @@ public class LoadingCache<K, V> extends SimpleProxyCache<K, V> {
         }
     }
 
+    @Override
+    public CompletableFuture<V> getAsync(K key) {
+        CacheLoader<K, V> loader = config.getLoader();
+        if (loader != null) {
+            return AbstractCache.computeIfAbsentAsyncImpl(key, loader,
+                    config.isCacheNullValue(), 0, null, this);
+        } else {
+            return cache.getAsync(key);
+        }
+    }
+
     protected boolean needUpdate(V loadedValue, CacheLoader<K, V> loader) {
         if (loadedValue == null && !config.isCacheNullValue()) {
             return false;
@@ -88,15 +100,20 @@ public class LoadingCache<K, V> extends SimpleProxyCache<K, V> {
             } else {
                 AbstractCache<K, V> abstractCache = CacheUtil.getAbstractCache(cache);
                 loader = CacheUtil.createProxyLoader(cache, loader, eventConsumer);
-                for(K key : keysNeedLoad) {
-                    Consumer<V> cacheUpdater = (v) -> {
-                        if(needUpdate(v, config.getLoader())) {
-                            PUT(key, v);
+                CacheLoader<K, V> theLoader = loader;
+                Consumer<Map<K, V>> cacheUpdater = (loadResult) -> {
+                    Map<K, V> updateValues = new HashMap<>();
+                    loadResult.forEach((k, v) -> {
+                        if (needUpdate(v, theLoader)) {
+                            updateValues.put(k, v);
                         }
-                    };
-                    V v = AbstractCache.synchronizedLoad(config, abstractCache, key, loader, cacheUpdater);
-                    kvMap.put(key, v);
-                }
+                    });
+                    // batch put
+                    if (!updateValues.isEmpty()) {
+                        PUT_ALL(updateValues);
+                    }
+                };
+                kvMap.putAll(AbstractCache.synchronizedLoadAll(config, abstractCache, keysNeedLoad, loader, cacheUpdater));
             }
             return kvMap;
         } else {
@@ -104,4 +121,42 @@ public class LoadingCache<K, V> extends SimpleProxyCache<K, V> {
         }
 
     }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<Map<K, V>> getAllAsync(Set<? extends K> keys) {
+        CacheLoader<K, V> loader = config.getLoader();
+        if (loader == null || keys == null) {
+            return cache.getAllAsync(keys);
+        }
+        CacheLoader<K, V> proxyLoader = CacheUtil.createProxyLoader(cache, loader, eventConsumer);
+        return GET_ALL(keys).future().handle((resultData, ex) -> {
+            Map<K, V> kvMap = null;
+            if (ex == null && (resultData.getResultCode() == CacheResultCode.SUCCESS
+                    || resultData.getResultCode() == CacheResultCode.PART_SUCCESS)) {
+                kvMap = MultiGetResult.unwrapValues((Map<K, CacheGetResult<V>>) resultData.getOriginData());
+            }
+            return kvMap == null ? new HashMap<K, V>() : kvMap;
+        }).thenCompose(kvMap -> {
+            Set<K> keysNeedLoad = new LinkedHashSet<>();
+            keys.forEach((k) -> {
+                if (!kvMap.containsKey(k)) {
+                    keysNeedLoad.add(k);
+                }
+            });
+            if (keysNeedLoad.isEmpty()) {
+                return CompletableFuture.completedFuture(kvMap);
+            }
+            return proxyLoader.loadAllAsync(keysNeedLoad, CacheUtil.asyncExecutor(cache)).thenCompose(loadResult -> {
+                Map<K, V> updateValues = loadResult.entrySet().stream()
+                        .filter(kvEntry -> needUpdate(kvEntry.getValue(), proxyLoader))
+                        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+                kvMap.putAll(loadResult);
+                if (updateValues.isEmpty()) {
+                    return CompletableFuture.completedFuture(kvMap);
+                }
+                return PUT_ALL(updateValues).future().handle((putData, putEx) -> kvMap);
+            });
+        }).toCompletableFuture();
+    }
 }
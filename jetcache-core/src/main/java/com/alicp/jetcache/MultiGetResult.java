@@ -44,6 +44,10 @@ public class MultiGetResult<K, V> extends CacheResult {
 
     public Map<K, V> unwrapValues() {
         waitForResult();
+        return unwrapValues(values);
+    }
+
+    static <K, V> Map<K, V> unwrapValues(Map<K, CacheGetResult<V>> values) {
         if (values == null) {
             return null;
         }
@@ -1,7 +1,11 @@
 package com.alicp.jetcache;
 
+import com.alicp.jetcache.embedded.AbstractEmbeddedCache;
+import com.alicp.jetcache.support.JetCacheClock;
+
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
@@ -73,18 +77,61 @@ public class MultiLevelCache<K, V> extends AbstractCache<K, V> {
         }
     }
 
+    @Override
+    public V get(K key) {
+        if (key != null && !needNotify() && caches[0] instanceof AbstractEmbeddedCache) {
+            AbstractEmbeddedCache<K, V> localCache = (AbstractEmbeddedCache<K, V>) caches[0];
+            if (!localCache.needNotify()) {
+                // hit of the first level don't need to fill any cache, so return directly
+                CacheValueHolder<V> h = localCache.getHolderIfPresent(key);
+                if (h != null) {
+                    return unwrapHolder(h).getValue();
+                }
+            }
+        }
+        return super.get(key);
+    }
+
     @Override
     protected CacheGetResult<V> do_GET(K key) {
-        for (int i = 0; i < caches.length; i++) {
-            Cache cache = caches[i];
-            CacheGetResult result = cache.GET(key);
-            if (result.isSuccess()) {
-                CacheValueHolder<V> holder = unwrapHolder(result.getHolder());
-                checkResultAndFillUpperCache(key, i, holder);
-                return new CacheGetResult(CacheResultCode.SUCCESS, null, holder);
+        return new CacheGetResult<>(GET_caches(0, key));
+    }
+
+    /**
+     * Query the caches level by level, the next level is queried only after the previous one is completed,
+     * so the caller is not blocked if the sub caches are asynchronous.
+     */
+    private CompletionStage<ResultData> GET_caches(int i, K key) {
+        if (i == caches.length) {
+            return CompletableFuture.completedFuture(new ResultData(CacheResultCode.NOT_EXISTS, null, null));
+        }
+        CacheGetResult result = caches[i].GET(key);
+        return offIoThread(result.future()).handle((resultData, ex) -> {
+            if (ex == null && resultData.getResultCode() == CacheResultCode.SUCCESS) {
+                return resultData;
+            } else {
+                return null;
+            }
+        }).thenCompose(resultData -> {
+            if (resultData == null) {
+                return GET_caches(i + 1, key);
             }
+            CacheValueHolder<V> holder = unwrapHolder((CacheValueHolder<V>) resultData.getOriginData());
+            checkResultAndFillUpperCache(key, i, holder);
+            return CompletableFuture.completedFuture(new ResultData(CacheResultCode.SUCCESS, null, holder));
+        });
+    }
+
+    /**
+     * A remote cache completes its result on an I/O thread (e.g. the event loop of lettuce), so the next level
+     * and the fill of the upper levels run in the async executor instead. A completed result is used as is.
+     */
+    private <T> CompletionStage<T> offIoThread(CompletionStage<T> future) {
+        if (future.toCompletableFuture().isDone()) {
+            return future;
         }
-        return CacheGetResult.NOT_EXISTS_WITHOUT_MSG;
+        return future.whenCompleteAsync((v, ex) -> {
+        }, CacheUtil.asyncExecutor(this));
     }
 
     private CacheValueHolder<V> unwrapHolder(CacheValueHolder<V> h) {
@@ -103,7 +150,7 @@ public class MultiLevelCache<K, V> extends AbstractCache<K, V> {
     private void checkResultAndFillUpperCache(K key, int i, CacheValueHolder<V> h) {
         Objects.requireNonNull(h);
         long currentExpire = h.getExpireTime();
-        long now = System.currentTimeMillis();
+        long now = JetCacheClock.currentTimeMillis();
         if (now <= currentExpire) {
             if(config.isUseExpireOfSubCache()){
                 PUT_caches(i, key, h.getValue(), 0, null);
@@ -119,30 +166,36 @@ public class MultiLevelCache<K, V> extends AbstractCache<K, V> {
     @Override
     protected MultiGetResult<K, V> do_GET_ALL(Set<? extends K> keys) {
         HashMap<K, CacheGetResult<V>> resultMap = new HashMap<>();
-        Set<K> restKeys = new HashSet<>(keys);
-        for (int i = 0; i < caches.length; i++) {
-            if (restKeys.size() == 0) {
-                break;
+        return new MultiGetResult<>(GET_ALL_caches(0, new HashSet<>(keys), resultMap));
+    }
+
+    private CompletionStage<ResultData> GET_ALL_caches(int i, Set<K> restKeys, Map<K, CacheGetResult<V>> resultMap) {
+        if (i == caches.length || restKeys.size() == 0) {
+            for (K k : restKeys) {
+                resultMap.put(k, CacheGetResult.NOT_EXISTS_WITHOUT_MSG);
             }
-            Cache<K, CacheValueHolder<V>> c = caches[i];
-            MultiGetResult<K, CacheValueHolder<V>> allResult = c.GET_ALL(restKeys);
-            if (allResult.isSuccess() && allResult.getValues() != null) {
-                for (Map.Entry<K, CacheGetResult<CacheValueHolder<V>>> en : allResult.getValues().entrySet()) {
+            return CompletableFuture.completedFuture(new ResultData(CacheResultCode.SUCCESS, null, resultMap));
+        }
+        Cache<K, CacheValueHolder<V>> c = caches[i];
+        MultiGetResult<K, CacheValueHolder<V>> allResult = c.GET_ALL(restKeys);
+        return offIoThread(allResult.future()).handle((resultData, ex) -> {
+            Set<K> nextKeys = new HashSet<>(restKeys);
+            if (ex == null && resultData.getResultCode() == CacheResultCode.SUCCESS && resultData.getOriginData() != null) {
+                Map<K, CacheGetResult<CacheValueHolder<V>>> values =
+                        (Map<K, CacheGetResult<CacheValueHolder<V>>>) resultData.getOriginData();
+                for (Map.Entry<K, CacheGetResult<CacheValueHolder<V>>> en : values.entrySet()) {
                     K key = en.getKey();
                     CacheGetResult result = en.getValue();
                     if (result.isSuccess()) {
                         CacheValueHolder<V> holder = unwrapHolder(result.getHolder());
                         checkResultAndFillUpperCache(key, i, holder);
                         resultMap.put(key, new CacheGetResult(CacheResultCode.SUCCESS, null, holder));
-                        restKeys.remove(key);
+                        nextKeys.remove(key);
                     }
                 }
             }
-        }
-        for (K k : restKeys) {
-            resultMap.put(k, CacheGetResult.NOT_EXISTS_WITHOUT_MSG);
-        }
-        return new MultiGetResult<>(CacheResultCode.SUCCESS, null, resultMap);
+            return nextKeys;
+        }).thenCompose(nextKeys -> GET_ALL_caches(i + 1, nextKeys, resultMap));
     }
 
     @Override
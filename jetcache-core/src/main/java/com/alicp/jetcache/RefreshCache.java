@@ -1,13 +1,17 @@
 package com.alicp.jetcache;
 
 import com.alicp.jetcache.embedded.AbstractEmbeddedCache;
+import com.alicp.jetcache.embedded.CaffeineCache;
 import com.alicp.jetcache.external.AbstractExternalCache;
+import com.alicp.jetcache.support.JetCacheClock;
 import com.alicp.jetcache.support.JetCacheExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -34,6 +38,14 @@ public class RefreshCache<K, V> extends LoadingCache<K, V> {
     protected void stopRefresh() {
         List<RefreshTask> tasks = new ArrayList<>();
         tasks.addAll(taskMap.values());
+        Cache c = concreteCache();
+        if (c instanceof CaffeineCache) {
+            for (Object r : ((CaffeineCache) c).refreshTasks()) {
+                if (r instanceof RefreshCache.RefreshTask) {
+                    tasks.add((RefreshTask) r);
+                }
+            }
+        }
         tasks.forEach(task -> task.cancel());
     }
 
@@ -66,6 +78,26 @@ public class RefreshCache<K, V> extends LoadingCache<K, V> {
                 expireAfterWrite, timeUnit, this);
     }
 
+    @Override
+    public CompletableFuture<V> computeIfAbsentAsync(K key, Function<K, CompletionStage<V>> loader) {
+        return computeIfAbsentAsync(key, loader, config().isCacheNullValue());
+    }
+
+    @Override
+    public CompletableFuture<V> computeIfAbsentAsync(K key, Function<K, CompletionStage<V>> loader,
+                                                     boolean cacheNullWhenLoaderReturnNull) {
+        return AbstractCache.computeIfAbsentAsyncImpl(key, CacheUtil.createAsyncLoader(loader),
+                cacheNullWhenLoaderReturnNull, 0, null, this);
+    }
+
+    @Override
+    public CompletableFuture<V> computeIfAbsentAsync(K key, Function<K, CompletionStage<V>> loader,
+                                                     boolean cacheNullWhenLoaderReturnNull,
+                                                     long expireAfterWrite, TimeUnit timeUnit) {
+        return AbstractCache.computeIfAbsentAsyncImpl(key, CacheUtil.createAsyncLoader(loader),
+                cacheNullWhenLoaderReturnNull, expireAfterWrite, timeUnit, this);
+    }
+
     protected Cache concreteCache() {
         Cache c = getTargetCache();
         while (true) {
@@ -101,6 +133,17 @@ public class RefreshCache<K, V> extends LoadingCache<K, V> {
         }
     }
 
+    private CaffeineCache nativeRefreshCache(long refreshMillis) {
+        if (multiLevelCache) {
+            return null;
+        }
+        Cache c = concreteCache();
+        if (c instanceof CaffeineCache && ((CaffeineCache) c).getNativeRefreshMillis() == refreshMillis) {
+            return (CaffeineCache) c;
+        }
+        return null;
+    }
+
     protected void addOrUpdateRefreshTask(K key, CacheLoader<K,V> loader) {
         RefreshPolicy refreshPolicy = config.getRefreshPolicy();
         if (refreshPolicy == null) {
@@ -109,16 +152,28 @@ public class RefreshCache<K, V> extends LoadingCache<K, V> {
         long refreshMillis = refreshPolicy.getRefreshMillis();
         if (refreshMillis > 0) {
             Object taskId = getTaskId(key);
+            CaffeineCache nativeCache = nativeRefreshCache(refreshMillis);
+            if (nativeCache != null) {
+                // caffeine runs the task when the key is read after refreshAfterWrite, no need to schedule it
+                RefreshTask refreshTask = (RefreshTask) nativeCache.computeRefreshTaskIfAbsent(taskId, tid -> {
+                    logger.debug("add native refresh task. interval={},  key={}", refreshMillis , key);
+                    RefreshTask task = new RefreshTask(taskId, key, loader);
+                    task.nativeCache = nativeCache;
+                    return task;
+                });
+                refreshTask.lastAccessTime = JetCacheClock.currentTimeMillis();
+                return;
+            }
             RefreshTask refreshTask = taskMap.computeIfAbsent(taskId, tid -> {
                 logger.debug("add refresh task. interval={},  key={}", refreshMillis , key);
                 RefreshTask task = new RefreshTask(taskId, key, loader);
-                task.lastAccessTime = System.currentTimeMillis();
+                task.lastAccessTime = JetCacheClock.currentTimeMillis();
                 ScheduledFuture<?> future = JetCacheExecutor.heavyIOExecutor().scheduleWithFixedDelay(
                         task, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
                 task.future = future;
                 return task;
             });
-            refreshTask.lastAccessTime = System.currentTimeMillis();
+            refreshTask.lastAccessTime = JetCacheClock.currentTimeMillis();
         }
     }
 
@@ -140,6 +195,24 @@ public class RefreshCache<K, V> extends LoadingCache<K, V> {
         return super.getAll(keys);
     }
 
+    @Override
+    public CompletableFuture<V> getAsync(K key) {
+        if (config.getRefreshPolicy() != null && hasLoader()) {
+            addOrUpdateRefreshTask(key, null);
+        }
+        return super.getAsync(key);
+    }
+
+    @Override
+    public CompletableFuture<Map<K, V>> getAllAsync(Set<? extends K> keys) {
+        if (config.getRefreshPolicy() != null && hasLoader()) {
+            for (K key : keys) {
+                addOrUpdateRefreshTask(key, null);
+            }
+        }
+        return super.getAllAsync(keys);
+    }
+
     class RefreshTask implements Runnable {
         private Object taskId;
         private K key;
@@ -147,6 +220,7 @@ public class RefreshCache<K, V> extends LoadingCache<K, V> {
 
         private long lastAccessTime;
         private ScheduledFuture future;
+        private CaffeineCache nativeCache;
 
         RefreshTask(Object taskId, K key, CacheLoader<K, V> loader) {
             this.taskId = taskId;
@@ -156,6 +230,10 @@ public class RefreshCache<K, V> extends LoadingCache<K, V> {
 
         private void cancel() {
             logger.debug("cancel refresh: {}", key);
+            if (nativeCache != null) {
+                nativeCache.removeRefreshTask(taskId, this);
+                return;
+            }
             future.cancel(false);
             taskMap.remove(taskId);
         }
@@ -180,7 +258,7 @@ public class RefreshCache<K, V> extends LoadingCache<K, V> {
             byte[] timestampKey = combine(newKey, "_#TS#".getBytes());
 
             // AbstractExternalCache buildKey method will not convert byte[]
-            CacheGetResult refreshTimeResult = concreteCache.GET(timestampKey);
+            CacheGetResult refreshTimeResult = ((AbstractExternalCache) concreteCache).GET_FROM_MASTER(timestampKey);
             boolean shouldLoad = false;
             if (refreshTimeResult.isSuccess()) {
                 shouldLoad = currentTime >= Long.parseLong(refreshTimeResult.getValue().toString()) + refreshMillis;
@@ -199,7 +277,7 @@ public class RefreshCache<K, V> extends LoadingCache<K, V> {
                 try {
                     load();
                     // AbstractExternalCache buildKey method will not convert byte[]
-                    concreteCache.put(timestampKey, String.valueOf(System.currentTimeMillis()));
+                    concreteCache.put(timestampKey, String.valueOf(JetCacheClock.currentTimeMillis()));
                 } catch (Throwable e) {
                     throw new CacheException("refresh error", e);
                 }
@@ -234,7 +312,7 @@ public class RefreshCache<K, V> extends LoadingCache<K, V> {
                     cancel();
                     return;
                 }
-                long now = System.currentTimeMillis();
+                long now = JetCacheClock.currentTimeMillis();
                 long stopRefreshAfterLastAccessMillis = config.getRefreshPolicy().getStopRefreshAfterLastAccessMillis();
                 if (stopRefreshAfterLastAccessMillis > 0) {
                     if (lastAccessTime + stopRefreshAfterLastAccessMillis < now) {
@@ -2,6 +2,8 @@ package com.alicp.jetcache;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
@@ -83,6 +85,11 @@ public class SimpleProxyCache<K, V> implements ProxyCache<K, V> {
         return cache.GET(key);
     }
 
+    @Override
+    public CacheGetResult<V> GET_FOR_LOCK_INQUIRY(K key) {
+        return cache.GET_FOR_LOCK_INQUIRY(key);
+    }
+
     @Override
     public MultiGetResult<K, V> GET_ALL(Set<? extends K> keys) {
         return cache.GET_ALL(keys);
@@ -148,6 +155,54 @@ public class SimpleProxyCache<K, V> implements ProxyCache<K, V> {
         return cache.PUT_IF_ABSENT(key, value, expireAfterWrite, timeUnit);
     }
 
+    @Override
+    public CompletableFuture<V> getAsync(K key) {
+        return cache.getAsync(key);
+    }
+
+    @Override
+    public CompletableFuture<Map<K, V>> getAllAsync(Set<? extends K> keys) {
+        return cache.getAllAsync(keys);
+    }
+
+    @Override
+    public CompletableFuture<Void> putAsync(K key, V value) {
+        return cache.putAsync(key, value);
+    }
+
+    @Override
+    public CompletableFuture<Void> putAsync(K key, V value, long expireAfterWrite, TimeUnit timeUnit) {
+        return cache.putAsync(key, value, expireAfterWrite, timeUnit);
+    }
+
+    @Override
+    public CompletableFuture<Void> putAllAsync(Map<? extends K, ? extends V> map) {
+        return cache.putAllAsync(map);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeAsync(K key) {
+        return cache.removeAsync(key);
+    }
+
+    @Override
+    public CompletableFuture<V> computeIfAbsentAsync(K key, Function<K, CompletionStage<V>> loader) {
+        return cache.computeIfAbsentAsync(key, loader);
+    }
+
+    @Override
+    public CompletableFuture<V> computeIfAbsentAsync(K key, Function<K, CompletionStage<V>> loader,
+                                                     boolean cacheNullWhenLoaderReturnNull) {
+        return cache.computeIfAbsentAsync(key, loader, cacheNullWhenLoaderReturnNull);
+    }
+
+    @Override
+    public CompletableFuture<V> computeIfAbsentAsync(K key, Function<K, CompletionStage<V>> loader,
+                                                     boolean cacheNullWhenLoaderReturnNull,
+                                                     long expireAfterWrite, TimeUnit timeUnit) {
+        return cache.computeIfAbsentAsync(key, loader, cacheNullWhenLoaderReturnNull, expireAfterWrite, timeUnit);
+    }
+
     @Override
     public void close() {
         cache.close();
@@ -0,0 +1,21 @@
+package com.alicp.jetcache;
+
+/**
+ * The time source of jetcache, all expiration checks use it.
+ *
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @see com.alicp.jetcache.support.JetCacheClock
+ */
+@FunctionalInterface
+public interface Ticker {
+
+    Ticker SYSTEM = System::currentTimeMillis;
+
+    /**
+     * @return the current time in milliseconds, the same base as System.currentTimeMillis()
+     */
+    long currentTimeMillis();
+
+}
@@ -4,12 +4,19 @@
 package com.alicp.jetcache.embedded;
 
 import com.alicp.jetcache.*;
+import com.alicp.jetcache.support.JetCacheClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -17,13 +24,23 @@ import java.util.stream.Collectors;
  * @author <a href="mailto:areyouok@gmail.com">huangli</a>
  */
 public abstract class AbstractEmbeddedCache<K, V> extends AbstractCache<K, V> {
+    private static Logger logger = LoggerFactory.getLogger(AbstractEmbeddedCache.class);
+
     protected EmbeddedCacheConfig<K, V> config;
     protected InnerMap innerMap;
+    // null if the values are stored as they are
+    private final CompactValueCodec codec;
+    // null until the miss count is enabled, counted without a monitor so the fast paths are kept
+    private volatile LongAdder missCount;
 
     protected abstract InnerMap createAreaCache();
 
     public AbstractEmbeddedCache(EmbeddedCacheConfig<K, V> config) {
         this.config = config;
+        if (config.getMaximumWeight() > 0 && config.getWeigher() == null && !config.isStoreValueAsBytes()) {
+            throw new CacheConfigException("weigher is required when maximumWeight is set and storeValueAsBytes is false");
+        }
+        this.codec = config.isStoreValueAsBytes() ? new CompactValueCodec(config) : null;
         innerMap = createAreaCache();
     }
 
@@ -45,31 +62,272 @@ public abstract class AbstractEmbeddedCache<K, V> extends AbstractCache<K, V> {
     protected CacheGetResult<V> do_GET(K key) {
         Object newKey = buildKey(key);
         CacheValueHolder<V> holder = (CacheValueHolder<V>) innerMap.getValue(newKey);
-        return parseHolderResult(holder);
+        return decodeResult(holder);
     }
 
     protected CacheGetResult<V> parseHolderResult(CacheValueHolder<V> holder) {
-        long now = System.currentTimeMillis();
         if (holder == null) {
             return CacheGetResult.NOT_EXISTS_WITHOUT_MSG;
-        } else if (now >= holder.getExpireTime()) {
+        } else if (!checkAndTouch(holder, JetCacheClock.currentTimeMillis())) {
             return CacheGetResult.EXPIRED_WITHOUT_MSG;
         } else {
-            synchronized (holder) {
-                long accessTime = holder.getAccessTime();
-                if (config.isExpireAfterAccess()) {
-                    long expireAfterAccess = config.getExpireAfterAccessInMillis();
-                    if (now >= accessTime + expireAfterAccess) {
-                        return CacheGetResult.EXPIRED_WITHOUT_MSG;
-                    }
-                }
+            return new CacheGetResult(CacheResultCode.SUCCESS, null, holder);
+        }
+    }
+
+    private CacheGetResult<V> decodeResult(CacheValueHolder<V> holder) {
+        CacheGetResult<V> result = parseHolderResult(holder);
+        if (!result.isSuccess()) {
+            recordMiss();
+            return result;
+        }
+        if (codec == null) {
+            return result;
+        }
+        return new CacheGetResult(CacheResultCode.SUCCESS, null, decodeHolder(holder));
+    }
+
+    /**
+     * @return the value to store in the inner map, which is the encoded value if storeValueAsBytes is enabled
+     */
+    protected Object encodeValue(Object value) {
+        return codec == null ? value : codec.encode(value);
+    }
+
+    protected V decodeValue(Object stored) {
+        return codec == null ? (V) stored : (V) codec.decode(stored);
+    }
+
+    /**
+     * @return the holder itself, or a copy with the decoded value if storeValueAsBytes is enabled
+     */
+    protected CacheValueHolder<V> decodeHolder(CacheValueHolder<V> holder) {
+        if (codec == null) {
+            return holder;
+        }
+        CacheValueHolder<V> h = new CacheValueHolder<>();
+        h.setValue(decodeValue(holder.getValue()));
+        h.setExpireTime(holder.getExpireTime());
+        h.setAccessTime(holder.getAccessTime());
+        return h;
+    }
+
+    /**
+     * Check the expiration of the holder and update its access time if expireAfterAccess is enabled.
+     * @return false if the holder is expired
+     */
+    protected boolean checkAndTouch(CacheValueHolder<V> holder, long now) {
+        if (JetCacheClock.hasPassed(now, holder.getExpireTime())) {
+            return false;
+        }
+        if (config.isExpireAfterAccess()) {
+            // lock free, concurrent readers may overwrite a newer access time with an older one, the
+            // difference is negligible. skip the write if the access time is unchanged to avoid cache line bouncing.
+            long accessTime = holder.getAccessTime();
+            if (JetCacheClock.hasPassed(now, accessTime + config.getExpireAfterAccessInMillis())) {
+                return false;
+            }
+            if (now > accessTime) {
                 holder.setAccessTime(now);
             }
+        }
+        return true;
+    }
 
-            return new CacheGetResult(CacheResultCode.SUCCESS, null, holder);
+    /**
+     * Get the holder of the key without creating any result object, this method don't notify the monitors.
+     * @return the holder, or null if the key does not exist or expired
+     */
+    public CacheValueHolder<V> getHolderIfPresent(K key) {
+        if (key == null) {
+            return null;
+        }
+        CacheValueHolder<V> holder = (CacheValueHolder<V>) innerMap.getValue(buildKey(key));
+        if (holder == null || !checkAndTouch(holder, JetCacheClock.currentTimeMillis())) {
+            recordMiss();
+            return null;
+        }
+        return decodeHolder(holder);
+    }
+
+    /**
+     * Get the value of the key, a hit allocates nothing if the cache has no monitor.
+     * @return the value, or null if the key does not exist or expired
+     */
+    public V getIfPresent(K key) {
+        if (needNotify()) {
+            CacheGetResult<V> result = GET(key);
+            return result.isSuccess() ? result.getValue() : null;
+        }
+        if (key == null) {
+            return null;
+        }
+        CacheValueHolder<V> holder = (CacheValueHolder<V>) innerMap.getValue(buildKey(key));
+        if (holder == null || !checkAndTouch(holder, JetCacheClock.currentTimeMillis())) {
+            recordMiss();
+            return null;
+        }
+        return decodeValue(holder.getValue());
+    }
+
+    @Override
+    public V get(K key) {
+        return getIfPresent(key);
+    }
+
+    /**
+     * Atomically compute the value of the key without external locks. The function gets null if the key does not
+     * exist or expired, a non-null result is put with the default expire time and a null result removes the key.
+     * The monitors are not notified.
+     * @return the new value
+     */
+    @SuppressWarnings("unchecked")
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Object[] result = new Object[1];
+        innerMap.computeValue(buildKey(key), (k, old) -> {
+            CacheValueHolder<V> holder = (CacheValueHolder<V>) old;
+            V oldValue = null;
+            if (holder != null && checkAndTouch(holder, JetCacheClock.currentTimeMillis())) {
+                oldValue = decodeValue(holder.getValue());
+            }
+            V newValue = remappingFunction.apply(key, oldValue);
+            result[0] = newValue;
+            return newValue == null ? null : new CacheValueHolder(encodeValue(newValue), config.getExpireAfterWriteInMillis());
+        });
+        return (V) result[0];
+    }
+
+    /**
+     * Atomically merge the value like Map.merge, an expired value is treated as absent.
+     * @return the new value
+     * @see #compute(Object, BiFunction)
+     */
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(value);
+        return compute(key, (k, oldValue) -> oldValue == null ? value : remappingFunction.apply(oldValue, value));
+    }
+
+    /**
+     * Replace the value only if the current value equals oldValue and is not expired, the new value is put
+     * with the default expire time. The monitors are not notified.
+     * @return true if the value is replaced
+     * @see #compute(Object, BiFunction)
+     */
+    @SuppressWarnings("unchecked")
+    public boolean replace(K key, V oldValue, V newValue) {
+        boolean[] replaced = new boolean[1];
+        innerMap.computeValue(buildKey(key), (k, old) -> {
+            CacheValueHolder<V> holder = (CacheValueHolder<V>) old;
+            if (holder == null || !checkAndTouch(holder, JetCacheClock.currentTimeMillis())
+                    || !Objects.equals(decodeValue(holder.getValue()), oldValue)) {
+                // leave the entry unchanged
+                return old;
+            }
+            replaced[0] = true;
+            return new CacheValueHolder(encodeValue(newValue), config.getExpireAfterWriteInMillis());
+        });
+        return replaced[0];
+    }
+
+    /**
+     * Change the entry limit of this cache, the extra entries are evicted if the limit is decreased.
+     * @return false if the implementation can't be resized
+     */
+    public boolean resize(int limit) {
+        return false;
+    }
+
+    /**
+     * @return the approximate entry count, or -1 if the implementation can't tell
+     */
+    public long estimatedSize() {
+        return -1;
+    }
+
+    /**
+     * Change the maximumWeight of this cache, the extra entries are evicted if it is decreased.
+     * @return false if the implementation can't be resized or the cache is not bounded by weight
+     */
+    public boolean resizeWeight(long maximumWeight) {
+        return false;
+    }
+
+    /**
+     * @return the approximate total weight, or -1 if the implementation can't tell
+     */
+    public long estimatedWeight() {
+        return -1;
+    }
+
+    /**
+     * Count the lookups which miss, including the ones which don't notify the monitors.
+     */
+    synchronized void enableMissCount() {
+        if (missCount == null) {
+            missCount = new LongAdder();
         }
     }
 
+    /**
+     * @return the misses since the last call, 0 if the miss count is not enabled
+     */
+    long sumMissCountThenReset() {
+        LongAdder c = missCount;
+        return c == null ? 0 : c.sumThenReset();
+    }
+
+    protected void recordMiss() {
+        LongAdder c = missCount;
+        if (c != null) {
+            c.increment();
+        }
+    }
+
+    /**
+     * Iterate the (converted key, holder) entries, used by the snapshot.
+     */
+    protected void forEachEntry(BiConsumer<Object, CacheValueHolder<V>> action) {
+        throw new UnsupportedOperationException(getClass().getName() + " can't be iterated");
+    }
+
+    /**
+     * Load the entries from the snapshot file if it's configured, the subclass call this method
+     * at the end of its constructor.
+     */
+    protected void loadSnapshot() {
+        String file = config.getSnapshotFile();
+        if (file == null) {
+            return;
+        }
+        try {
+            int count = CacheSnapshot.load(this, file);
+            logger.info("load {} entries from snapshot {}", count, file);
+        } catch (Exception e) {
+            logger.error("load snapshot error: " + file, e);
+        }
+    }
+
+    /**
+     * Save the entries to the snapshot file if it's configured.
+     */
+    public void saveSnapshot() {
+        String file = config.getSnapshotFile();
+        if (file == null) {
+            return;
+        }
+        try {
+            int count = CacheSnapshot.save(this, file);
+            logger.info("save {} entries to snapshot {}", count, file);
+        } catch (Exception e) {
+            logger.error("save snapshot error: " + file, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        saveSnapshot();
+    }
+
     @Override
     protected MultiGetResult<K, V> do_GET_ALL(Set<? extends K> keys) {
         ArrayList<K> keyList = new ArrayList<K>(keys.size());
@@ -85,7 +343,7 @@ public abstract class AbstractEmbeddedCache<K, V> extends AbstractCache<K, V> {
             K key = keyList.get(i);
             Object newKey = newKeyList.get(i);
             CacheValueHolder<V> holder = innerResultMap.get(newKey);
-            resultMap.put(key, parseHolderResult(holder));
+            resultMap.put(key, decodeResult(holder));
         }
         MultiGetResult<K, V> result = new MultiGetResult<>(CacheResultCode.SUCCESS, null, resultMap);
         return result;
@@ -93,7 +351,7 @@ public abstract class AbstractEmbeddedCache<K, V> extends AbstractCache<K, V> {
 
     @Override
     protected CacheResult do_PUT(K key, V value, long expireAfterWrite, TimeUnit timeUnit) {
-        CacheValueHolder<V> cacheObject = new CacheValueHolder(value ,timeUnit.toMillis(expireAfterWrite));
+        CacheValueHolder<V> cacheObject = new CacheValueHolder(encodeValue(value), timeUnit.toMillis(expireAfterWrite));
         innerMap.putValue(buildKey(key), cacheObject);
         return CacheResult.SUCCESS_WITHOUT_MSG;
     }
@@ -102,7 +360,8 @@ public abstract class AbstractEmbeddedCache<K, V> extends AbstractCache<K, V> {
     protected CacheResult do_PUT_ALL(Map<? extends K, ? extends V> map, long expireAfterWrite, TimeUnit timeUnit) {
         HashMap newKeyMap = new HashMap();
         for (Map.Entry<? extends K, ? extends V> en : map.entrySet()) {
-            CacheValueHolder<V> cacheObject = new CacheValueHolder(en.getValue(), timeUnit.toMillis(expireAfterWrite));
+            CacheValueHolder<V> cacheObject = new CacheValueHolder(encodeValue(en.getValue()),
+                    timeUnit.toMillis(expireAfterWrite));
             newKeyMap.put(buildKey(en.getKey()), cacheObject);
         }
         innerMap.putAllValues(newKeyMap);
@@ -130,7 +389,7 @@ public abstract class AbstractEmbeddedCache<K, V> extends AbstractCache<K, V> {
 
     @Override
     protected CacheResult do_PUT_IF_ABSENT(K key, V value, long expireAfterWrite, TimeUnit timeUnit) {
-        CacheValueHolder<V> cacheObject = new CacheValueHolder(value, timeUnit.toMillis(expireAfterWrite));
+        CacheValueHolder<V> cacheObject = new CacheValueHolder(encodeValue(value), timeUnit.toMillis(expireAfterWrite));
         if (innerMap.putIfAbsentValue(buildKey(key), cacheObject)) {
             return CacheResult.SUCCESS_WITHOUT_MSG;
         } else {
@@ -0,0 +1,128 @@
+package com.alicp.jetcache.embedded;
+
+import com.alicp.jetcache.CacheValueHolder;
+import com.alicp.jetcache.support.JetCacheClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Save the entries of an embedded cache to a memory mapped file and load them back. The file is a magic
+ * number, the entry count and the (key length, key, holder length, holder) records, the keys and the
+ * CacheValueHolders are encoded by the value encoder of the cache.
+ *
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+class CacheSnapshot {
+
+    private static Logger logger = LoggerFactory.getLogger(CacheSnapshot.class);
+
+    static final int MAGIC = 0x4A435331;
+
+    /**
+     * @return the count of the saved entries
+     */
+    static int save(AbstractEmbeddedCache cache, String file) throws IOException {
+        EmbeddedCacheConfig config = (EmbeddedCacheConfig) cache.config();
+        Function<Object, byte[]> encoder = config.getValueEncoder();
+        long now = JetCacheClock.currentTimeMillis();
+        List<byte[]> records = new ArrayList<>();
+        long[] size = {8};
+        int[] failCount = {0};
+        cache.forEachEntry((key, holder) -> {
+            if (!isAlive(config, (CacheValueHolder) holder, now)) {
+                return;
+            }
+            try {
+                byte[] k = encoder.apply(key);
+                byte[] v = encoder.apply(holder);
+                if (size[0] + 8 + k.length + v.length > Integer.MAX_VALUE) {
+                    return;
+                }
+                size[0] += 8 + k.length + v.length;
+                records.add(k);
+                records.add(v);
+            } catch (Exception e) {
+                failCount[0]++;
+            }
+        });
+        if (failCount[0] > 0) {
+            logger.warn("{} entries can't be encoded and are not saved to the snapshot {}", failCount[0], file);
+        }
+
+        Path path = Paths.get(file);
+        Path tmp = Paths.get(file + ".tmp");
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size[0]);
+            buffer.putInt(MAGIC);
+            buffer.putInt(records.size() / 2);
+            for (byte[] bs : records) {
+                buffer.putInt(bs.length);
+                buffer.put(bs);
+            }
+            buffer.force();
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return records.size() / 2;
+    }
+
+    /**
+     * @return the count of the loaded entries
+     */
+    static int load(AbstractEmbeddedCache cache, String file) throws IOException {
+        Path path = Paths.get(file);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        EmbeddedCacheConfig config = (EmbeddedCacheConfig) cache.config();
+        Function<byte[], Object> decoder = config.getValueDecoder();
+        long now = JetCacheClock.currentTimeMillis();
+        int loaded = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+                throw new IOException("bad snapshot file: " + file);
+            }
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                Object key = decoder.apply(read(buffer));
+                CacheValueHolder holder = (CacheValueHolder) decoder.apply(read(buffer));
+                if (isAlive(config, holder, now)) {
+                    cache.innerMap.putValue(key, holder);
+                    loaded++;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private static byte[] read(MappedByteBuffer buffer) {
+        byte[] bs = new byte[buffer.getInt()];
+        buffer.get(bs);
+        return bs;
+    }
+
+    private static boolean isAlive(EmbeddedCacheConfig config, CacheValueHolder holder, long now) {
+        if (now >= holder.getExpireTime()) {
+            return false;
+        }
+        return !config.isExpireAfterAccess() || now < holder.getAccessTime() + config.getExpireAfterAccessInMillis();
+    }
+}
@@ -1,12 +1,28 @@
 package com.alicp.jetcache.embedded;
 
 import com.alicp.jetcache.CacheValueHolder;
+import com.alicp.jetcache.RefreshPolicy;
+import com.alicp.jetcache.support.JetCacheClock;
+import com.alicp.jetcache.support.JetCacheExecutor;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.CacheWriter;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.RemovalCause;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
 
 /**
  * Created on 2016/10/25.
@@ -17,8 +33,12 @@ public class CaffeineCache<K, V> extends AbstractEmbeddedCache<K, V> {
 
     private com.github.benmanes.caffeine.cache.Cache cache;
 
+    private long nativeRefreshMillis;
+    private ConcurrentHashMap<Object, Runnable> refreshTasks;
+
     public CaffeineCache(EmbeddedCacheConfig<K, V> config) {
         super(config);
+        loadSnapshot();
     }
 
     @Override
@@ -29,16 +49,94 @@ public class CaffeineCache<K, V> extends AbstractEmbeddedCache<K, V> {
         throw new IllegalArgumentException(clazz.getName());
     }
 
+    @Override
+    public boolean resize(int limit) {
+        if (config.getMaximumWeight() > 0) {
+            return false;
+        }
+        cache.policy().eviction().ifPresent(e -> ((Policy.Eviction) e).setMaximum(limit));
+        config.setLimit(limit);
+        return true;
+    }
+
+    @Override
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public boolean resizeWeight(long maximumWeight) {
+        if (config.getMaximumWeight() <= 0) {
+            return false;
+        }
+        cache.policy().eviction().ifPresent(e -> ((Policy.Eviction) e).setMaximum(maximumWeight));
+        config.setMaximumWeight(maximumWeight);
+        return true;
+    }
+
+    @Override
+    public long estimatedWeight() {
+        if (config.getMaximumWeight() <= 0) {
+            return -1;
+        }
+        Optional<Policy.Eviction> eviction = cache.policy().eviction();
+        return eviction.isPresent() ? eviction.get().weightedSize().orElse(-1) : -1;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void forEachEntry(BiConsumer<Object, CacheValueHolder<V>> action) {
+        cache.asMap().forEach((BiConsumer) action);
+    }
+
+    /**
+     * @return the refreshAfterWrite of caffeine in millis, 0 if the native refresh is not enabled
+     */
+    public long getNativeRefreshMillis() {
+        return nativeRefreshMillis;
+    }
+
+    /**
+     * Bind a refresh task to the key, the task is run when caffeine reloads the key.
+     * The task is dropped when the key is removed or evicted.
+     * @param key the converted key
+     * @return the task bound to the key
+     */
+    public Runnable computeRefreshTaskIfAbsent(Object key, Function<Object, ? extends Runnable> creator) {
+        return refreshTasks.computeIfAbsent(key, creator);
+    }
+
+    public void removeRefreshTask(Object key, Runnable task) {
+        refreshTasks.remove(key, task);
+    }
+
+    public Collection<Runnable> refreshTasks() {
+        if (refreshTasks == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableCollection(refreshTasks.values());
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     protected InnerMap createAreaCache() {
         Caffeine<Object, Object> builder = Caffeine.newBuilder();
-        builder.maximumSize(config.getLimit());
+        if (config.getMaximumWeight() > 0) {
+            ToIntBiFunction<Object, Object> weigher = config.getWeigher();
+            builder.maximumWeight(config.getMaximumWeight());
+            builder.weigher((k, v) -> CompactValueCodec.weigh(weigher, k, (CacheValueHolder) v));
+        } else {
+            builder.maximumSize(config.getLimit());
+        }
+        RefreshPolicy refreshPolicy = config.getRefreshPolicy();
+        final boolean nativeRefresh = config instanceof CaffeineCacheConfig
+                && ((CaffeineCacheConfig) config).isNativeRefresh()
+                && refreshPolicy != null && refreshPolicy.getRefreshMillis() > 0;
         final boolean isExpireAfterAccess = config.isExpireAfterAccess();
         final long expireAfterAccess = config.getExpireAfterAccessInMillis();
         builder.expireAfter(new Expiry<Object, CacheValueHolder>() {
             private long getRestTimeInNanos(CacheValueHolder value) {
-                long now = System.currentTimeMillis();
+                long now = JetCacheClock.currentTimeMillis();
                 long ttl = value.getExpireTime() - now;
                 if(isExpireAfterAccess){
                     ttl = Math.min(ttl, expireAfterAccess);
@@ -54,7 +152,8 @@ public class CaffeineCache<K, V> extends AbstractEmbeddedCache<K, V> {
             @Override
             public long expireAfterUpdate(Object key, CacheValueHolder value,
                                           long currentTime, long currentDuration) {
-                return currentDuration;
+                // a reloaded value has a new expire time
+                return nativeRefresh ? getRestTimeInNanos(value) : currentDuration;
             }
 
             @Override
@@ -64,7 +163,43 @@ public class CaffeineCache<K, V> extends AbstractEmbeddedCache<K, V> {
             }
         });
 
-        cache = builder.build();
+        if (nativeRefresh) {
+            nativeRefreshMillis = refreshPolicy.getRefreshMillis();
+            refreshTasks = new ConcurrentHashMap<>();
+            builder.refreshAfterWrite(nativeRefreshMillis, TimeUnit.MILLISECONDS);
+            builder.writer(new CacheWriter<Object, Object>() {
+                @Override
+                public void write(Object key, Object value) {
+                }
+
+                @Override
+                public void delete(Object key, Object value, RemovalCause cause) {
+                    refreshTasks.remove(key);
+                }
+            });
+            cache = builder.build(new CacheLoader<Object, Object>() {
+                @Override
+                public Object load(Object key) {
+                    // the cache is never loaded by caffeine, the misses are handled by LoadingCache
+                    return null;
+                }
+
+                @Override
+                public CompletableFuture<Object> asyncReload(Object key, Object oldValue, Executor executor) {
+                    Runnable task = refreshTasks.get(key);
+                    if (task == null) {
+                        return CompletableFuture.completedFuture(oldValue);
+                    }
+                    // the task puts the new value by itself, so the value returned here is discarded if it is updated
+                    return CompletableFuture.supplyAsync(() -> {
+                        task.run();
+                        return oldValue;
+                    }, JetCacheExecutor.heavyIOExecutor());
+                }
+            });
+        } else {
+            cache = builder.build();
+        }
         return new InnerMap() {
             @Override
             public Object getValue(Object key) {
@@ -76,6 +211,11 @@ public class CaffeineCache<K, V> extends AbstractEmbeddedCache<K, V> {
                 return cache.getAllPresent(keys);
             }
 
+            @Override
+            public Object computeValue(Object key, BiFunction<Object, Object, Object> remappingFunction) {
+                return cache.asMap().compute(key, remappingFunction);
+            }
+
             @Override
             public void putValue(Object key, Object value) {
                 cache.put(key, value);
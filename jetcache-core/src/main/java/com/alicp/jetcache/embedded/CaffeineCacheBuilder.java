@@ -16,4 +16,26 @@ public class CaffeineCacheBuilder<T extends EmbeddedCacheBuilder<T>> extends Emb
     protected CaffeineCacheBuilder() {
         buildFunc((c) -> new CaffeineCache((EmbeddedCacheConfig) c));
     }
+
+    @Override
+    public CaffeineCacheConfig getConfig() {
+        if (config == null) {
+            config = new CaffeineCacheConfig();
+        }
+        return (CaffeineCacheConfig) config;
+    }
+
+    /**
+     * Let caffeine refresh the keys by refreshAfterWrite instead of scheduling a task for each key.
+     * The refresh policy must be set before the cache is built. A key is reloaded asynchronously when
+     * it is read after the refresh interval, the old value is returned until the reload finished.
+     */
+    public T nativeRefresh(boolean nativeRefresh) {
+        getConfig().setNativeRefresh(nativeRefresh);
+        return self();
+    }
+
+    public void setNativeRefresh(boolean nativeRefresh) {
+        getConfig().setNativeRefresh(nativeRefresh);
+    }
 }
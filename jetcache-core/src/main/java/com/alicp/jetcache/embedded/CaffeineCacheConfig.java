@@ -0,0 +1,21 @@
+package com.alicp.jetcache.embedded;
+
+/**
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class CaffeineCacheConfig<K, V> extends EmbeddedCacheConfig<K, V> {
+    private boolean nativeRefresh;
+
+    /**
+     * @return true if the refresh policy is implemented by the refreshAfterWrite of caffeine
+     */
+    public boolean isNativeRefresh() {
+        return nativeRefresh;
+    }
+
+    public void setNativeRefresh(boolean nativeRefresh) {
+        this.nativeRefresh = nativeRefresh;
+    }
+}
@@ -15,11 +15,15 @@ import java.util.concurrent.TimeUnit;
  */
 class Cleaner {
 
+    // max expire records processed for each cache in one tick, the remaining are processed in next ticks
+    static final int MAX_CLEAN_COUNT_PER_TICK = 10000;
+
     static LinkedList<WeakReference<LinkedHashMapCache>> linkedHashMapCaches = new LinkedList<>();
 
     static {
         ScheduledExecutorService executorService = JetCacheExecutor.defaultExecutor();
-        executorService.scheduleWithFixedDelay(() -> run(), 60, 60, TimeUnit.SECONDS);
+        executorService.scheduleWithFixedDelay(() -> run(), LinkedHashMapCache.EXPIRE_TICK_MILLIS,
+                LinkedHashMapCache.EXPIRE_TICK_MILLIS, TimeUnit.MILLISECONDS);
     }
 
     static void add(LinkedHashMapCache cache) {
@@ -37,7 +41,7 @@ class Cleaner {
                 if (c == null) {
                     it.remove();
                 } else {
-                    c.cleanExpiredEntry();
+                    c.cleanExpiredEntry(MAX_CLEAN_COUNT_PER_TICK);
                 }
             }
         }
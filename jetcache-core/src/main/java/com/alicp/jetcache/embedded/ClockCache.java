@@ -0,0 +1,255 @@
+package com.alicp.jetcache.embedded;
+
+import com.alicp.jetcache.CacheResultCode;
+import com.alicp.jetcache.CacheValueHolder;
+import com.alicp.jetcache.support.JetCacheClock;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * An embedded cache using CLOCK (second chance) eviction. Reads are lock free and only set a reference bit,
+ * writes append new entries to a FIFO queue, the writer which exceeds the limit evicts the first unreferenced
+ * entry of the queue and gives the referenced ones a second chance.
+ *
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class ClockCache<K, V> extends AbstractEmbeddedCache<K, V> {
+
+    public ClockCache(EmbeddedCacheConfig<K, V> config) {
+        super(config);
+        loadSnapshot();
+    }
+
+    @Override
+    protected InnerMap createAreaCache() {
+        return new ClockMap(config.getLimit());
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> clazz) {
+        throw new IllegalArgumentException(clazz.getName());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void forEachEntry(BiConsumer<Object, CacheValueHolder<V>> action) {
+        for (Node n : ((ClockMap) innerMap).map.values()) {
+            Object v = n.value;
+            if (v instanceof CacheValueHolder) {
+                action.accept(n.key, (CacheValueHolder<V>) v);
+            }
+        }
+    }
+
+    private static final class Node {
+        final Object key;
+        volatile Object value;
+        volatile boolean referenced;
+        volatile boolean removed;
+
+        Node(Object key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    final class ClockMap implements InnerMap {
+        private final int max;
+        private final ConcurrentHashMap<Object, Node> map;
+        private final ConcurrentLinkedQueue<Node> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        // the queue may contains removed nodes, they are dropped when polled
+        private final AtomicInteger queueSize = new AtomicInteger();
+
+        ClockMap(int max) {
+            this.max = max;
+            this.map = new ConcurrentHashMap<>((int) (max * 1.4f));
+        }
+
+        @Override
+        public Object getValue(Object key) {
+            Node n = map.get(key);
+            if (n == null) {
+                return null;
+            }
+            Object v = n.value;
+            if (v instanceof CacheValueHolder && JetCacheClock.hasPassed(
+                    JetCacheClock.currentTimeMillis(), ((CacheValueHolder) v).getExpireTime())) {
+                // reclaim the expired entry on read, unless a concurrent writer has replaced the value
+                boolean[] removed = new boolean[1];
+                map.computeIfPresent(key, (k, cur) -> {
+                    if (cur == n && n.value == v) {
+                        removed[0] = true;
+                        return null;
+                    }
+                    return cur;
+                });
+                if (removed[0]) {
+                    n.removed = true;
+                    size.decrementAndGet();
+                }
+                return null;
+            }
+            if (!n.referenced) {
+                n.referenced = true;
+            }
+            return v;
+        }
+
+        @Override
+        public Map getAllValues(Collection keys) {
+            Map values = new HashMap();
+            for (Object key : keys) {
+                Object v = getValue(key);
+                if (v != null) {
+                    values.put(key, v);
+                }
+            }
+            return values;
+        }
+
+        @Override
+        public void putValue(Object key, Object value) {
+            boolean[] create = new boolean[1];
+            Node n = map.compute(key, (k, old) -> {
+                if (old != null) {
+                    old.value = value;
+                    return old;
+                }
+                create[0] = true;
+                return new Node(k, value);
+            });
+            if (create[0]) {
+                added(n);
+            }
+        }
+
+        @Override
+        public void putAllValues(Map map) {
+            Set<Map.Entry> set = map.entrySet();
+            for (Map.Entry en : set) {
+                putValue(en.getKey(), en.getValue());
+            }
+        }
+
+        @Override
+        public boolean removeValue(Object key) {
+            Node n = map.remove(key);
+            if (n != null) {
+                n.removed = true;
+                size.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void removeAllValues(Collection keys) {
+            for (Object k : keys) {
+                removeValue(k);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean putIfAbsentValue(Object key, Object value) {
+            boolean[] result = new boolean[1];
+            boolean[] create = new boolean[1];
+            Node n = map.compute(key, (k, old) -> {
+                if (old == null) {
+                    create[0] = true;
+                    result[0] = true;
+                    return new Node(k, value);
+                }
+                CacheValueHolder h = (CacheValueHolder) old.value;
+                if (parseHolderResult(h).getResultCode() == CacheResultCode.EXPIRED) {
+                    old.value = value;
+                    result[0] = true;
+                }
+                return old;
+            });
+            if (create[0]) {
+                added(n);
+            }
+            return result[0];
+        }
+
+        @Override
+        public Object computeValue(Object key, BiFunction<Object, Object, Object> remappingFunction) {
+            Object[] result = new Object[1];
+            boolean[] create = new boolean[1];
+            boolean[] removed = new boolean[1];
+            Node n = map.compute(key, (k, old) -> {
+                Object newValue = remappingFunction.apply(k, old == null ? null : old.value);
+                result[0] = newValue;
+                if (newValue == null) {
+                    if (old != null) {
+                        old.removed = true;
+                        removed[0] = true;
+                    }
+                    return null;
+                }
+                if (old != null) {
+                    old.value = newValue;
+                    return old;
+                }
+                create[0] = true;
+                return new Node(k, newValue);
+            });
+            if (removed[0]) {
+                size.decrementAndGet();
+            }
+            if (create[0]) {
+                added(n);
+            }
+            return result[0];
+        }
+
+        private void removeNode(Node n) {
+            if (map.remove(n.key, n)) {
+                n.removed = true;
+                size.decrementAndGet();
+            }
+        }
+
+        private void added(Node n) {
+            size.incrementAndGet();
+            queue.offer(n);
+            queueSize.incrementAndGet();
+            evict();
+        }
+
+        private void evict() {
+            // at most one full round of the clock hand
+            int budget = queueSize.get() + 1;
+            while ((size.get() > max || queueSize.get() > max * 2) && budget-- > 0) {
+                Node n = queue.poll();
+                if (n == null) {
+                    return;
+                }
+                queueSize.decrementAndGet();
+                if (n.removed) {
+                    continue;
+                }
+                if (size.get() <= max || n.referenced) {
+                    // second chance
+                    n.referenced = false;
+                    queue.offer(n);
+                    queueSize.incrementAndGet();
+                    continue;
+                }
+                removeNode(n);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.alicp.jetcache.embedded;
+
+/**
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class ClockCacheBuilder<T extends EmbeddedCacheBuilder<T>> extends EmbeddedCacheBuilder<T> {
+    public static class ClockCacheBuilderImpl extends ClockCacheBuilder<ClockCacheBuilderImpl> {
+    }
+
+    public static ClockCacheBuilderImpl createClockCacheBuilder() {
+        return new ClockCacheBuilderImpl();
+    }
+
+    protected ClockCacheBuilder() {
+        buildFunc((c) -> new ClockCache((EmbeddedCacheConfig) c));
+    }
+}
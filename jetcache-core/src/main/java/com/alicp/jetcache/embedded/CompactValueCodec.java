@@ -0,0 +1,159 @@
+package com.alicp.jetcache.embedded;
+
+import com.alicp.jetcache.CacheException;
+import com.alicp.jetcache.CacheValueHolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Convert the values of an embedded cache to encoded bytes when they are stored, and back when they are read.
+ * The recently decoded values are kept in a small direct mapped array, so the hottest entries are not decoded
+ * on every read.
+ *
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+final class CompactValueCodec {
+
+    // smaller values are not worth compressing
+    static final int MIN_COMPRESS_SIZE = 256;
+
+    static final class EncodedValue implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        final byte[] bytes;
+        // the length before compressed, -1 if the bytes are not compressed
+        final int rawLength;
+
+        EncodedValue(byte[] bytes, int rawLength) {
+            this.bytes = bytes;
+            this.rawLength = rawLength;
+        }
+    }
+
+    private static final class Decoded {
+        final EncodedValue encoded;
+        final Object value;
+
+        Decoded(EncodedValue encoded, Object value) {
+            this.encoded = encoded;
+            this.value = value;
+        }
+    }
+
+    private final Function<Object, byte[]> encoder;
+    private final Function<byte[], Object> decoder;
+    private final boolean compress;
+    // racy but safe, a Decoded is immutable and a slot is only a hint
+    private final Decoded[] decodedCache;
+    private final int mask;
+
+    CompactValueCodec(EmbeddedCacheConfig config) {
+        this.encoder = config.getValueEncoder();
+        this.decoder = config.getValueDecoder();
+        this.compress = config.isCompressValue();
+        int size = config.getDecodedCacheSize();
+        if (size > 0) {
+            int n = 1;
+            while (n < size) {
+                n <<= 1;
+            }
+            decodedCache = new Decoded[n];
+            mask = n - 1;
+        } else {
+            decodedCache = null;
+            mask = 0;
+        }
+    }
+
+    Object encode(Object value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bs = encoder.apply(value);
+        if (compress && bs.length >= MIN_COMPRESS_SIZE) {
+            byte[] compressed = deflate(bs);
+            if (compressed.length < bs.length) {
+                return new EncodedValue(compressed, bs.length);
+            }
+        }
+        return new EncodedValue(bs, -1);
+    }
+
+    Object decode(Object stored) {
+        if (!(stored instanceof EncodedValue)) {
+            return stored;
+        }
+        EncodedValue ev = (EncodedValue) stored;
+        int index = 0;
+        if (decodedCache != null) {
+            index = System.identityHashCode(ev) & mask;
+            Decoded d = decodedCache[index];
+            if (d != null && d.encoded == ev) {
+                return d.value;
+            }
+        }
+        Object value = decoder.apply(ev.rawLength >= 0 ? inflate(ev.bytes, ev.rawLength) : ev.bytes);
+        if (decodedCache != null) {
+            decodedCache[index] = new Decoded(ev, value);
+        }
+        return value;
+    }
+
+    /**
+     * The weight of an encoded value is its byte count, the weigher is used for the other values.
+     * The weigher may be null if the values are stored as bytes, a value which is not encoded weighs 0 then.
+     */
+    static int weigh(ToIntBiFunction<Object, Object> weigher, Object key, CacheValueHolder holder) {
+        Object v = holder.getValue();
+        if (v instanceof EncodedValue) {
+            return ((EncodedValue) v).bytes.length;
+        }
+        return weigher == null ? 0 : weigher.applyAsInt(key, v);
+    }
+
+    private static byte[] deflate(byte[] bs) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bs);
+            deflater.finish();
+            ByteArrayOutputStream bos = new ByteArrayOutputStream(bs.length / 2);
+            byte[] buf = new byte[4096];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buf);
+                bos.write(buf, 0, n);
+            }
+            return bos.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bs, int rawLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bs);
+            byte[] result = new byte[rawLength];
+            int n = 0;
+            while (n < rawLength && !inflater.finished()) {
+                int count = inflater.inflate(result, n, rawLength - n);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new CacheException("bad compressed value");
+                }
+                n += count;
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw new CacheException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
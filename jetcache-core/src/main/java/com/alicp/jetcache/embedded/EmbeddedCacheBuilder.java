@@ -2,6 +2,9 @@ package com.alicp.jetcache.embedded;
 
 import com.alicp.jetcache.AbstractCacheBuilder;
 
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+
 /**
  * Created on 16/9/7.
  *
@@ -36,4 +39,89 @@ public class EmbeddedCacheBuilder<T extends EmbeddedCacheBuilder<T>> extends Abs
         getConfig().setLimit(limit);
     }
 
+    /**
+     * Bound the cache by the total weight of the entries instead of the entry count. A weigher is required,
+     * unless storeValueAsBytes is set and the values are weighed by their byte count.
+     */
+    public T maximumWeight(long maximumWeight){
+        getConfig().setMaximumWeight(maximumWeight);
+        return self();
+    }
+
+    public void setMaximumWeight(long maximumWeight){
+        getConfig().setMaximumWeight(maximumWeight);
+    }
+
+    public T weigher(ToIntBiFunction<Object, Object> weigher){
+        getConfig().setWeigher(weigher);
+        return self();
+    }
+
+    public void setWeigher(ToIntBiFunction<Object, Object> weigher){
+        getConfig().setWeigher(weigher);
+    }
+
+    public T valueEncoder(Function<Object, byte[]> valueEncoder){
+        getConfig().setValueEncoder(valueEncoder);
+        return self();
+    }
+
+    public void setValueEncoder(Function<Object, byte[]> valueEncoder){
+        getConfig().setValueEncoder(valueEncoder);
+    }
+
+    public T valueDecoder(Function<byte[], Object> valueDecoder){
+        getConfig().setValueDecoder(valueDecoder);
+        return self();
+    }
+
+    public void setValueDecoder(Function<byte[], Object> valueDecoder){
+        getConfig().setValueDecoder(valueDecoder);
+    }
+
+    /**
+     * Save the entries to the file when the cache is closed, and load them when the cache is built.
+     * The keys and values are encoded by the value encoder, the expired entries are skipped.
+     * Supported by all the embedded caches, a custom cache needs to implement forEachEntry and call loadSnapshot.
+     */
+    public T snapshotFile(String snapshotFile){
+        getConfig().setSnapshotFile(snapshotFile);
+        return self();
+    }
+
+    public void setSnapshotFile(String snapshotFile){
+        getConfig().setSnapshotFile(snapshotFile);
+    }
+
+    /**
+     * Store the values as the bytes encoded by the value encoder to save heap, they are decoded when they are read.
+     * When maximumWeight is set, the weight of a value is its byte count.
+     */
+    public T storeValueAsBytes(boolean storeValueAsBytes){
+        getConfig().setStoreValueAsBytes(storeValueAsBytes);
+        return self();
+    }
+
+    public void setStoreValueAsBytes(boolean storeValueAsBytes){
+        getConfig().setStoreValueAsBytes(storeValueAsBytes);
+    }
+
+    public T compressValue(boolean compressValue){
+        getConfig().setCompressValue(compressValue);
+        return self();
+    }
+
+    public void setCompressValue(boolean compressValue){
+        getConfig().setCompressValue(compressValue);
+    }
+
+    public T decodedCacheSize(int decodedCacheSize){
+        getConfig().setDecodedCacheSize(decodedCacheSize);
+        return self();
+    }
+
+    public void setDecodedCacheSize(int decodedCacheSize){
+        getConfig().setDecodedCacheSize(decodedCacheSize);
+    }
+
 }
@@ -2,6 +2,11 @@ package com.alicp.jetcache.embedded;
 
 import com.alicp.jetcache.CacheConfig;
 import com.alicp.jetcache.anno.CacheConsts;
+import com.alicp.jetcache.support.DecoderMap;
+import com.alicp.jetcache.support.JavaValueEncoder;
+
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
 
 /**
  * Created on 16/9/7.
@@ -9,7 +14,17 @@ import com.alicp.jetcache.anno.CacheConsts;
  * @author <a href="mailto:areyouok@gmail.com">huangli</a>
  */
 public class EmbeddedCacheConfig<K, V> extends CacheConfig<K, V> {
+    public static final int DEFAULT_DECODED_CACHE_SIZE = 64;
+
     private int limit = CacheConsts.DEFAULT_LOCAL_LIMIT;
+    private long maximumWeight;
+    private ToIntBiFunction<Object, Object> weigher;
+    private Function<Object, byte[]> valueEncoder = JavaValueEncoder.INSTANCE;
+    private Function<byte[], Object> valueDecoder = DecoderMap.defaultJavaValueDecoder();
+    private String snapshotFile;
+    private boolean storeValueAsBytes;
+    private boolean compressValue;
+    private int decodedCacheSize = DEFAULT_DECODED_CACHE_SIZE;
 
     public int getLimit() {
         return limit;
@@ -19,4 +34,94 @@ public class EmbeddedCacheConfig<K, V> extends CacheConfig<K, V> {
         this.limit = limit;
     }
 
+    /**
+     * @return the max total weight of the entries, 0 means only the limit is used. CaffeineCache can not
+     * combine the two bounds and ignores the limit when maximumWeight is set.
+     */
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public void setMaximumWeight(long maximumWeight) {
+        this.maximumWeight = maximumWeight;
+    }
+
+    /**
+     * @return the weigher used when maximumWeight is set, it is applied to the (key, value) once when the
+     * entry is put, in the lock of the cache. It's required when maximumWeight is set, unless the values are
+     * stored as bytes and weighed by their byte count. {@link SerializedSizeWeigher} can be used if the values
+     * are serializable and the cost of serializing them on every put is acceptable.
+     */
+    public ToIntBiFunction<Object, Object> getWeigher() {
+        return weigher;
+    }
+
+    public void setWeigher(ToIntBiFunction<Object, Object> weigher) {
+        this.weigher = weigher;
+    }
+
+    /**
+     * @return the encoder used by the caches which store the values in bytes, and by the snapshot
+     */
+    public Function<Object, byte[]> getValueEncoder() {
+        return valueEncoder;
+    }
+
+    public void setValueEncoder(Function<Object, byte[]> valueEncoder) {
+        this.valueEncoder = valueEncoder;
+    }
+
+    public Function<byte[], Object> getValueDecoder() {
+        return valueDecoder;
+    }
+
+    public void setValueDecoder(Function<byte[], Object> valueDecoder) {
+        this.valueDecoder = valueDecoder;
+    }
+
+    /**
+     * @return the file which the entries are saved to when the cache is closed and loaded from when the
+     * cache is created, null means no snapshot
+     */
+    public String getSnapshotFile() {
+        return snapshotFile;
+    }
+
+    public void setSnapshotFile(String snapshotFile) {
+        this.snapshotFile = snapshotFile;
+    }
+
+    /**
+     * @return true if the values are stored as the bytes encoded by the value encoder and decoded when they
+     * are read, the readers get a copy of the value unless it's in the decoded cache
+     */
+    public boolean isStoreValueAsBytes() {
+        return storeValueAsBytes;
+    }
+
+    public void setStoreValueAsBytes(boolean storeValueAsBytes) {
+        this.storeValueAsBytes = storeValueAsBytes;
+    }
+
+    /**
+     * @return true if the encoded values are compressed, only used when storeValueAsBytes is true
+     */
+    public boolean isCompressValue() {
+        return compressValue;
+    }
+
+    public void setCompressValue(boolean compressValue) {
+        this.compressValue = compressValue;
+    }
+
+    /**
+     * @return the slot count of the decoded values cache, 0 means every read decodes the value
+     */
+    public int getDecodedCacheSize() {
+        return decodedCacheSize;
+    }
+
+    public void setDecodedCacheSize(int decodedCacheSize) {
+        this.decodedCacheSize = decodedCacheSize;
+    }
 }
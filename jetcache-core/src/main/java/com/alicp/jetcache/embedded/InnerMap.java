@@ -5,6 +5,7 @@ package com.alicp.jetcache.embedded;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.function.BiFunction;
 
 /**
  * @author <a href="mailto:areyouok@gmail.com">huangli</a>
@@ -23,4 +24,11 @@ public interface InnerMap {
     boolean putIfAbsentValue(Object key, Object value);
 
     void removeAllValues(Collection keys);
+
+    /**
+     * Atomically compute the value of the key like Map.compute, the function gets null if the key does not exist.
+     * If the function returns the value it gets (the same reference), the entry is left unchanged.
+     * @return the new value, null means the key is removed
+     */
+    Object computeValue(Object key, BiFunction<Object, Object, Object> remappingFunction);
 }
@@ -3,23 +3,31 @@
  */
 package com.alicp.jetcache.embedded;
 
+import com.alicp.jetcache.CacheConfigException;
 import com.alicp.jetcache.CacheResultCode;
 import com.alicp.jetcache.CacheValueHolder;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.alicp.jetcache.support.FrequencySketch;
+import com.alicp.jetcache.support.JetCacheClock;
 
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.ToIntBiFunction;
 
 /**
  * @author <a href="mailto:areyouok@gmail.com">huangli</a>
  */
 public class LinkedHashMapCache<K, V> extends AbstractEmbeddedCache<K, V> {
 
-    private static Logger logger = LoggerFactory.getLogger(LinkedHashMapCache.class);
+    // the granularity of the expire buckets
+    static final long EXPIRE_TICK_MILLIS = 1000;
+    // max expired entries removed in one lock hold
+    static final int EXPIRE_BATCH_SIZE = 256;
 
     public LinkedHashMapCache(EmbeddedCacheConfig<K, V> config) {
         super(config);
         addToCleaner();
+        loadSnapshot();
     }
 
     protected void addToCleaner() {
@@ -28,55 +36,436 @@ public class LinkedHashMapCache<K, V> extends AbstractEmbeddedCache<K, V> {
 
     @Override
     protected InnerMap createAreaCache() {
-        return new LRUMap(config.getLimit(), this);
+        int segments = 1;
+        if (config instanceof LinkedHashMapCacheConfig) {
+            LinkedHashMapCacheConfig c = (LinkedHashMapCacheConfig) config;
+            if (c.isTinyLfu() && c.getMaximumWeight() > 0) {
+                throw new CacheConfigException("tinyLfu is not supported when maximumWeight is set");
+            }
+            segments = c.getSegments();
+        }
+        if (segments > 1) {
+            return new SegmentedLRUMap(config.getLimit(), config.getMaximumWeight(), segments);
+        }
+        return new LRUMap(config.getLimit(), config.getMaximumWeight(), this);
     }
 
     @Override
     public <T> T unwrap(Class<T> clazz) {
-        if (clazz.equals(LinkedHashMap.class)) {
+        if (clazz.equals(LinkedHashMap.class) && innerMap instanceof LinkedHashMap) {
             return (T) innerMap;
         }
         throw new IllegalArgumentException(clazz.getName());
     }
 
+    @Override
+    public boolean resize(int limit) {
+        if (innerMap instanceof LinkedHashMapCache.SegmentedLRUMap) {
+            LRUMap[] segments = ((SegmentedLRUMap) innerMap).segments;
+            int segmentMax = Math.max(1, (limit + segments.length - 1) / segments.length);
+            for (LRUMap m : segments) {
+                m.resize(segmentMax);
+            }
+        } else {
+            ((LRUMap) innerMap).resize(limit);
+        }
+        config.setLimit(limit);
+        return true;
+    }
+
+    @Override
+    public boolean resizeWeight(long maximumWeight) {
+        if (config.getMaximumWeight() <= 0) {
+            return false;
+        }
+        if (innerMap instanceof LinkedHashMapCache.SegmentedLRUMap) {
+            LRUMap[] segments = ((SegmentedLRUMap) innerMap).segments;
+            long segmentMaxWeight = Math.max(1, (maximumWeight + segments.length - 1) / segments.length);
+            for (LRUMap m : segments) {
+                m.resizeWeight(segmentMaxWeight);
+            }
+        } else {
+            ((LRUMap) innerMap).resizeWeight(maximumWeight);
+        }
+        config.setMaximumWeight(maximumWeight);
+        return true;
+    }
+
+    @Override
+    public long estimatedWeight() {
+        if (config.getMaximumWeight() <= 0) {
+            return -1;
+        }
+        if (innerMap instanceof LinkedHashMapCache.SegmentedLRUMap) {
+            long weight = 0;
+            for (LRUMap m : ((SegmentedLRUMap) innerMap).segments) {
+                weight += m.weight();
+            }
+            return weight;
+        } else {
+            return ((LRUMap) innerMap).weight();
+        }
+    }
+
+    @Override
+    public long estimatedSize() {
+        if (innerMap instanceof LinkedHashMapCache.SegmentedLRUMap) {
+            long size = 0;
+            for (LRUMap m : ((SegmentedLRUMap) innerMap).segments) {
+                size += m.size();
+            }
+            return size;
+        } else {
+            return ((LRUMap) innerMap).size();
+        }
+    }
+
+    @Override
+    protected void forEachEntry(BiConsumer<Object, CacheValueHolder<V>> action) {
+        if (innerMap instanceof LinkedHashMapCache.SegmentedLRUMap) {
+            for (LRUMap m : ((SegmentedLRUMap) innerMap).segments) {
+                m.forEachEntry(action);
+            }
+        } else {
+            ((LRUMap) innerMap).forEachEntry(action);
+        }
+    }
+
+    /**
+     * Remove all the entries which have passed their expire time.
+     */
     public void cleanExpiredEntry() {
-        ((LRUMap) innerMap).cleanExpiredEntry();
+        cleanExpiredEntry(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Remove the entries which have passed their expire time, the work is bounded by maxCount.
+     * @param maxCount max number of expired entries to remove
+     */
+    void cleanExpiredEntry(int maxCount) {
+        if (innerMap instanceof LinkedHashMapCache.SegmentedLRUMap) {
+            LRUMap[] segments = ((SegmentedLRUMap) innerMap).segments;
+            int segmentCount = Math.max(1, maxCount / segments.length);
+            for (LRUMap m : segments) {
+                m.cleanExpiredEntry(segmentCount);
+            }
+        } else {
+            ((LRUMap) innerMap).cleanExpiredEntry(maxCount);
+        }
+    }
+
+    /**
+     * Shard the keys across LRUMaps, each of them has its own lock.
+     */
+    final class SegmentedLRUMap implements InnerMap {
+
+        private final LRUMap[] segments;
+        private final int mask;
+
+        public SegmentedLRUMap(int max, long maxWeight, int segmentCount) {
+            int n = 1;
+            while (n < segmentCount) {
+                n <<= 1;
+            }
+            this.segments = new LinkedHashMapCache.LRUMap[n];
+            this.mask = n - 1;
+            int segmentMax = Math.max(1, (max + n - 1) / n);
+            long segmentMaxWeight = maxWeight > 0 ? Math.max(1, (maxWeight + n - 1) / n) : 0;
+            for (int i = 0; i < n; i++) {
+                segments[i] = new LRUMap(segmentMax, segmentMaxWeight, new Object());
+            }
+        }
+
+        private LRUMap segment(Object key) {
+            int h = key.hashCode();
+            h ^= (h >>> 16);
+            return segments[h & mask];
+        }
+
+        @Override
+        public Object getValue(Object key) {
+            return segment(key).getValue(key);
+        }
+
+        @Override
+        public Map getAllValues(Collection keys) {
+            Map values = new HashMap();
+            for (Object key : keys) {
+                Object v = segment(key).getValue(key);
+                if (v != null) {
+                    values.put(key, v);
+                }
+            }
+            return values;
+        }
+
+        @Override
+        public void putValue(Object key, Object value) {
+            segment(key).putValue(key, value);
+        }
+
+        @Override
+        public void putAllValues(Map map) {
+            Set<Map.Entry> set = map.entrySet();
+            for (Map.Entry en : set) {
+                segment(en.getKey()).putValue(en.getKey(), en.getValue());
+            }
+        }
+
+        @Override
+        public boolean removeValue(Object key) {
+            return segment(key).removeValue(key);
+        }
+
+        @Override
+        public void removeAllValues(Collection keys) {
+            for (Object k : keys) {
+                segment(k).removeValue(k);
+            }
+        }
+
+        @Override
+        public boolean putIfAbsentValue(Object key, Object value) {
+            return segment(key).putIfAbsentValue(key, value);
+        }
+
+        @Override
+        public Object computeValue(Object key, BiFunction<Object, Object, Object> remappingFunction) {
+            return segment(key).computeValue(key, remappingFunction);
+        }
+
+    }
+
+    private static long expireTick(CacheValueHolder holder) {
+        return holder.getExpireTime() / EXPIRE_TICK_MILLIS;
     }
 
     final class LRUMap extends LinkedHashMap implements InnerMap {
 
-        private final int max;
+        private int max;
         private Object lock;
 
-        public LRUMap(int max, Object lock) {
+        // 0 if the weight is not bounded
+        private long maxWeight;
+        private final ToIntBiFunction<Object, Object> weigher;
+        private long weight;
+        // the weight of each entry when it was put, null if the weight is not bounded. The stored weight is
+        // subtracted on removal, so the total is exact even if a value is mutated or the weigher changes its mind.
+        private final HashMap<Object, Integer> weights;
+
+        // expire tick -> (key -> holder), guarded by lock. Each entry has exactly one record, which is replaced
+        // when the key is updated and dropped when the entry is removed or evicted. The expire time of a holder
+        // is not changed after it is put, so the record of a value is found by the tick of the value. A bucket
+        // keeps the insertion order, which is the expire order for the entries of the same ttl.
+        private final TreeMap<Long, LinkedHashMap<Object, CacheValueHolder>> expireBuckets = new TreeMap<>();
+
+        // null if the admission filter is not enabled, guarded by lock
+        private final FrequencySketch sketch;
+
+        public LRUMap(int max, long maxWeight, Object lock) {
             super((int) (max * 1.4f), 0.75f, true);
             this.max = max;
             this.lock = lock;
+            this.maxWeight = maxWeight;
+            this.weigher = config.getWeigher();
+            this.weights = maxWeight > 0 ? new HashMap<>((int) (max * 1.4f)) : null;
+            boolean tinyLfu = config instanceof LinkedHashMapCacheConfig && ((LinkedHashMapCacheConfig) config).isTinyLfu();
+            this.sketch = tinyLfu ? new FrequencySketch(max) : null;
+        }
+
+        /**
+         * Record the access and decide whether the key can be put. A new key is rejected if the map is full and
+         * it's not accessed more frequently than the eldest entry which would be evicted.
+         */
+        private boolean admit(Object key) {
+            if (sketch == null) {
+                return true;
+            }
+            sketch.increment(key);
+            if (size() < max || containsKey(key)) {
+                return true;
+            }
+            Iterator<Map.Entry> it = entrySet().iterator();
+            return !it.hasNext() || sketch.frequency(key) > sketch.frequency(it.next().getKey());
+        }
+
+        private void recordAccess(Object key) {
+            if (sketch != null) {
+                sketch.increment(key);
+            }
         }
 
         @Override
         protected boolean removeEldestEntry(Map.Entry eldest) {
-            return size() > max;
+            if (size() > max) {
+                removeExpireRecord(eldest.getKey(), eldest.getValue());
+                removeWeight(eldest.getKey());
+                return true;
+            }
+            return false;
         }
 
-        void cleanExpiredEntry() {
+        void resize(int max) {
             synchronized (lock) {
-                for (Iterator it = entrySet().iterator(); it.hasNext();) {
-                    Map.Entry en = (Map.Entry) it.next();
-                    Object value = en.getValue();
-                    if (value != null && value instanceof CacheValueHolder) {
-                        CacheValueHolder h = (CacheValueHolder) value;
-                        if (System.currentTimeMillis() >= h.getExpireTime()) {
-                            it.remove();
-                        }
-                    } else {
-                        // assert false
-                        if (value == null) {
-                            logger.error("key " + en.getKey() + " is null");
-                        } else {
-                            logger.error("value of key " + en.getKey() + " is not a CacheValueHolder. type=" + value.getClass());
+                this.max = max;
+                if (sketch != null) {
+                    sketch.ensureCapacity(max);
+                }
+                Iterator<Map.Entry> it = entrySet().iterator();
+                while (size() > max && it.hasNext()) {
+                    Map.Entry en = it.next();
+                    removeExpireRecord(en.getKey(), en.getValue());
+                    removeWeight(en.getKey());
+                    it.remove();
+                }
+            }
+        }
+
+        void resizeWeight(long maxWeight) {
+            synchronized (lock) {
+                this.maxWeight = maxWeight;
+                evictOverweight();
+            }
+        }
+
+        long weight() {
+            synchronized (lock) {
+                return weight;
+            }
+        }
+
+        /**
+         * Iterate a copy of the entries from the eldest to the newest, so the LRU order is kept if they are
+         * put back in the same order.
+         */
+        void forEachEntry(BiConsumer action) {
+            ArrayList<Map.Entry> entries;
+            synchronized (lock) {
+                entries = new ArrayList<>(size());
+                for (Object o : entrySet()) {
+                    Map.Entry en = (Map.Entry) o;
+                    entries.add(new AbstractMap.SimpleImmutableEntry(en.getKey(), en.getValue()));
+                }
+            }
+            for (Map.Entry en : entries) {
+                action.accept(en.getKey(), en.getValue());
+            }
+        }
+
+        private void removeWeight(Object key) {
+            if (weights != null) {
+                Integer w = weights.remove(key);
+                if (w != null) {
+                    weight -= w;
+                }
+            }
+        }
+
+        @Override
+        public Object put(Object key, Object value) {
+            if (weights != null) {
+                // weigh before the put, so a failing weigher leaves the map unchanged
+                int w = CompactValueCodec.weigh(weigher, key, (CacheValueHolder) value);
+                Integer oldWeight = weights.put(key, w);
+                weight += oldWeight == null ? w : w - oldWeight;
+            }
+            Object old = super.put(key, value);
+            if (old != null) {
+                removeExpireRecord(key, old);
+            }
+            addExpireRecord(key, value);
+            if (weights != null) {
+                // the new entry is evicted too if it is heavier than maxWeight
+                evictOverweight();
+            }
+            return old;
+        }
+
+        /**
+         * Evict from the least recently used end until the total weight is not greater than maxWeight.
+         */
+        private void evictOverweight() {
+            Iterator<Map.Entry> it = entrySet().iterator();
+            while (weight > maxWeight && it.hasNext()) {
+                Map.Entry en = it.next();
+                removeExpireRecord(en.getKey(), en.getValue());
+                removeWeight(en.getKey());
+                it.remove();
+            }
+        }
+
+        @Override
+        public Object remove(Object key) {
+            Object old = super.remove(key);
+            if (old != null) {
+                removeExpireRecord(key, old);
+                removeWeight(key);
+            }
+            return old;
+        }
+
+        @Override
+        public boolean remove(Object key, Object value) {
+            boolean removed = super.remove(key, value);
+            if (removed) {
+                removeExpireRecord(key, value);
+                removeWeight(key);
+            }
+            return removed;
+        }
+
+        private void addExpireRecord(Object key, Object value) {
+            if (value instanceof CacheValueHolder) {
+                CacheValueHolder h = (CacheValueHolder) value;
+                expireBuckets.computeIfAbsent(expireTick(h), t -> new LinkedHashMap<>()).put(key, h);
+            }
+        }
+
+        private void removeExpireRecord(Object key, Object value) {
+            if (value instanceof CacheValueHolder) {
+                long tick = expireTick((CacheValueHolder) value);
+                LinkedHashMap<Object, CacheValueHolder> bucket = expireBuckets.get(tick);
+                if (bucket != null && bucket.remove(key, value) && bucket.isEmpty()) {
+                    expireBuckets.remove(tick);
+                }
+            }
+        }
+
+        void cleanExpiredEntry(int maxCount) {
+            long now = JetCacheClock.currentTimeMillis();
+            long nowTick = now / EXPIRE_TICK_MILLIS;
+            ArrayList<Object> keys = new ArrayList<>();
+            ArrayList<CacheValueHolder> holders = new ArrayList<>();
+            int count = 0;
+            boolean hasMore = true;
+            while (hasMore && count < maxCount) {
+                // release the lock between batches, so callers never wait for a full drain
+                synchronized (lock) {
+                    int batchSize = Math.min(EXPIRE_BATCH_SIZE, maxCount - count);
+                    keys.clear();
+                    holders.clear();
+                    // the buckets before nowTick are expired entirely. The bucket of nowTick is scanned from its
+                    // head and the scan stops at the first live entry, so a batch never walks the live entries.
+                    // An expired entry behind a live one (a shorter ttl put later) is removed after the tick or
+                    // by a read. The cached time is used as is, a scan doesn't read the wall clock.
+                    collect:
+                    for (LinkedHashMap<Object, CacheValueHolder> bucket : expireBuckets.headMap(nowTick, true).values()) {
+                        for (Map.Entry<Object, CacheValueHolder> r : bucket.entrySet()) {
+                            if (now < r.getValue().getExpireTime()) {
+                                break collect;
+                            }
+                            keys.add(r.getKey());
+                            holders.add(r.getValue());
+                            if (keys.size() >= batchSize) {
+                                break collect;
+                            }
                         }
                     }
+                    for (int i = 0; i < keys.size(); i++) {
+                        remove(keys.get(i), holders.get(i));
+                    }
+                    count += keys.size();
+                    hasMore = keys.size() >= batchSize;
                 }
             }
         }
@@ -84,6 +473,7 @@ public class LinkedHashMapCache<K, V> extends AbstractEmbeddedCache<K, V> {
         @Override
         public Object getValue(Object key) {
             synchronized (lock) {
+                recordAccess(key);
                 return get(key);
             }
         }
@@ -93,6 +483,7 @@ public class LinkedHashMapCache<K, V> extends AbstractEmbeddedCache<K, V> {
             Map values = new HashMap();
             synchronized (lock) {
                 for (Object key : keys) {
+                    recordAccess(key);
                     Object v = get(key);
                     if (v != null) {
                         values.put(key, v);
@@ -105,7 +496,9 @@ public class LinkedHashMapCache<K, V> extends AbstractEmbeddedCache<K, V> {
         @Override
         public void putValue(Object key, Object value) {
             synchronized (lock) {
-                put(key, value);
+                if (admit(key)) {
+                    put(key, value);
+                }
             }
         }
 
@@ -114,7 +507,9 @@ public class LinkedHashMapCache<K, V> extends AbstractEmbeddedCache<K, V> {
             synchronized (lock) {
                 Set<Map.Entry> set = map.entrySet();
                 for (Map.Entry en : set) {
-                    put(en.getKey(), en.getValue());
+                    if (admit(en.getKey())) {
+                        put(en.getKey(), en.getValue());
+                    }
                 }
             }
         }
@@ -138,15 +533,41 @@ public class LinkedHashMapCache<K, V> extends AbstractEmbeddedCache<K, V> {
         @Override
         @SuppressWarnings("unchecked")
         public boolean putIfAbsentValue(Object key, Object value) {
+            // not checked by the admission filter, tryLock relies on a successful putIfAbsent being stored
+            boolean[] result = new boolean[1];
+            computeValue(key, (k, old) -> {
+                if (old == null || parseHolderResult((CacheValueHolder) old).getResultCode() == CacheResultCode.EXPIRED) {
+                    result[0] = true;
+                    return value;
+                }
+                return old;
+            });
+            return result[0];
+        }
+
+        // the methods of LinkedHashMap are not used, they bypass the weight and the expire records
+        @Override
+        public Object computeValue(Object key, BiFunction<Object, Object, Object> remappingFunction) {
             synchronized (lock) {
-                CacheValueHolder h = (CacheValueHolder) get(key);
-                if (h == null || parseHolderResult(h).getResultCode() == CacheResultCode.EXPIRED) {
-                    put(key, value);
-                    return true;
-                } else {
-                    return false;
+                Object old = get(key);
+                return putComputed(key, old, remappingFunction.apply(key, old));
+            }
+        }
+
+        /**
+         * Put or remove the computed value, guarded by lock. The result of an atomic update is always stored, it is
+         * not checked by the admission filter.
+         */
+        private Object putComputed(Object key, Object oldValue, Object newValue) {
+            if (newValue == null) {
+                if (oldValue != null) {
+                    remove(key);
                 }
+            } else if (newValue != oldValue) {
+                recordAccess(key);
+                put(key, newValue);
             }
+            return newValue;
         }
     }
 
@@ -16,4 +16,40 @@ public class LinkedHashMapCacheBuilder<T extends EmbeddedCacheBuilder<T>> extend
     protected LinkedHashMapCacheBuilder() {
         buildFunc((c) -> new LinkedHashMapCache((EmbeddedCacheConfig) c));
     }
+
+    @Override
+    public LinkedHashMapCacheConfig getConfig() {
+        if (config == null) {
+            config = new LinkedHashMapCacheConfig();
+        }
+        return (LinkedHashMapCacheConfig) config;
+    }
+
+    /**
+     * Shard the keys across segments, each segment has its own lock and a limit of limit/segments.
+     * The LRU order is maintained per segment.
+     */
+    public T segments(int segments) {
+        getConfig().setSegments(segments);
+        return self();
+    }
+
+    public void setSegments(int segments) {
+        getConfig().setSegments(segments);
+    }
+
+    /**
+     * Put a TinyLFU admission filter in front of the LRU eviction. When the cache is full, a new key is
+     * added only if its estimated access frequency is higher than the eldest entry's, so a scan of
+     * one-hit keys doesn't flush the hot entries. A rejected put is dropped, so it can't be read back,
+     * while putIfAbsent (and so tryLock) always stores its key. It can't be used with maximumWeight.
+     */
+    public T tinyLfu(boolean tinyLfu) {
+        getConfig().setTinyLfu(tinyLfu);
+        return self();
+    }
+
+    public void setTinyLfu(boolean tinyLfu) {
+        getConfig().setTinyLfu(tinyLfu);
+    }
 }
@@ -0,0 +1,33 @@
+package com.alicp.jetcache.embedded;
+
+/**
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class LinkedHashMapCacheConfig<K, V> extends EmbeddedCacheConfig<K, V> {
+    private int segments = 1;
+    private boolean tinyLfu;
+
+    /**
+     * @return the count of independently locked LRU segments, 1 means a single global lock
+     */
+    public int getSegments() {
+        return segments;
+    }
+
+    public void setSegments(int segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * @return true if a new key is admitted only when it is accessed more frequently than the LRU victim
+     */
+    public boolean isTinyLfu() {
+        return tinyLfu;
+    }
+
+    public void setTinyLfu(boolean tinyLfu) {
+        this.tinyLfu = tinyLfu;
+    }
+}
@@ -0,0 +1,294 @@
+package com.alicp.jetcache.embedded;
+
+import com.alicp.jetcache.support.JetCacheExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A budget shared by a group of local caches. The registered caches are resized periodically: the caches
+ * which don't use their capacity give it back, and the free capacity goes to the full caches which have the
+ * most misses per unit of capacity. A cache never gets more than the limit it was configured with, and never
+ * less than the min limit (or min weight) unless it was configured with less.
+ *
+ * A new cache gets an even share of the budget and the registered caches shrink to make room for it. A cache
+ * is refused if the budget can't give the min to every cache, so the sum of the limits never exceeds the budget.
+ *
+ * The caches bounded by maximumWeight share the weight budget and are resized by
+ * {@link AbstractEmbeddedCache#resizeWeight(long)}, the others share the entry budget and are resized by
+ * {@link AbstractEmbeddedCache#resize(int)}. A cache can't be registered if its budget is 0 or its
+ * implementation can't be resized.
+ *
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class LocalCacheBudget {
+
+    private static Logger logger = LoggerFactory.getLogger(LocalCacheBudget.class);
+
+    public static final int DEFAULT_MIN_LIMIT = 16;
+    public static final long DEFAULT_MIN_WEIGHT = 16 * 1024;
+
+    private final Pool entryPool;
+    private final Pool weightPool;
+    private ScheduledFuture<?> future;
+
+    private static class Member {
+        final WeakReference<AbstractEmbeddedCache> cache;
+        // the configured limit or maximumWeight when the cache is registered
+        final long max;
+        long target;
+
+        Member(AbstractEmbeddedCache cache, long max) {
+            this.cache = new WeakReference<>(cache);
+            this.max = max;
+        }
+    }
+
+    private static class Pool {
+        final long total;
+        final long min;
+        final boolean byWeight;
+        final List<Member> members = new ArrayList<>();
+
+        Pool(long total, long min, boolean byWeight) {
+            this.total = total;
+            this.min = min;
+            this.byWeight = byWeight;
+        }
+
+        long current(AbstractEmbeddedCache c) {
+            EmbeddedCacheConfig config = (EmbeddedCacheConfig) c.config();
+            return byWeight ? config.getMaximumWeight() : config.getLimit();
+        }
+
+        long used(AbstractEmbeddedCache c) {
+            return byWeight ? c.estimatedWeight() : c.estimatedSize();
+        }
+
+        boolean resize(AbstractEmbeddedCache c, long target) {
+            return byWeight ? c.resizeWeight(target) : c.resize((int) target);
+        }
+
+        long clamp(Member m, long target) {
+            return Math.min(m.max, Math.max(min, target));
+        }
+
+        long floor(Member m) {
+            return Math.min(min, m.max);
+        }
+
+        boolean register(AbstractEmbeddedCache cache) {
+            members.removeIf(m -> m.cache.get() == null);
+            Member m = new Member(cache, current(cache));
+            long otherFloors = 0;
+            for (Member o : members) {
+                otherFloors += floor(o);
+            }
+            if (otherFloors + floor(m) > total) {
+                return false;
+            }
+            long target = Math.min(clamp(m, total / (members.size() + 1)), total - otherFloors);
+            if (!resize(cache, target)) {
+                return false;
+            }
+            // shrink the registered caches to the rest of the budget before the new one is counted
+            fit(members, total - target);
+            for (Member o : members) {
+                AbstractEmbeddedCache c = o.cache.get();
+                if (c != null && current(c) != o.target) {
+                    resize(c, o.target);
+                }
+            }
+            m.target = target;
+            cache.enableMissCount();
+            members.add(m);
+            return true;
+        }
+
+        /**
+         * Scale down the part above the floor of each member if the sum of the targets exceeds the budget.
+         * The floors fit in the budget, they are checked when a member is registered.
+         */
+        void fit(List<Member> list, long budget) {
+            long sum = 0;
+            long floors = 0;
+            for (Member m : list) {
+                sum += m.target;
+                floors += floor(m);
+            }
+            if (sum <= budget) {
+                return;
+            }
+            long surplus = sum - floors;
+            long available = Math.max(0, budget - floors);
+            for (Member m : list) {
+                long f = floor(m);
+                m.target = f + scale(m.target - f, available, surplus);
+            }
+        }
+
+        // v * num / den rounded down, num <= den
+        private static long scale(long v, long num, long den) {
+            if (num == 0 || v <= Long.MAX_VALUE / num) {
+                return v * num / den;
+            }
+            return (long) Math.floor((double) v / den * num);
+        }
+
+        void rebalance() {
+            List<Member> live = new ArrayList<>();
+            List<AbstractEmbeddedCache> caches = new ArrayList<>();
+            for (Iterator<Member> it = members.iterator(); it.hasNext(); ) {
+                Member m = it.next();
+                AbstractEmbeddedCache c = m.cache.get();
+                if (c == null) {
+                    it.remove();
+                } else {
+                    live.add(m);
+                    caches.add(c);
+                }
+            }
+            int n = live.size();
+            if (n == 0) {
+                return;
+            }
+            double[] score = new double[n];
+            long sum = 0;
+            for (int i = 0; i < n; i++) {
+                Member m = live.get(i);
+                AbstractEmbeddedCache c = caches.get(i);
+                long misses = c.sumMissCountThenReset();
+                long size = used(c);
+                long limit = m.target;
+                if (size >= 0 && size < limit * 3 / 4) {
+                    // not full, keep a quarter for growth and give back the rest
+                    m.target = clamp(m, size + size / 4);
+                } else if (limit < m.max) {
+                    // more capacity for a full cache turns some misses into hits
+                    score[i] = (double) misses / limit;
+                }
+                sum += m.target;
+            }
+
+            long free = total - sum;
+            if (free < 0) {
+                fit(live, total);
+            } else {
+                double scoreSum = 0;
+                int best = -1;
+                int worst = -1;
+                for (int i = 0; i < n; i++) {
+                    scoreSum += score[i];
+                    if (score[i] > 0 && (best < 0 || score[i] > score[best])) {
+                        best = i;
+                    }
+                    if (live.get(i).target > min && (worst < 0 || score[i] < score[worst])) {
+                        worst = i;
+                    }
+                }
+                if (free > 0 && scoreSum > 0) {
+                    // the share above the configured limit of a cache is left free
+                    for (int i = 0; i < n; i++) {
+                        Member m = live.get(i);
+                        m.target = clamp(m, m.target + (long) (free * score[i] / scoreSum));
+                    }
+                } else if (best >= 0 && worst >= 0 && best != worst && score[best] > 2 * score[worst]) {
+                    // move a step of capacity from the least to the most valuable cache
+                    Member donor = live.get(worst);
+                    Member receiver = live.get(best);
+                    long step = Math.max(1, Math.min(donor.target / 10, donor.target - min));
+                    step = Math.min(step, receiver.max - receiver.target);
+                    donor.target -= step;
+                    receiver.target += step;
+                }
+            }
+
+            for (int i = 0; i < n; i++) {
+                AbstractEmbeddedCache c = caches.get(i);
+                long target = live.get(i).target;
+                if (current(c) != target) {
+                    resize(c, target);
+                }
+            }
+        }
+    }
+
+    /**
+     * Create a budget of entries, the caches bounded by maximumWeight can't be registered.
+     */
+    public LocalCacheBudget(long totalLimit) {
+        this(totalLimit, 0);
+    }
+
+    /**
+     * @param totalLimit the total limit of the caches bounded by entries, 0 if they are not managed
+     * @param totalWeight the total maximumWeight of the caches bounded by weight, 0 if they are not managed
+     */
+    public LocalCacheBudget(long totalLimit, long totalWeight) {
+        this(totalLimit, DEFAULT_MIN_LIMIT, totalWeight, DEFAULT_MIN_WEIGHT);
+    }
+
+    public LocalCacheBudget(long totalLimit, int minLimit, long totalWeight, long minWeight) {
+        this.entryPool = totalLimit > 0 ? new Pool(totalLimit, minLimit, false) : null;
+        this.weightPool = totalWeight > 0 ? new Pool(totalWeight, minWeight, true) : null;
+    }
+
+    /**
+     * Rebalance the registered caches periodically.
+     */
+    public synchronized void start(long interval, TimeUnit timeUnit) {
+        if (future == null) {
+            future = JetCacheExecutor.defaultExecutor().scheduleWithFixedDelay(() -> {
+                try {
+                    rebalance();
+                } catch (Throwable e) {
+                    logger.error("local cache budget rebalance error", e);
+                }
+            }, interval, interval, timeUnit);
+        }
+    }
+
+    public synchronized void stop() {
+        if (future != null) {
+            future.cancel(false);
+            future = null;
+        }
+    }
+
+    /**
+     * Add the cache to the entry or weight budget with an even share of it, the registered caches shrink to
+     * make room for the new one.
+     * The misses of the cache are counted without a monitor, so the fast paths of the cache are kept.
+     * @return false if the budget of the cache is 0 or used up by the min of the registered caches, or the cache
+     * can't be resized
+     */
+    public synchronized boolean register(AbstractEmbeddedCache cache) {
+        Pool pool = ((EmbeddedCacheConfig) cache.config()).getMaximumWeight() > 0 ? weightPool : entryPool;
+        return pool != null && pool.register(cache);
+    }
+
+    public synchronized void rebalance() {
+        if (entryPool != null) {
+            entryPool.rebalance();
+        }
+        if (weightPool != null) {
+            weightPool.rebalance();
+        }
+    }
+
+    public long getTotalLimit() {
+        return entryPool == null ? 0 : entryPool.total;
+    }
+
+    public long getTotalWeight() {
+        return weightPool == null ? 0 : weightPool.total;
+    }
+}
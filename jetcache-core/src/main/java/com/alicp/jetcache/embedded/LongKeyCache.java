@@ -0,0 +1,298 @@
+package com.alicp.jetcache.embedded;
+
+import com.alicp.jetcache.CacheResultCode;
+import com.alicp.jetcache.CacheValueHolder;
+import com.alicp.jetcache.support.JetCacheClock;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * An embedded cache for long keys. The keys are kept in a primitive open addressing table and the entries are
+ * evicted by CLOCK. The key convertor is not used, a key must be a Number or an Object[] with a single Number
+ * (the args of a method which has a single long parameter). Use the get/put/remove methods with a long key to
+ * avoid boxing. It is never chosen automatically, an area uses it with the local cache type "longkey".
+ *
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class LongKeyCache<K, V> extends AbstractEmbeddedCache<K, V> {
+
+    public LongKeyCache(EmbeddedCacheConfig<K, V> config) {
+        super(config);
+        loadSnapshot();
+    }
+
+    @Override
+    protected InnerMap createAreaCache() {
+        return new LongKeyMap(config.getLimit());
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> clazz) {
+        throw new IllegalArgumentException(clazz.getName());
+    }
+
+    /**
+     * The key is normalized to a Long, so a key built from the args array of a method is equal for equal args.
+     */
+    @Override
+    public Object buildKey(K key) {
+        return Long.valueOf(toLong(key));
+    }
+
+    @Override
+    protected void forEachEntry(BiConsumer<Object, CacheValueHolder<V>> action) {
+        ((LongKeyMap) innerMap).forEachEntry(action);
+    }
+
+    static long toLong(Object key) {
+        if (key instanceof Number) {
+            return ((Number) key).longValue();
+        }
+        if (key instanceof Object[] && ((Object[]) key).length == 1 && ((Object[]) key)[0] instanceof Number) {
+            return ((Number) ((Object[]) key)[0]).longValue();
+        }
+        throw new IllegalArgumentException("not a long key: " + key);
+    }
+
+    /**
+     * Get the value without boxing the key, a hit allocates nothing if the cache has no monitor.
+     * @return the value, or null if the key does not exist or expired
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (needNotify()) {
+            return get((K) Long.valueOf(key));
+        }
+        CacheValueHolder<V> holder = (CacheValueHolder<V>) ((LongKeyMap) innerMap).get(key);
+        if (holder == null || !checkAndTouch(holder, JetCacheClock.currentTimeMillis())) {
+            recordMiss();
+            return null;
+        }
+        return decodeValue(holder.getValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void put(long key, V value) {
+        if (needNotify()) {
+            put((K) Long.valueOf(key), value);
+            return;
+        }
+        ((LongKeyMap) innerMap).put(key, new CacheValueHolder<>(encodeValue(value), config.getExpireAfterWriteInMillis()));
+    }
+
+    @SuppressWarnings("unchecked")
+    public boolean remove(long key) {
+        if (needNotify()) {
+            return remove((K) Long.valueOf(key));
+        }
+        return ((LongKeyMap) innerMap).remove(key);
+    }
+
+    final class LongKeyMap implements InnerMap {
+        private final int max;
+        private final int mask;
+        private final long[] keys;
+        // null means an empty slot
+        private final Object[] values;
+        private final boolean[] referenced;
+        private int size;
+        private int hand;
+
+        LongKeyMap(int max) {
+            this.max = max;
+            // keep the load factor under 0.5
+            int capacity = 4;
+            while (capacity < max * 2L && capacity < (1 << 30)) {
+                capacity <<= 1;
+            }
+            this.mask = capacity - 1;
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+            this.referenced = new boolean[capacity];
+        }
+
+        private int index(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+
+        private int find(long key) {
+            for (int i = index(key); values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @SuppressWarnings("unchecked")
+        void forEachEntry(BiConsumer action) {
+            ArrayList<Long> keyList = new ArrayList<>();
+            ArrayList<Object> valueList = new ArrayList<>();
+            synchronized (this) {
+                for (int i = 0; i < values.length; i++) {
+                    if (values[i] != null) {
+                        keyList.add(keys[i]);
+                        valueList.add(values[i]);
+                    }
+                }
+            }
+            for (int i = 0; i < keyList.size(); i++) {
+                action.accept(keyList.get(i), valueList.get(i));
+            }
+        }
+
+        synchronized Object get(long key) {
+            int i = find(key);
+            if (i < 0) {
+                return null;
+            }
+            referenced[i] = true;
+            return values[i];
+        }
+
+        synchronized void put(long key, Object value) {
+            int i = index(key);
+            while (values[i] != null) {
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = value;
+            referenced[i] = true;
+            size++;
+            while (size > max) {
+                evictOne();
+            }
+        }
+
+        synchronized boolean remove(long key) {
+            int i = find(key);
+            if (i < 0) {
+                return false;
+            }
+            removeAt(i);
+            return true;
+        }
+
+        private void evictOne() {
+            while (true) {
+                hand = (hand + 1) & mask;
+                if (values[hand] != null) {
+                    if (referenced[hand]) {
+                        referenced[hand] = false;
+                    } else {
+                        removeAt(hand);
+                        return;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Remove the slot and shift back the following entries of the probe sequence, so no tombstone is needed.
+         */
+        private void removeAt(int i) {
+            values[i] = null;
+            size--;
+            int j = i;
+            while (true) {
+                j = (j + 1) & mask;
+                if (values[j] == null) {
+                    return;
+                }
+                int home = index(keys[j]);
+                boolean stay = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+                if (!stay) {
+                    keys[i] = keys[j];
+                    values[i] = values[j];
+                    referenced[i] = referenced[j];
+                    values[j] = null;
+                    i = j;
+                }
+            }
+        }
+
+        @Override
+        public Object getValue(Object key) {
+            return get(toLong(key));
+        }
+
+        @Override
+        public Map getAllValues(Collection keys) {
+            Map values = new HashMap();
+            for (Object key : keys) {
+                Object v = get(toLong(key));
+                if (v != null) {
+                    values.put(key, v);
+                }
+            }
+            return values;
+        }
+
+        @Override
+        public void putValue(Object key, Object value) {
+            put(toLong(key), value);
+        }
+
+        @Override
+        public void putAllValues(Map map) {
+            Set<Map.Entry> set = map.entrySet();
+            for (Map.Entry en : set) {
+                put(toLong(en.getKey()), en.getValue());
+            }
+        }
+
+        @Override
+        public boolean removeValue(Object key) {
+            return remove(toLong(key));
+        }
+
+        @Override
+        public void removeAllValues(Collection keys) {
+            for (Object k : keys) {
+                remove(toLong(k));
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public synchronized boolean putIfAbsentValue(Object key, Object value) {
+            long k = toLong(key);
+            int i = find(k);
+            if (i >= 0 && parseHolderResult((CacheValueHolder) values[i]).getResultCode() != CacheResultCode.EXPIRED) {
+                return false;
+            }
+            put(k, value);
+            return true;
+        }
+
+        @Override
+        public synchronized Object computeValue(Object key, BiFunction<Object, Object, Object> remappingFunction) {
+            long k = toLong(key);
+            int i = find(k);
+            Object newValue = remappingFunction.apply(key, i < 0 ? null : values[i]);
+            if (newValue == null) {
+                if (i >= 0) {
+                    removeAt(i);
+                }
+            } else if (i >= 0) {
+                values[i] = newValue;
+            } else {
+                put(k, newValue);
+            }
+            return newValue;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.alicp.jetcache.embedded;
+
+/**
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class LongKeyCacheBuilder<T extends EmbeddedCacheBuilder<T>> extends EmbeddedCacheBuilder<T> {
+    public static class LongKeyCacheBuilderImpl extends LongKeyCacheBuilder<LongKeyCacheBuilderImpl> {
+    }
+
+    public static LongKeyCacheBuilderImpl createLongKeyCacheBuilder() {
+        return new LongKeyCacheBuilderImpl();
+    }
+
+    protected LongKeyCacheBuilder() {
+        buildFunc((c) -> new LongKeyCache((EmbeddedCacheConfig) c));
+    }
+}
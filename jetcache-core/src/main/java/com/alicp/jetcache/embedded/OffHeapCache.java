@@ -0,0 +1,294 @@
+package com.alicp.jetcache.embedded;
+
+import com.alicp.jetcache.CacheValueHolder;
+import com.alicp.jetcache.support.JetCacheClock;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * An embedded cache which keeps the values out of the java heap. The CacheValueHolders are encoded by the
+ * valueEncoder and appended to fixed size slabs of direct memory, only a small index entry per key stays on heap.
+ * When all the slabs within the capacity are used, the oldest slab is recycled and the entries in it are evicted.
+ * The returned holders are decoded copies, so changes to a returned value are not visible to the cache.
+ *
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class OffHeapCache<K, V> extends AbstractEmbeddedCache<K, V> {
+
+    public OffHeapCache(EmbeddedCacheConfig<K, V> config) {
+        super(config);
+        loadSnapshot();
+    }
+
+    @Override
+    protected InnerMap createAreaCache() {
+        OffHeapCacheConfig c = config instanceof OffHeapCacheConfig ? (OffHeapCacheConfig) config : new OffHeapCacheConfig();
+        return new OffHeapMap(config.getLimit(), c.getCapacityInBytes(), c.getSlabSizeInBytes(),
+                config.getValueEncoder(), config.getValueDecoder());
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> clazz) {
+        throw new IllegalArgumentException(clazz.getName());
+    }
+
+    @Override
+    protected void forEachEntry(BiConsumer<Object, CacheValueHolder<V>> action) {
+        ((OffHeapMap) innerMap).forEachEntry(action);
+    }
+
+    private static final class Entry {
+        final int slab;
+        final int offset;
+        final int length;
+        final long expireTime;
+        volatile long accessTime;
+
+        Entry(int slab, int offset, int length, long expireTime, long accessTime) {
+            this.slab = slab;
+            this.offset = offset;
+            this.length = length;
+            this.expireTime = expireTime;
+            this.accessTime = accessTime;
+        }
+    }
+
+    final class OffHeapMap implements InnerMap {
+        private final Function<Object, byte[]> valueEncoder;
+        private final Function<byte[], Object> valueDecoder;
+        private final int slabSize;
+        private final ByteBuffer[] slabs;
+        // keys written to each slab, used to drop the index entries when the slab is recycled
+        private final ArrayList<Object>[] slabKeys;
+        // full slabs in write order
+        private final ArrayDeque<Integer> fullSlabs = new ArrayDeque<>();
+        private final LinkedHashMap<Object, Entry> index;
+        private int allocatedSlabs;
+        private int currentSlab = -1;
+        private int writePosition;
+
+        @SuppressWarnings("unchecked")
+        OffHeapMap(int max, long capacityInBytes, int slabSizeInBytes,
+                   Function<Object, byte[]> valueEncoder, Function<byte[], Object> valueDecoder) {
+            this.valueEncoder = valueEncoder;
+            this.valueDecoder = valueDecoder;
+            this.slabSize = (int) Math.max(1, Math.min(slabSizeInBytes, capacityInBytes));
+            int maxSlabs = (int) Math.max(1, Math.min(Integer.MAX_VALUE, capacityInBytes / slabSize));
+            this.slabs = new ByteBuffer[maxSlabs];
+            this.slabKeys = new ArrayList[maxSlabs];
+            this.index = new LinkedHashMap<Object, Entry>((int) (max * 1.4f), 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry eldest) {
+                    return size() > max;
+                }
+            };
+        }
+
+        private boolean isExpired(Entry e, long now) {
+            if (JetCacheClock.hasPassed(now, e.expireTime)) {
+                return true;
+            }
+            return config.isExpireAfterAccess()
+                    && JetCacheClock.hasPassed(now, e.accessTime + config.getExpireAfterAccessInMillis());
+        }
+
+        @Override
+        public Object getValue(Object key) {
+            Entry e;
+            byte[] bytes;
+            long now = JetCacheClock.currentTimeMillis();
+            synchronized (this) {
+                e = index.get(key);
+                if (e == null) {
+                    return null;
+                }
+                if (isExpired(e, now)) {
+                    index.remove(key);
+                    return null;
+                }
+                bytes = read(e);
+            }
+            // decode out of the lock
+            CacheValueHolder holder = (CacheValueHolder) valueDecoder.apply(bytes);
+            if (config.isExpireAfterAccess()) {
+                // the access time is kept in the index, the returned holder is a copy
+                holder.setAccessTime(e.accessTime);
+                if (now > e.accessTime) {
+                    e.accessTime = now;
+                }
+            }
+            return holder;
+        }
+
+        @Override
+        public Map getAllValues(Collection keys) {
+            Map values = new HashMap();
+            for (Object key : keys) {
+                Object v = getValue(key);
+                if (v != null) {
+                    values.put(key, v);
+                }
+            }
+            return values;
+        }
+
+        @Override
+        public void putValue(Object key, Object value) {
+            CacheValueHolder holder = (CacheValueHolder) value;
+            byte[] bytes = valueEncoder.apply(holder);
+            synchronized (this) {
+                write(key, bytes, holder);
+            }
+        }
+
+        @Override
+        public void putAllValues(Map map) {
+            Set<Map.Entry> set = map.entrySet();
+            for (Map.Entry en : set) {
+                putValue(en.getKey(), en.getValue());
+            }
+        }
+
+        @Override
+        public synchronized boolean removeValue(Object key) {
+            return index.remove(key) != null;
+        }
+
+        @Override
+        public synchronized void removeAllValues(Collection keys) {
+            for (Object k : keys) {
+                index.remove(k);
+            }
+        }
+
+        @Override
+        public boolean putIfAbsentValue(Object key, Object value) {
+            CacheValueHolder holder = (CacheValueHolder) value;
+            byte[] bytes = valueEncoder.apply(holder);
+            synchronized (this) {
+                Entry e = index.get(key);
+                if (e != null && !isExpired(e, JetCacheClock.currentTimeMillis())) {
+                    return false;
+                }
+                write(key, bytes, holder);
+                return true;
+            }
+        }
+
+        @Override
+        public Object computeValue(Object key, BiFunction<Object, Object, Object> remappingFunction) {
+            long now = JetCacheClock.currentTimeMillis();
+            synchronized (this) {
+                Entry e = index.get(key);
+                CacheValueHolder old = null;
+                if (e != null && !isExpired(e, now)) {
+                    old = (CacheValueHolder) valueDecoder.apply(read(e));
+                    old.setAccessTime(e.accessTime);
+                }
+                Object newValue = remappingFunction.apply(key, old);
+                if (newValue == null) {
+                    if (e != null) {
+                        index.remove(key);
+                    }
+                } else if (newValue == old) {
+                    // unchanged, only keep the access time touched by the function
+                    e.accessTime = old.getAccessTime();
+                } else {
+                    CacheValueHolder holder = (CacheValueHolder) newValue;
+                    write(key, valueEncoder.apply(holder), holder);
+                }
+                return newValue;
+            }
+        }
+
+        /**
+         * Read the entries one by one, the holders are decoded out of the lock.
+         */
+        @SuppressWarnings("unchecked")
+        void forEachEntry(BiConsumer action) {
+            ArrayList<Object> keys;
+            synchronized (this) {
+                keys = new ArrayList<>(index.keySet());
+            }
+            for (Object key : keys) {
+                Entry e;
+                byte[] bytes;
+                synchronized (this) {
+                    e = index.get(key);
+                    if (e == null) {
+                        continue;
+                    }
+                    bytes = read(e);
+                }
+                CacheValueHolder holder = (CacheValueHolder) valueDecoder.apply(bytes);
+                holder.setAccessTime(e.accessTime);
+                action.accept(key, holder);
+            }
+        }
+
+        private byte[] read(Entry e) {
+            ByteBuffer buffer = slabs[e.slab].duplicate();
+            buffer.position(e.offset);
+            byte[] bytes = new byte[e.length];
+            buffer.get(bytes);
+            return bytes;
+        }
+
+        private void write(Object key, byte[] bytes, CacheValueHolder holder) {
+            if (bytes.length > slabSize) {
+                // too large to cache, drop the old value
+                index.remove(key);
+                return;
+            }
+            if (currentSlab < 0 || writePosition + bytes.length > slabSize) {
+                nextSlab();
+            }
+            ByteBuffer buffer = slabs[currentSlab].duplicate();
+            buffer.position(writePosition);
+            buffer.put(bytes);
+            index.put(key, new Entry(currentSlab, writePosition, bytes.length,
+                    holder.getExpireTime(), holder.getAccessTime()));
+            slabKeys[currentSlab].add(key);
+            writePosition += bytes.length;
+        }
+
+        private void nextSlab() {
+            if (currentSlab >= 0) {
+                fullSlabs.addLast(currentSlab);
+            }
+            int s;
+            if (allocatedSlabs < slabs.length) {
+                s = allocatedSlabs++;
+                slabs[s] = ByteBuffer.allocateDirect(slabSize);
+                slabKeys[s] = new ArrayList<>();
+            } else {
+                s = fullSlabs.pollFirst();
+                recycle(s);
+            }
+            currentSlab = s;
+            writePosition = 0;
+        }
+
+        private void recycle(int s) {
+            for (Object key : slabKeys[s]) {
+                Entry e = index.get(key);
+                if (e != null && e.slab == s) {
+                    index.remove(key);
+                }
+            }
+            slabKeys[s].clear();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.alicp.jetcache.embedded;
+
+/**
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class OffHeapCacheBuilder<T extends EmbeddedCacheBuilder<T>> extends EmbeddedCacheBuilder<T> {
+    public static class OffHeapCacheBuilderImpl extends OffHeapCacheBuilder<OffHeapCacheBuilderImpl> {
+    }
+
+    public static OffHeapCacheBuilderImpl createOffHeapCacheBuilder() {
+        return new OffHeapCacheBuilderImpl();
+    }
+
+    protected OffHeapCacheBuilder() {
+        buildFunc((c) -> new OffHeapCache((EmbeddedCacheConfig) c));
+    }
+
+    @Override
+    public OffHeapCacheConfig getConfig() {
+        if (config == null) {
+            config = new OffHeapCacheConfig();
+        }
+        return (OffHeapCacheConfig) config;
+    }
+
+    public T capacityInBytes(long capacityInBytes) {
+        getConfig().setCapacityInBytes(capacityInBytes);
+        return self();
+    }
+
+    public T slabSizeInBytes(int slabSizeInBytes) {
+        getConfig().setSlabSizeInBytes(slabSizeInBytes);
+        return self();
+    }
+
+    public void setCapacityInBytes(long capacityInBytes) {
+        getConfig().setCapacityInBytes(capacityInBytes);
+    }
+
+    public void setSlabSizeInBytes(int slabSizeInBytes) {
+        getConfig().setSlabSizeInBytes(slabSizeInBytes);
+    }
+}
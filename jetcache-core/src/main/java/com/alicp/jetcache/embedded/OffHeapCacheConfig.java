@@ -0,0 +1,36 @@
+package com.alicp.jetcache.embedded;
+
+/**
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class OffHeapCacheConfig<K, V> extends EmbeddedCacheConfig<K, V> {
+    public static final long DEFAULT_CAPACITY_IN_BYTES = 64 * 1024 * 1024;
+    public static final int DEFAULT_SLAB_SIZE_IN_BYTES = 1024 * 1024;
+
+    private long capacityInBytes = DEFAULT_CAPACITY_IN_BYTES;
+    private int slabSizeInBytes = DEFAULT_SLAB_SIZE_IN_BYTES;
+
+    /**
+     * @return the max direct memory used by the encoded values
+     */
+    public long getCapacityInBytes() {
+        return capacityInBytes;
+    }
+
+    public void setCapacityInBytes(long capacityInBytes) {
+        this.capacityInBytes = capacityInBytes;
+    }
+
+    /**
+     * @return the size of each slab, an encoded value larger than the slab is not cached
+     */
+    public int getSlabSizeInBytes() {
+        return slabSizeInBytes;
+    }
+
+    public void setSlabSizeInBytes(int slabSizeInBytes) {
+        this.slabSizeInBytes = slabSizeInBytes;
+    }
+}
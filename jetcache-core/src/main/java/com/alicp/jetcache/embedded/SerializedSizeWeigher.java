@@ -0,0 +1,34 @@
+package com.alicp.jetcache.embedded;
+
+import com.alicp.jetcache.support.JavaValueEncoder;
+
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Weigh the cache value by its serialized size in bytes, the key is not counted.
+ * The value is serialized once when it is put, a custom weigher is cheaper if the size can be estimated
+ * directly. A value which can't be serialized fails the put.
+ *
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class SerializedSizeWeigher implements ToIntBiFunction<Object, Object> {
+
+    public static final SerializedSizeWeigher INSTANCE = new SerializedSizeWeigher(JavaValueEncoder.INSTANCE);
+
+    private final Function<Object, byte[]> valueEncoder;
+
+    public SerializedSizeWeigher(Function<Object, byte[]> valueEncoder) {
+        this.valueEncoder = valueEncoder;
+    }
+
+    @Override
+    public int applyAsInt(Object key, Object value) {
+        if (value == null) {
+            return 0;
+        }
+        return valueEncoder.apply(value).length;
+    }
+}
@@ -3,8 +3,16 @@ package com.alicp.jetcache.external;
 import com.alicp.jetcache.AbstractCache;
 import com.alicp.jetcache.CacheConfigException;
 import com.alicp.jetcache.CacheException;
+import com.alicp.jetcache.CacheGetResult;
+import com.alicp.jetcache.CacheResult;
+import com.alicp.jetcache.CacheResultCode;
+import com.alicp.jetcache.support.FrequencySketch;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Created on 2016/10/8.
@@ -15,9 +23,16 @@ public abstract class AbstractExternalCache<K, V> extends AbstractCache<K, V> {
 
     private ExternalCacheConfig<K, V> config;
 
+    // null if the hot key detection is disabled
+    private HotKeyDetector hotKeyDetector;
+
     public AbstractExternalCache(ExternalCacheConfig<K, V> config) {
         this.config = config;
         checkConfig();
+        if (config.getHotKeyThreshold() > 0) {
+            hotKeyDetector = new HotKeyDetector(config.getHotKeyThreshold(), config.getHotKeyLimit(),
+                    config.getHotKeyExpireInMillis());
+        }
     }
 
     protected void checkConfig() {
@@ -30,6 +45,10 @@ public abstract class AbstractExternalCache<K, V> extends AbstractCache<K, V> {
         if (config.getKeyPrefix() == null){
             throw new CacheConfigException("keyPrefix is required");
         }
+        if (config.getHotKeyThreshold() < 0 || config.getHotKeyThreshold() > FrequencySketch.MAX_FREQUENCY) {
+            throw new CacheConfigException("hotKeyThreshold should be 1 to " + FrequencySketch.MAX_FREQUENCY
+                    + ", or 0 to disable the hot key detection: " + config.getHotKeyThreshold());
+        }
     }
 
     public byte[] buildKey(K key) {
@@ -50,4 +69,88 @@ public abstract class AbstractExternalCache<K, V> extends AbstractCache<K, V> {
         }
     }
 
+    @Override
+    protected CacheGetResult<V> internalGET(K key) {
+        if (hotKeyDetector == null) {
+            return do_GET(key);
+        }
+        byte[] newKey = buildKey(key);
+        ByteBuffer hotKey = ByteBuffer.wrap(newKey);
+        boolean hot = hotKeyDetector.access(hotKey);
+        if (hot) {
+            CacheGetResult<V> localResult = hotKeyDetector.get(hotKey);
+            if (localResult != null) {
+                return localResult;
+            }
+        }
+        long invalidateCount = hot ? hotKeyDetector.invalidateCount(hotKey) : 0;
+        CacheGetResult<V> result = do_GET(key, newKey);
+        if (hot) {
+            result.future().thenRun(() -> {
+                if (result.isSuccess()) {
+                    hotKeyDetector.put(hotKey, result.getValue(), invalidateCount);
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Get the value from the master, skipping the replicas and the hot key cache. It's used by the reads which
+     * must see the latest write of other instances, such as the refresh timestamps and the lock inquiries.
+     * No CacheGetEvent is sent.
+     */
+    public final CacheGetResult<V> GET_FROM_MASTER(K key) {
+        if (key == null) {
+            return new CacheGetResult<V>(CacheResultCode.FAIL, CacheResult.MSG_ILLEGAL_ARGUMENT, null);
+        }
+        return do_GET_FROM_MASTER(key);
+    }
+
+    /**
+     * A subclass reading from the replicas should override it.
+     */
+    protected CacheGetResult<V> do_GET_FROM_MASTER(K key) {
+        return do_GET(key);
+    }
+
+    /**
+     * Get the value by the key built by buildKey, which is built already if the hot key detection is enabled.
+     * A subclass should override it, so the key is not built twice.
+     */
+    protected CacheGetResult<V> do_GET(K key, byte[] newKey) {
+        return do_GET(key);
+    }
+
+    @Override
+    public CacheGetResult<V> GET_FOR_LOCK_INQUIRY(K key) {
+        return GET_FROM_MASTER(key);
+    }
+
+    /**
+     * Invalidate the local value of the key when the write is sent and again when it completes, so a GET which
+     * reads the remote value before the write completes can't keep the old value locally.
+     */
+    @Override
+    protected void afterKeyChange(K key, CacheResult result) {
+        if (hotKeyDetector != null) {
+            ByteBuffer hotKey = ByteBuffer.wrap(buildKey(key));
+            hotKeyDetector.invalidate(hotKey);
+            result.future().thenRun(() -> hotKeyDetector.invalidate(hotKey));
+        }
+    }
+
+    @Override
+    protected void afterKeysChange(Set<? extends K> keys, CacheResult result) {
+        if (hotKeyDetector != null) {
+            List<ByteBuffer> hotKeys = new ArrayList<>(keys.size());
+            for (K key : keys) {
+                ByteBuffer hotKey = ByteBuffer.wrap(buildKey(key));
+                hotKeyDetector.invalidate(hotKey);
+                hotKeys.add(hotKey);
+            }
+            result.future().thenRun(() -> hotKeys.forEach(hotKeyDetector::invalidate));
+        }
+    }
+
 }
@@ -2,6 +2,7 @@ package com.alicp.jetcache.external;
 
 import com.alicp.jetcache.AbstractCacheBuilder;
 
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
@@ -45,4 +46,35 @@ public abstract class ExternalCacheBuilder<T extends ExternalCacheBuilder<T>> ex
     public void setValueDecoder(Function<byte[], Object> valueDecoder){
         getConfig().setValueDecoder(valueDecoder);
     }
+
+    /**
+     * Keep the values of the hot keys in a small local cache, a key is hot if it is read more than threshold
+     * times in the recent GETs. Use a value between 1 and 15, 0 disables the detection.
+     */
+    public T hotKeyThreshold(int hotKeyThreshold){
+        getConfig().setHotKeyThreshold(hotKeyThreshold);
+        return self();
+    }
+
+    public void setHotKeyThreshold(int hotKeyThreshold){
+        getConfig().setHotKeyThreshold(hotKeyThreshold);
+    }
+
+    public T hotKeyLimit(int hotKeyLimit){
+        getConfig().setHotKeyLimit(hotKeyLimit);
+        return self();
+    }
+
+    public void setHotKeyLimit(int hotKeyLimit){
+        getConfig().setHotKeyLimit(hotKeyLimit);
+    }
+
+    public T hotKeyExpire(long hotKeyExpire, TimeUnit timeUnit){
+        getConfig().setHotKeyExpireInMillis(timeUnit.toMillis(hotKeyExpire));
+        return self();
+    }
+
+    public void setHotKeyExpireInMillis(long hotKeyExpireInMillis){
+        getConfig().setHotKeyExpireInMillis(hotKeyExpireInMillis);
+    }
 }
@@ -12,9 +12,15 @@ import java.util.function.Function;
  * @author <a href="mailto:areyouok@gmail.com">huangli</a>
  */
 public class ExternalCacheConfig<K, V> extends CacheConfig<K, V> {
+    public static final int DEFAULT_HOT_KEY_LIMIT = 100;
+    public static final long DEFAULT_HOT_KEY_EXPIRE_IN_MILLIS = 1000;
+
     private String keyPrefix;
     private Function<Object, byte[]> valueEncoder = JavaValueEncoder.INSTANCE;
     private Function<byte[], Object> valueDecoder = DecoderMap.defaultJavaValueDecoder();
+    private int hotKeyThreshold;
+    private int hotKeyLimit = DEFAULT_HOT_KEY_LIMIT;
+    private long hotKeyExpireInMillis = DEFAULT_HOT_KEY_EXPIRE_IN_MILLIS;
 
     public String getKeyPrefix() {
         return keyPrefix;
@@ -39,4 +45,38 @@ public class ExternalCacheConfig<K, V> extends CacheConfig<K, V> {
     public void setValueDecoder(Function<byte[], Object> valueDecoder) {
         this.valueDecoder = valueDecoder;
     }
+
+    /**
+     * @return the estimated access count (1 to 15) in the recent GETs which makes a key hot, 0 means the hot key
+     * detection is disabled
+     */
+    public int getHotKeyThreshold() {
+        return hotKeyThreshold;
+    }
+
+    public void setHotKeyThreshold(int hotKeyThreshold) {
+        this.hotKeyThreshold = hotKeyThreshold;
+    }
+
+    /**
+     * @return the max count of the hot keys kept locally
+     */
+    public int getHotKeyLimit() {
+        return hotKeyLimit;
+    }
+
+    public void setHotKeyLimit(int hotKeyLimit) {
+        this.hotKeyLimit = hotKeyLimit;
+    }
+
+    /**
+     * @return how long a hot key is served locally, the values changed by other nodes may be seen after it
+     */
+    public long getHotKeyExpireInMillis() {
+        return hotKeyExpireInMillis;
+    }
+
+    public void setHotKeyExpireInMillis(long hotKeyExpireInMillis) {
+        this.hotKeyExpireInMillis = hotKeyExpireInMillis;
+    }
 }
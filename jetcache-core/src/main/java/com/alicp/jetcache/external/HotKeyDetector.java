@@ -0,0 +1,117 @@
+package com.alicp.jetcache.external;
+
+import com.alicp.jetcache.Cache;
+import com.alicp.jetcache.CacheGetResult;
+import com.alicp.jetcache.embedded.LinkedHashMapCacheBuilder;
+import com.alicp.jetcache.support.FrequencySketch;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Count the GETs of an external cache in a frequency sketch, and keep the values of the hot keys in a small
+ * local LRU cache with a short expire time. The local cache holds at most hotKeyLimit keys, so it works as an
+ * approximate top-K of the keys above the threshold.
+ *
+ * The keys are spread over stripes by their hash, each stripe has its own sketch and invalidation count, so the
+ * GETs and writes of different keys rarely contend.
+ *
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class HotKeyDetector {
+
+    private static final int MAX_STRIPES = 64;
+
+    private final int threshold;
+    private final Stripe[] stripes;
+    private final int mask;
+    private final Cache<Object, Object> localCache;
+
+    private static final class Stripe {
+        // guarded by this
+        final FrequencySketch sketch;
+        // incremented by each invalidation of a key of the stripe
+        final AtomicLong invalidateCount = new AtomicLong();
+
+        Stripe(int size) {
+            this.sketch = new FrequencySketch(size);
+        }
+    }
+
+    public HotKeyDetector(int threshold, int limit, long expireInMillis) {
+        this.threshold = threshold;
+        int n = 1;
+        while (n < MAX_STRIPES && n < Runtime.getRuntime().availableProcessors() * 2) {
+            n <<= 1;
+        }
+        this.stripes = new Stripe[n];
+        this.mask = n - 1;
+        // the counters are halved after 10 * size GETs, which is the window of the threshold
+        int stripeSize = Math.max(1024, limit * 8) / n;
+        for (int i = 0; i < n; i++) {
+            stripes[i] = new Stripe(Math.max(64, stripeSize));
+        }
+        this.localCache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .limit(limit)
+                .segments(Math.max(1, Math.min(n, limit / 8)))
+                .expireAfterWrite(expireInMillis, TimeUnit.MILLISECONDS)
+                .buildCache();
+    }
+
+    private Stripe stripe(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return stripes[h & mask];
+    }
+
+    /**
+     * Count a GET of the key.
+     * @return true if the key is hot
+     */
+    public boolean access(Object key) {
+        Stripe s = stripe(key);
+        synchronized (s) {
+            s.sketch.increment(key);
+            return s.sketch.frequency(key) >= threshold;
+        }
+    }
+
+    /**
+     * @return the local result of a hot key, or null if the key is not kept locally
+     */
+    @SuppressWarnings("unchecked")
+    public <V> CacheGetResult<V> get(Object key) {
+        CacheGetResult r = localCache.GET(key);
+        return r.isSuccess() ? r : null;
+    }
+
+    /**
+     * @return the count of the invalidations of the key's stripe, read it before the remote GET and pass it to put
+     */
+    public long invalidateCount(Object key) {
+        return stripe(key).invalidateCount.get();
+    }
+
+    /**
+     * Keep the value of a hot key locally. The value is dropped if a key of the stripe is invalidated after
+     * invalidateCount was read, because the remote GET may have returned the value which the invalidating write
+     * replaced.
+     */
+    public void put(Object key, Object value, long invalidateCount) {
+        AtomicLong count = stripe(key).invalidateCount;
+        if (count.get() == invalidateCount) {
+            localCache.put(key, value);
+            // an invalidation between the check and the put may have removed the key before it was put
+            if (count.get() != invalidateCount) {
+                localCache.remove(key);
+            }
+        }
+    }
+
+    public void invalidate(Object key) {
+        stripe(key).invalidateCount.incrementAndGet();
+        localCache.remove(key);
+    }
+}
@@ -97,7 +97,12 @@ public class MockRemoteCache<K, V> extends AbstractExternalCache<K, V> {
 
     @Override
     protected CacheGetResult<V> do_GET(K key) {
-        CacheGetResult r = cache.GET(genKey(key));
+        return do_GET(key, buildKey(key));
+    }
+
+    @Override
+    protected CacheGetResult<V> do_GET(K key, byte[] newKey) {
+        CacheGetResult r = cache.GET(ByteBuffer.wrap(newKey));
         if (r.isSuccess()) {
             r = convertCacheGetResult(r);
         }
@@ -0,0 +1,83 @@
+package com.alicp.jetcache.support;
+
+import com.alicp.jetcache.Ticker;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A ticker which is refreshed by a background thread at millisecond granularity, reading it is a volatile read
+ * instead of a System.currentTimeMillis() call. It lags the wall clock by the refresh interval plus the
+ * scheduling delay of the thread, so an entry may live a few milliseconds longer than its expire time.
+ *
+ * The thread is started by the first read, and exits if the ticker is not read for about a second, so an idle
+ * application doesn't keep a thread waking up every millisecond. The next read starts it again.
+ *
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class CachedTicker implements Ticker {
+
+    private static final long REFRESH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    // the thread exits after this number of refreshes without a read
+    private static final int IDLE_REFRESH_COUNT = 1000;
+    // the lag normally seen on a busy machine, it's not guaranteed if the thread is starved
+    public static final long MAX_EXPECTED_LAG_MILLIS = 10;
+
+    private volatile long now = System.currentTimeMillis();
+    // set by the reads and cleared by the thread, so the thread knows whether the ticker is still used
+    private volatile boolean touched;
+    // null if the thread is not running, guarded by this
+    private Thread thread;
+    private volatile boolean stopped;
+
+    private void run() {
+        int idleCount = 0;
+        while (!stopped) {
+            now = System.currentTimeMillis();
+            if (touched) {
+                touched = false;
+                idleCount = 0;
+            } else if (++idleCount >= IDLE_REFRESH_COUNT) {
+                synchronized (this) {
+                    if (!touched) {
+                        thread = null;
+                        return;
+                    }
+                }
+            }
+            LockSupport.parkNanos(REFRESH_INTERVAL_NANOS);
+        }
+        synchronized (this) {
+            thread = null;
+        }
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        if (!touched) {
+            touch();
+        }
+        return now;
+    }
+
+    private synchronized void touch() {
+        if (thread == null && !stopped) {
+            // the cached time is stale when the thread is not running
+            now = System.currentTimeMillis();
+            thread = new Thread(this::run, "JetCacheTicker");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        touched = true;
+    }
+
+    synchronized boolean isRunning() {
+        return thread != null;
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+}
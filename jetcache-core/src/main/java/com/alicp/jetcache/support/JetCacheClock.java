@@ -0,0 +1,64 @@
+package com.alicp.jetcache.support;
+
+import com.alicp.jetcache.Ticker;
+
+/**
+ * Holds the global ticker, the default one is a {@link CachedTicker}.
+ *
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class JetCacheClock {
+    // a time closer than this to the cached time is checked against the wall clock, see hasPassed
+    static final long PRECISE_CHECK_WINDOW_MILLIS = CachedTicker.MAX_EXPECTED_LAG_MILLIS;
+
+    protected static volatile Ticker ticker;
+
+    public static Ticker ticker() {
+        Ticker t = ticker;
+        if (t != null) {
+            return t;
+        }
+        synchronized (JetCacheClock.class) {
+            if (ticker == null) {
+                ticker = new CachedTicker();
+            }
+            return ticker;
+        }
+    }
+
+    public static long currentTimeMillis() {
+        return ticker().currentTimeMillis();
+    }
+
+    /**
+     * Check whether the time has passed, used by the reads of a single entry. The {@link CachedTicker} lags the
+     * wall clock, so the wall clock is read when the time is within the expected lag, and a read doesn't return
+     * an entry which has expired. The bulk scans such as the expiry cleaner compare with the cached time only,
+     * an entry they miss is removed by a later scan or the next read.
+     * @param now the time got from currentTimeMillis()
+     * @param time the time to check, such as an expire time
+     */
+    public static boolean hasPassed(long now, long time) {
+        if (now >= time) {
+            return true;
+        }
+        return time - now <= PRECISE_CHECK_WINDOW_MILLIS && ticker instanceof CachedTicker
+                && System.currentTimeMillis() >= time;
+    }
+
+    /**
+     * Replace the global ticker, tests can use it to control time.
+     * @param ticker the new ticker, null to restore the default one
+     */
+    public static void setTicker(Ticker ticker) {
+        synchronized (JetCacheClock.class) {
+            Ticker old = JetCacheClock.ticker;
+            if (old instanceof CachedTicker && old != ticker) {
+                ((CachedTicker) old).stop();
+            }
+            JetCacheClock.ticker = ticker;
+        }
+    }
+}
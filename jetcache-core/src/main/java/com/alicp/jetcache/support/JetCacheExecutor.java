@@ -1,6 +1,7 @@
 package com.alicp.jetcache.support;
 
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Created on 2017/5/3.
@@ -10,6 +11,12 @@ import java.util.concurrent.*;
 public class JetCacheExecutor {
     protected static ScheduledExecutorService defaultExecutor;
     protected static ScheduledExecutorService heavyIOExecutor;
+    protected static ExecutorService asyncExecutor;
+    protected static ExecutorService decodeExecutor;
+
+    public static final int ASYNC_THREADS = 32;
+    public static final int DECODE_THREADS = Runtime.getRuntime().availableProcessors();
+    public static final int DECODE_QUEUE_SIZE = 1024;
 
     private static int threadCount;
 
@@ -23,6 +30,12 @@ public class JetCacheExecutor {
                 if (heavyIOExecutor != null) {
                     heavyIOExecutor.shutdownNow();
                 }
+                if (asyncExecutor != null) {
+                    asyncExecutor.shutdownNow();
+                }
+                if (decodeExecutor != null) {
+                    decodeExecutor.shutdownNow();
+                }
             }
         });
     }
@@ -38,8 +51,11 @@ public class JetCacheExecutor {
                     t.setDaemon(true);
                     return t;
                 };
-                defaultExecutor = new ScheduledThreadPoolExecutor(
+                ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(
                         1, tf, new ThreadPoolExecutor.DiscardPolicy());
+                // the cancelled timeout tasks are removed at once instead of at their delay
+                executor.setRemoveOnCancelPolicy(true);
+                defaultExecutor = executor;
             }
         }
         return defaultExecutor;
@@ -63,6 +79,66 @@ public class JetCacheExecutor {
         return heavyIOExecutor;
     }
 
+    /**
+     * The executor of the async API, it runs the default async loads of CacheLoader and the work of the caches
+     * which should not run on the I/O threads of the remote caches. It's not shared with the refresh tasks, so
+     * slow loaders don't delay the refresh and vice versa.
+     */
+    public static ExecutorService asyncExecutor() {
+        if (asyncExecutor != null) {
+            return asyncExecutor;
+        }
+        synchronized (JetCacheExecutor.class) {
+            if (asyncExecutor == null) {
+                AtomicInteger count = new AtomicInteger();
+                ThreadFactory tf = r -> {
+                    Thread t = new Thread(r, "JetCacheAsyncExecutor" + count.getAndIncrement());
+                    t.setDaemon(true);
+                    return t;
+                };
+                ThreadPoolExecutor executor = new ThreadPoolExecutor(ASYNC_THREADS, ASYNC_THREADS,
+                        60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), tf);
+                executor.allowCoreThreadTimeOut(true);
+                asyncExecutor = executor;
+            }
+        }
+        return asyncExecutor;
+    }
+
+    /**
+     * The shared executor to decode the large responses of the remote caches off their I/O threads. It has
+     * DECODE_THREADS threads and a queue of DECODE_QUEUE_SIZE tasks, a task is rejected when the queue is full,
+     * so the caller decodes it in its own thread instead of piling up the responses.
+     */
+    public static ExecutorService decodeExecutor() {
+        if (decodeExecutor != null) {
+            return decodeExecutor;
+        }
+        synchronized (JetCacheExecutor.class) {
+            if (decodeExecutor == null) {
+                decodeExecutor = newDecodeExecutor(DECODE_THREADS, DECODE_QUEUE_SIZE);
+            }
+        }
+        return decodeExecutor;
+    }
+
+    /**
+     * Create a bounded decode executor, the idle threads exit, and a task is rejected with
+     * RejectedExecutionException when the queue is full.
+     */
+    public static ExecutorService newDecodeExecutor(int threads, int queueSize) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory tf = r -> {
+            Thread t = new Thread(r, "JetCacheDecodeExecutor" + count.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), tf, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     public static void setDefaultExecutor(ScheduledExecutorService executor) {
         JetCacheExecutor.defaultExecutor = executor;
     }
@@ -70,4 +146,12 @@ public class JetCacheExecutor {
     public static void setHeavyIOExecutor(ScheduledExecutorService heavyIOExecutor) {
         JetCacheExecutor.heavyIOExecutor = heavyIOExecutor;
     }
+
+    public static void setAsyncExecutor(ExecutorService asyncExecutor) {
+        JetCacheExecutor.asyncExecutor = asyncExecutor;
+    }
+
+    public static void setDecodeExecutor(ExecutorService decodeExecutor) {
+        JetCacheExecutor.decodeExecutor = decodeExecutor;
+    }
 }
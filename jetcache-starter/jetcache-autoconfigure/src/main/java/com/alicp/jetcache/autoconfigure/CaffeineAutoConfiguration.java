@@ -21,6 +21,7 @@ public class CaffeineAutoConfiguration extends EmbeddedCacheAutoInit {
     protected CacheBuilder initCache(ConfigTree ct, String cacheAreaWithPrefix) {
         CaffeineCacheBuilder builder = CaffeineCacheBuilder.createCaffeineCacheBuilder();
         parseGeneralConfig(builder, ct);
+        builder.nativeRefresh(Boolean.parseBoolean(ct.getProperty("nativeRefresh", "false")));
         return builder;
     }
 
@@ -0,0 +1,32 @@
+package com.alicp.jetcache.autoconfigure;
+
+import com.alicp.jetcache.CacheBuilder;
+import com.alicp.jetcache.embedded.ClockCacheBuilder;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Component;
+
+/**
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+@Component
+@Conditional(ClockAutoConfiguration.ClockCondition.class)
+public class ClockAutoConfiguration extends EmbeddedCacheAutoInit {
+    public ClockAutoConfiguration() {
+        super("clock");
+    }
+
+    @Override
+    protected CacheBuilder initCache(ConfigTree ct, String cacheAreaWithPrefix) {
+        ClockCacheBuilder builder = ClockCacheBuilder.createClockCacheBuilder();
+        parseGeneralConfig(builder, ct);
+        return builder;
+    }
+
+    public static class ClockCondition extends JetCacheCondition {
+        public ClockCondition() {
+            super("clock");
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.alicp.jetcache.autoconfigure;
 import com.alicp.jetcache.CacheBuilder;
 import com.alicp.jetcache.anno.CacheConsts;
 import com.alicp.jetcache.embedded.EmbeddedCacheBuilder;
+import com.alicp.jetcache.embedded.EmbeddedCacheConfig;
 
 /**
  * Created on 2016/12/2.
@@ -21,5 +22,13 @@ public abstract class EmbeddedCacheAutoInit extends AbstractCacheAutoInit {
         EmbeddedCacheBuilder ecb = (EmbeddedCacheBuilder) builder;
 
         ecb.limit(Integer.parseInt(ct.getProperty("limit", String.valueOf(CacheConsts.DEFAULT_LOCAL_LIMIT))));
+        ecb.maximumWeight(Long.parseLong(ct.getProperty("maximumWeight", "0")));
+        ecb.setValueEncoder(configProvider.parseValueEncoder(ct.getProperty("valueEncoder", CacheConsts.DEFAULT_SERIAL_POLICY)));
+        ecb.setValueDecoder(configProvider.parseValueDecoder(ct.getProperty("valueDecoder", CacheConsts.DEFAULT_SERIAL_POLICY)));
+        ecb.setSnapshotFile(ct.getProperty("snapshotFile"));
+        ecb.setStoreValueAsBytes(Boolean.parseBoolean(ct.getProperty("storeValueAsBytes", "false")));
+        ecb.setCompressValue(Boolean.parseBoolean(ct.getProperty("compressValue", "false")));
+        ecb.setDecodedCacheSize(Integer.parseInt(ct.getProperty("decodedCacheSize",
+                String.valueOf(EmbeddedCacheConfig.DEFAULT_DECODED_CACHE_SIZE))));
     }
 }
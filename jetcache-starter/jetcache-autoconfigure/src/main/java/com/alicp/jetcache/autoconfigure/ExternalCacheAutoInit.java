@@ -3,6 +3,7 @@ package com.alicp.jetcache.autoconfigure;
 import com.alicp.jetcache.CacheBuilder;
 import com.alicp.jetcache.anno.CacheConsts;
 import com.alicp.jetcache.external.ExternalCacheBuilder;
+import com.alicp.jetcache.external.ExternalCacheConfig;
 
 /**
  * Created on 2016/11/29.
@@ -21,5 +22,10 @@ public abstract class ExternalCacheAutoInit extends AbstractCacheAutoInit {
         ecb.setKeyPrefix(ct.getProperty("keyPrefix"));
         ecb.setValueEncoder(configProvider.parseValueEncoder(ct.getProperty("valueEncoder", CacheConsts.DEFAULT_SERIAL_POLICY)));
         ecb.setValueDecoder(configProvider.parseValueDecoder(ct.getProperty("valueDecoder", CacheConsts.DEFAULT_SERIAL_POLICY)));
+        ecb.setHotKeyThreshold(Integer.parseInt(ct.getProperty("hotKeyThreshold", "0")));
+        ecb.setHotKeyLimit(Integer.parseInt(ct.getProperty("hotKeyLimit",
+                String.valueOf(ExternalCacheConfig.DEFAULT_HOT_KEY_LIMIT))));
+        ecb.setHotKeyExpireInMillis(Long.parseLong(ct.getProperty("hotKeyExpireInMillis",
+                String.valueOf(ExternalCacheConfig.DEFAULT_HOT_KEY_EXPIRE_IN_MILLIS))));
     }
 }
@@ -22,6 +22,9 @@ import org.springframework.context.annotation.Import;
         CaffeineAutoConfiguration.class,
         MockRemoteCacheAutoConfiguration.class,
         LinkedHashMapAutoConfiguration.class,
+        ClockAutoConfiguration.class,
+        OffHeapAutoConfiguration.class,
+        LongKeyAutoConfiguration.class,
         RedisLettuceAutoConfiguration.class,
         RedisSpringDataAutoConfiguration.class})
 public class JetCacheAutoConfiguration {
@@ -62,6 +65,8 @@ public class JetCacheAutoConfiguration {
         _globalCacheConfig.setStatIntervalMinutes(props.getStatIntervalMinutes());
         _globalCacheConfig.setAreaInCacheName(props.isAreaInCacheName());
         _globalCacheConfig.setPenetrationProtect(props.isPenetrationProtect());
+        _globalCacheConfig.setLocalLimitBudget(props.getLocalLimitBudget());
+        _globalCacheConfig.setLocalWeightBudget(props.getLocalWeightBudget());
         _globalCacheConfig.setEnableMethodCache(props.isEnableMethodCache());
         _globalCacheConfig.setLocalCacheBuilders(autoConfigureBeans.getLocalCacheBuilders());
         _globalCacheConfig.setRemoteCacheBuilders(autoConfigureBeans.getRemoteCacheBuilders());
@@ -15,6 +15,8 @@ public class JetCacheProperties {
     private boolean areaInCacheName = true;
     private boolean penetrationProtect = false;
     private boolean enableMethodCache = true;
+    private long localLimitBudget;
+    private long localWeightBudget;
 
     public JetCacheProperties(){
     }
@@ -65,4 +67,20 @@ public class JetCacheProperties {
     public void setEnableMethodCache(boolean enableMethodCache) {
         this.enableMethodCache = enableMethodCache;
     }
+
+    public long getLocalLimitBudget() {
+        return localLimitBudget;
+    }
+
+    public void setLocalLimitBudget(long localLimitBudget) {
+        this.localLimitBudget = localLimitBudget;
+    }
+
+    public long getLocalWeightBudget() {
+        return localWeightBudget;
+    }
+
+    public void setLocalWeightBudget(long localWeightBudget) {
+        this.localWeightBudget = localWeightBudget;
+    }
 }
@@ -21,6 +21,8 @@ public class LinkedHashMapAutoConfiguration extends EmbeddedCacheAutoInit {
     protected CacheBuilder initCache(ConfigTree ct, String cacheAreaWithPrefix) {
         LinkedHashMapCacheBuilder builder = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder();
         parseGeneralConfig(builder, ct);
+        builder.segments(Integer.parseInt(ct.getProperty("segments", "1")));
+        builder.tinyLfu(Boolean.parseBoolean(ct.getProperty("tinyLfu", "false")));
         return builder;
     }
 
@@ -0,0 +1,32 @@
+package com.alicp.jetcache.autoconfigure;
+
+import com.alicp.jetcache.CacheBuilder;
+import com.alicp.jetcache.embedded.LongKeyCacheBuilder;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Component;
+
+/**
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+@Component
+@Conditional(LongKeyAutoConfiguration.LongKeyCondition.class)
+public class LongKeyAutoConfiguration extends EmbeddedCacheAutoInit {
+    public LongKeyAutoConfiguration() {
+        super("longkey");
+    }
+
+    @Override
+    protected CacheBuilder initCache(ConfigTree ct, String cacheAreaWithPrefix) {
+        LongKeyCacheBuilder builder = LongKeyCacheBuilder.createLongKeyCacheBuilder();
+        parseGeneralConfig(builder, ct);
+        return builder;
+    }
+
+    public static class LongKeyCondition extends JetCacheCondition {
+        public LongKeyCondition() {
+            super("longkey");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.alicp.jetcache.autoconfigure;
+
+import com.alicp.jetcache.CacheBuilder;
+import com.alicp.jetcache.embedded.OffHeapCacheBuilder;
+import com.alicp.jetcache.embedded.OffHeapCacheConfig;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Component;
+
+/**
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+@Component
+@Conditional(OffHeapAutoConfiguration.OffHeapCondition.class)
+public class OffHeapAutoConfiguration extends EmbeddedCacheAutoInit {
+    public OffHeapAutoConfiguration() {
+        super("offheap");
+    }
+
+    @Override
+    protected CacheBuilder initCache(ConfigTree ct, String cacheAreaWithPrefix) {
+        OffHeapCacheBuilder builder = OffHeapCacheBuilder.createOffHeapCacheBuilder();
+        parseGeneralConfig(builder, ct);
+        builder.setCapacityInBytes(Long.parseLong(ct.getProperty("capacityInBytes",
+                String.valueOf(OffHeapCacheConfig.DEFAULT_CAPACITY_IN_BYTES))));
+        builder.setSlabSizeInBytes(Integer.parseInt(ct.getProperty("slabSizeInBytes",
+                String.valueOf(OffHeapCacheConfig.DEFAULT_SLAB_SIZE_IN_BYTES))));
+        return builder;
+    }
+
+    public static class OffHeapCondition extends JetCacheCondition {
+        public OffHeapCondition() {
+            super("offheap");
+        }
+    }
+}
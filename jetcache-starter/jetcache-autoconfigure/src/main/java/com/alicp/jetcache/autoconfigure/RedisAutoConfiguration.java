@@ -12,7 +12,9 @@ import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
 import org.springframework.util.ClassUtils;
+import redis.clients.jedis.HostAndPort;
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisCluster;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisSentinelPool;
 import redis.clients.jedis.Protocol;
@@ -57,6 +59,18 @@ public class RedisAutoConfiguration {
 
         @Override
         protected CacheBuilder initCache(ConfigTree ct, String cacheAreaWithPrefix) {
+            String cluster = ct.getProperty("cluster", (String) null);//ip1:port,ip2:port
+            if (cluster != null) {
+                JedisCluster jedisCluster = parseCluster(ct, cluster);
+                ExternalCacheBuilder externalCacheBuilder = RedisCacheBuilder.createRedisCacheBuilder()
+                        .jedisCluster(jedisCluster);
+                parseGeneralConfig(externalCacheBuilder, ct);
+
+                // eg: "jedisCluster.remote.default"
+                autoConfigureBeans.getCustomContainer().put("jedisCluster." + cacheAreaWithPrefix, jedisCluster);
+                return externalCacheBuilder;
+            }
+
             Pool jedisPool = parsePool(ct);
             Pool[] slavesPool = null;
             int[] slavesPoolWeights = null;
@@ -89,6 +103,20 @@ public class RedisAutoConfiguration {
             return externalCacheBuilder;
         }
 
+        private JedisCluster parseCluster(ConfigTree ct, String cluster) {
+            GenericObjectPoolConfig poolConfig = parsePoolConfig(ct);
+            int timeout = Integer.parseInt(ct.getProperty("timeout", String.valueOf(Protocol.DEFAULT_TIMEOUT)));
+            int maxAttempts = Integer.parseInt(ct.getProperty("maxAttempts", "5"));
+            String password = ct.getProperty("password", (String) null);
+            Set<HostAndPort> nodes = new HashSet<>();
+            for (String s : cluster.split(",")) {
+                if (s != null && !s.trim().equals("")) {
+                    nodes.add(HostAndPort.parseString(s.trim()));
+                }
+            }
+            return new JedisCluster(nodes, timeout, timeout, maxAttempts, password, poolConfig);
+        }
+
         private Pool<Jedis> parsePool(ConfigTree ct) {
             GenericObjectPoolConfig poolConfig = parsePoolConfig(ct);
 
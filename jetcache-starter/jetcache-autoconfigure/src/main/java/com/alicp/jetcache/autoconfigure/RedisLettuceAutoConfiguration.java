@@ -7,11 +7,13 @@ import com.alicp.jetcache.external.ExternalCacheBuilder;
 import com.alicp.jetcache.redis.lettuce.JetCacheCodec;
 import com.alicp.jetcache.redis.lettuce.LettuceConnectionManager;
 import com.alicp.jetcache.redis.lettuce.RedisLettuceCacheBuilder;
+import com.alicp.jetcache.redis.lettuce.RedisLettuceCacheConfig;
+import com.alicp.jetcache.redis.lettuce.WeightedReadFrom;
+import com.alicp.jetcache.support.JetCacheExecutor;
 import io.lettuce.core.*;
 import io.lettuce.core.api.StatefulConnection;
 import io.lettuce.core.cluster.ClusterClientOptions;
 import io.lettuce.core.cluster.RedisClusterClient;
-import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
 import io.lettuce.core.masterslave.MasterSlave;
 import io.lettuce.core.masterslave.StatefulRedisMasterSlaveConnection;
 import org.springframework.context.annotation.Bean;
@@ -57,13 +59,25 @@ public class RedisLettuceAutoConfiguration {
             String mode = ct.getProperty("mode");
             long asyncResultTimeoutInMillis = Long.parseLong(
                     ct.getProperty("asyncResultTimeoutInMillis", Long.toString(CacheConsts.ASYNC_RESULT_TIMEOUT.toMillis())));
+            int putAllFlushSize = Integer.parseInt(
+                    ct.getProperty("putAllFlushSize", Integer.toString(RedisLettuceCacheConfig.DEFAULT_PUT_ALL_FLUSH_SIZE)));
+            int connectionCount = Integer.parseInt(ct.getProperty("connectionCount", "1"));
+            int bulkKeyThreshold = Integer.parseInt(
+                    ct.getProperty("bulkKeyThreshold", Integer.toString(RedisLettuceCacheConfig.DEFAULT_BULK_KEY_THRESHOLD)));
             ReadFrom readFrom = null;
             if (readFromStr != null) {
-                readFrom = ReadFrom.valueOf(readFromStr.trim());
+                if (readFromStr.trim().equalsIgnoreCase("weighted")) {
+                    // eg: "127.0.0.1:6380=2,127.0.0.1:6381=1"
+                    readFrom = WeightedReadFrom.parse(ct.getProperty("readWeights", ""));
+                } else {
+                    readFrom = ReadFrom.valueOf(readFromStr.trim());
+                }
             }
 
             AbstractRedisClient client;
             StatefulConnection connection = null;
+            // the connection of GET and GET_ALL, the other commands use the connection reading from the master
+            StatefulConnection readConnection = null;
             if (map == null || map.size() == 0) {
                 throw new CacheConfigException("lettuce uri is required");
             } else {
@@ -79,31 +93,28 @@ public class RedisLettuceAutoConfiguration {
                         client = RedisClient.create();
                         ((RedisClient) client).setOptions(ClientOptions.builder().
                                 disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS).build());
+                        connection = MasterSlave.connect((RedisClient) client, new JetCacheCodec(), uri);
                         StatefulRedisMasterSlaveConnection c = MasterSlave.connect(
                                 (RedisClient) client, new JetCacheCodec(), uri);
                         c.setReadFrom(readFrom);
-                        connection = c;
+                        readConnection = c;
                     }
                 } else {
                     if (mode != null && mode.equalsIgnoreCase("MasterSlave")) {
                         client = RedisClient.create();
                         ((RedisClient) client).setOptions(ClientOptions.builder().
                                 disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS).build());
-                        StatefulRedisMasterSlaveConnection c = MasterSlave.connect(
-                                (RedisClient) client, new JetCacheCodec(), uriList);
+                        connection = MasterSlave.connect((RedisClient) client, new JetCacheCodec(), uriList);
                         if (readFrom != null) {
+                            StatefulRedisMasterSlaveConnection c = MasterSlave.connect(
+                                    (RedisClient) client, new JetCacheCodec(), uriList);
                             c.setReadFrom(readFrom);
+                            readConnection = c;
                         }
-                        connection = c;
                     } else {
                         client = RedisClusterClient.create(uriList);
                         ((RedisClusterClient) client).setOptions(ClusterClientOptions.builder().
                                 disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS).build());
-                        if (readFrom != null) {
-                            StatefulRedisClusterConnection c = ((RedisClusterClient) client).connect(new JetCacheCodec());
-                            c.setReadFrom(readFrom);
-                            connection = c;
-                        }
                     }
                 }
             }
@@ -111,7 +122,30 @@ public class RedisLettuceAutoConfiguration {
             ExternalCacheBuilder externalCacheBuilder = RedisLettuceCacheBuilder.createRedisLettuceCacheBuilder()
                     .connection(connection)
                     .redisClient(client)
-                    .asyncResultTimeoutInMillis(asyncResultTimeoutInMillis);
+                    .asyncResultTimeoutInMillis(asyncResultTimeoutInMillis)
+                    .putAllFlushSize(putAllFlushSize)
+                    .connectionCount(connectionCount)
+                    .bulkKeyThreshold(bulkKeyThreshold)
+                    .readFrom(readFrom)
+                    .readConnection(readConnection);
+            String decodeThreshold = ct.getProperty("decodeThreshold");
+            if (decodeThreshold != null) {
+                // the responses reaching the threshold are decoded in a bounded executor instead of the event loop,
+                // the shared one unless the area configures its own
+                String decodeThreads = ct.getProperty("decodeThreads");
+                String decodeQueueSize = ct.getProperty("decodeQueueSize");
+                RedisLettuceCacheBuilder lettuceCacheBuilder = (RedisLettuceCacheBuilder) externalCacheBuilder;
+                if (decodeThreads != null || decodeQueueSize != null) {
+                    int threads = decodeThreads == null ? JetCacheExecutor.DECODE_THREADS
+                            : Integer.parseInt(decodeThreads.trim());
+                    int queueSize = decodeQueueSize == null ? JetCacheExecutor.DECODE_QUEUE_SIZE
+                            : Integer.parseInt(decodeQueueSize.trim());
+                    lettuceCacheBuilder.setDecodeExecutor(JetCacheExecutor.newDecodeExecutor(threads, queueSize));
+                } else {
+                    lettuceCacheBuilder.setDecodeExecutor(JetCacheExecutor.decodeExecutor());
+                }
+                lettuceCacheBuilder.setDecodeThreshold(Integer.parseInt(decodeThreshold.trim()));
+            }
             parseGeneralConfig(externalCacheBuilder, ct);
 
             // eg: "remote.default.client"
@@ -122,6 +156,9 @@ public class RedisLettuceAutoConfiguration {
             autoConfigureBeans.getCustomContainer().put(cacheAreaWithPrefix + ".commands", m.commands(client));
             autoConfigureBeans.getCustomContainer().put(cacheAreaWithPrefix + ".asyncCommands", m.asyncCommands(client));
             autoConfigureBeans.getCustomContainer().put(cacheAreaWithPrefix + ".reactiveCommands", m.reactiveCommands(client));
+            if (readConnection != null) {
+                autoConfigureBeans.getCustomContainer().put(cacheAreaWithPrefix + ".readConnection", readConnection);
+            }
             return externalCacheBuilder;
         }
     }
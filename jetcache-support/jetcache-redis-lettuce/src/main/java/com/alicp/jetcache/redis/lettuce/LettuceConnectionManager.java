@@ -3,6 +3,7 @@ package com.alicp.jetcache.redis.lettuce;
 import com.alicp.jetcache.CacheConfigException;
 import com.alicp.jetcache.CacheException;
 import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.ReadFrom;
 import io.lettuce.core.RedisClient;
 import io.lettuce.core.api.StatefulConnection;
 import io.lettuce.core.api.StatefulRedisConnection;
@@ -12,6 +13,7 @@ import io.lettuce.core.sentinel.api.StatefulRedisSentinelConnection;
 
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.WeakHashMap;
 
@@ -27,6 +29,11 @@ public class LettuceConnectionManager {
         private Object commands;
         private Object asyncCommands;
         private Object reactiveCommands;
+        private StatefulConnection bulkConnection;
+        private Object bulkAsyncCommands;
+        private LettuceConnectionPool connectionPool;
+        private Map<ReadFrom, StatefulConnection> readConnections;
+        private Map<ReadFrom, Object> readAsyncCommands;
     }
 
     private static final LettuceConnectionManager defaultManager = new LettuceConnectionManager();
@@ -59,17 +66,33 @@ public class LettuceConnectionManager {
     public StatefulConnection connection(AbstractRedisClient redisClient) {
         LettuceObjects lo = getLettuceObjectsFromMap(redisClient);
         if (lo.connection == null) {
-            if (redisClient instanceof RedisClient) {
-                lo.connection = ((RedisClient) redisClient).connect(new JetCacheCodec());
-            } else if (redisClient instanceof RedisClusterClient) {
-                lo.connection = ((RedisClusterClient) redisClient).connect(new JetCacheCodec());
-            } else {
-                throw new CacheConfigException("type " + redisClient.getClass() + " is not supported");
-            }
+            lo.connection = newConnection(redisClient);
         }
         return lo.connection;
     }
 
+    private StatefulConnection newConnection(AbstractRedisClient redisClient) {
+        if (redisClient instanceof RedisClient) {
+            return ((RedisClient) redisClient).connect(new JetCacheCodec());
+        } else if (redisClient instanceof RedisClusterClient) {
+            return ((RedisClusterClient) redisClient).connect(new JetCacheCodec());
+        } else {
+            throw new CacheConfigException("type " + redisClient.getClass() + " is not supported");
+        }
+    }
+
+    Object asyncCommandsOf(StatefulConnection connection) {
+        if (connection instanceof StatefulRedisConnection) {
+            return ((StatefulRedisConnection) connection).async();
+        } else if (connection instanceof StatefulRedisClusterConnection) {
+            return ((StatefulRedisClusterConnection) connection).async();
+        } else if (connection instanceof StatefulRedisSentinelConnection) {
+            return ((StatefulRedisSentinelConnection) connection).async();
+        } else {
+            throw new CacheConfigException("type " + connection.getClass() + " is not supported");
+        }
+    }
+
     public Object commands(AbstractRedisClient redisClient) {
         connection(redisClient);
         LettuceObjects lo = getLettuceObjectsFromMap(redisClient);
@@ -92,19 +115,95 @@ public class LettuceConnectionManager {
         connection(redisClient);
         LettuceObjects lo = getLettuceObjectsFromMap(redisClient);
         if (lo.asyncCommands == null) {
-            if (lo.connection instanceof StatefulRedisConnection) {
-                lo.asyncCommands = ((StatefulRedisConnection) lo.connection).async();
-            } else if (lo.connection instanceof StatefulRedisClusterConnection) {
-                lo.asyncCommands = ((StatefulRedisClusterConnection) lo.connection).async();
-            } else if (lo.connection instanceof StatefulRedisSentinelConnection) {
-                lo.asyncCommands = ((StatefulRedisSentinelConnection) lo.connection).async();
-            } else {
-                throw new CacheConfigException("type " + lo.connection.getClass() + " is not supported");
-            }
+            lo.asyncCommands = asyncCommandsOf(lo.connection);
         }
         return lo.asyncCommands;
     }
 
+    /**
+     * The connections for the commands of the caches on the client, the first one is connection(redisClient).
+     * The pool is created by the first caller, the size of the later callers is ignored.
+     * @param size the connection count, only 1 connection is used if the client can't create new connections
+     */
+    public LettuceConnectionPool connectionPool(AbstractRedisClient redisClient, int size) {
+        Object primaryAsyncCommands = asyncCommands(redisClient);
+        LettuceObjects lo = getLettuceObjectsFromMap(redisClient);
+        synchronized (lo) {
+            if (lo.connectionPool == null) {
+                int n = Math.max(1, size);
+                StatefulConnection[] connections = new StatefulConnection[n];
+                Object[] commands = new Object[n];
+                connections[0] = lo.connection;
+                commands[0] = primaryAsyncCommands;
+                for (int i = 1; i < n; i++) {
+                    connections[i] = newConnection(redisClient);
+                    commands[i] = asyncCommandsOf(connections[i]);
+                }
+                lo.connectionPool = new LettuceConnectionPool(connections, commands);
+            }
+            return lo.connectionPool;
+        }
+    }
+
+    /**
+     * A dedicated connection for the bulk writes, its commands are not flushed automatically. The caller queues
+     * the commands and calls flushCommands() on the connection.
+     */
+    public StatefulConnection bulkConnection(AbstractRedisClient redisClient) {
+        LettuceObjects lo = getLettuceObjectsFromMap(redisClient);
+        synchronized (lo) {
+            if (lo.bulkConnection == null) {
+                StatefulConnection c = newConnection(redisClient);
+                c.setAutoFlushCommands(false);
+                lo.bulkConnection = c;
+            }
+            return lo.bulkConnection;
+        }
+    }
+
+    public Object bulkAsyncCommands(AbstractRedisClient redisClient) {
+        StatefulConnection c = bulkConnection(redisClient);
+        LettuceObjects lo = getLettuceObjectsFromMap(redisClient);
+        synchronized (lo) {
+            if (lo.bulkAsyncCommands == null) {
+                lo.bulkAsyncCommands = asyncCommandsOf(c);
+            }
+            return lo.bulkAsyncCommands;
+        }
+    }
+
+    /**
+     * A connection of a RedisClusterClient which sends the read commands to the nodes chosen by the readFrom.
+     * The other connections of the client read from the masters. A master/slave RedisClient has no uri to
+     * create another connection, so its read connection should be given to the cache.
+     */
+    public StatefulConnection readConnection(AbstractRedisClient redisClient, ReadFrom readFrom) {
+        if (!(redisClient instanceof RedisClusterClient)) {
+            throw new CacheConfigException("can't create the read connection of " + redisClient.getClass()
+                    + ", please set readConnection");
+        }
+        LettuceObjects lo = getLettuceObjectsFromMap(redisClient);
+        synchronized (lo) {
+            if (lo.readConnections == null) {
+                lo.readConnections = new HashMap<>();
+                lo.readAsyncCommands = new HashMap<>();
+            }
+            return lo.readConnections.computeIfAbsent(readFrom, k -> {
+                StatefulRedisClusterConnection c = ((RedisClusterClient) redisClient).connect(new JetCacheCodec());
+                c.setReadFrom(readFrom);
+                return c;
+            });
+        }
+    }
+
+    public Object readAsyncCommands(AbstractRedisClient redisClient, ReadFrom readFrom) {
+        StatefulConnection c = readConnection(redisClient, readFrom);
+        LettuceObjects lo = getLettuceObjectsFromMap(redisClient);
+        synchronized (lo) {
+            return lo.readAsyncCommands.computeIfAbsent(readFrom, k -> asyncCommandsOf(c));
+        }
+    }
+
     public Object reactiveCommands(AbstractRedisClient redisClient) {
         connection(redisClient);
         LettuceObjects lo = getLettuceObjectsFromMap(redisClient);
@@ -141,6 +240,15 @@ public class LettuceConnectionManager {
         if (lo.connection != null) {
             lo.connection.close();
         }
+        if (lo.bulkConnection != null) {
+            lo.bulkConnection.close();
+        }
+        if (lo.connectionPool != null) {
+            lo.connectionPool.close();
+        }
+        if (lo.readConnections != null) {
+            lo.readConnections.values().forEach(StatefulConnection::close);
+        }
         redisClient.shutdown();
     }
 }
@@ -0,0 +1,57 @@
+package com.alicp.jetcache.redis.lettuce;
+
+import io.lettuce.core.api.StatefulConnection;
+
+import java.util.Arrays;
+
+/**
+ * The connections of a redis client which are shared by its caches. The first connection is the one returned
+ * by LettuceConnectionManager.connection(). A command of a key is always sent by the connection chosen by the
+ * hash of the key, so the commands of the same key run in the order they are sent, as with a single connection.
+ *
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class LettuceConnectionPool {
+
+    private final StatefulConnection[] connections;
+    private final Object[] asyncCommands;
+
+    LettuceConnectionPool(StatefulConnection[] connections, Object[] asyncCommands) {
+        this.connections = connections;
+        this.asyncCommands = asyncCommands;
+    }
+
+    public int size() {
+        return connections.length;
+    }
+
+    /**
+     * @return the index of the connection of the key
+     */
+    public int select(byte[] key) {
+        int len = connections.length;
+        if (len == 1) {
+            return 0;
+        }
+        int h = Arrays.hashCode(key);
+        h ^= (h >>> 16);
+        return (h & Integer.MAX_VALUE) % len;
+    }
+
+    /**
+     * The async commands of the connection at the index, a RedisAsyncCommands or a
+     * RedisAdvancedClusterAsyncCommands.
+     */
+    public Object asyncCommands(int index) {
+        return asyncCommands[index];
+    }
+
+    void close() {
+        // the first connection is closed by LettuceConnectionManager
+        for (int i = 1; i < connections.length; i++) {
+            connections[i].close();
+        }
+    }
+}
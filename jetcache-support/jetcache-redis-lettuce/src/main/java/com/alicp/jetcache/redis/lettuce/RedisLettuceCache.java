@@ -2,14 +2,16 @@ package com.alicp.jetcache.redis.lettuce;
 
 import com.alicp.jetcache.*;
 import com.alicp.jetcache.external.AbstractExternalCache;
+import com.alicp.jetcache.support.JetCacheClock;
 import com.alicp.jetcache.support.JetCacheExecutor;
 import io.lettuce.core.AbstractRedisClient;
 import io.lettuce.core.KeyValue;
 import io.lettuce.core.RedisFuture;
 import io.lettuce.core.SetArgs;
-import io.lettuce.core.api.async.RedisKeyAsyncCommands;
+import io.lettuce.core.api.StatefulConnection;
 import io.lettuce.core.api.async.RedisStringAsyncCommands;
 import io.lettuce.core.api.sync.RedisStringCommands;
+import io.lettuce.core.cluster.RedisClusterClient;
 import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
 import io.lettuce.core.cluster.api.reactive.RedisClusterReactiveCommands;
 import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
@@ -18,8 +20,14 @@ import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 /**
  * Created on 2017/4/28.
@@ -37,7 +45,12 @@ public class RedisLettuceCache<K, V> extends AbstractExternalCache<K, V> {
     private LettuceConnectionManager lettuceConnectionManager;
     private RedisStringCommands<byte[], byte[]> stringCommands;
     private RedisStringAsyncCommands<byte[], byte[]> stringAsyncCommands;
-    private RedisKeyAsyncCommands<byte[], byte[]> keyAsyncCommands;
+    private LettuceConnectionPool connectionPool;
+    // null if the bulk operations use the shared connections
+    private StatefulConnection bulkConnection;
+    private RedisClusterAsyncCommands<byte[], byte[]> bulkAsyncCommands;
+    // null if GET and GET_ALL read from the masters
+    private RedisClusterAsyncCommands<byte[], byte[]> readAsyncCommands;
 
     public RedisLettuceCache(RedisLettuceCacheConfig<K, V> config) {
         super(config);
@@ -57,7 +70,18 @@ public class RedisLettuceCache<K, V> extends AbstractExternalCache<K, V> {
         lettuceConnectionManager.init(client, config.getConnection());
         stringCommands = (RedisStringCommands<byte[], byte[]>) lettuceConnectionManager.commands(client);
         stringAsyncCommands = (RedisStringAsyncCommands<byte[], byte[]>) lettuceConnectionManager.asyncCommands(client);
-        keyAsyncCommands = (RedisKeyAsyncCommands<byte[], byte[]>) stringAsyncCommands;
+        // a RedisClient with a given connection (e.g. master/slave) may have no uri to create another connection
+        boolean canConnect = config.getConnection() == null || client instanceof RedisClusterClient;
+        connectionPool = lettuceConnectionManager.connectionPool(client, canConnect ? config.getConnectionCount() : 1);
+        if (canConnect && (config.getPutAllFlushSize() > 0 || config.getBulkKeyThreshold() > 0)) {
+            bulkConnection = lettuceConnectionManager.bulkConnection(client);
+            bulkAsyncCommands = (RedisClusterAsyncCommands<byte[], byte[]>) lettuceConnectionManager.bulkAsyncCommands(client);
+        }
+        if (config.getReadConnection() != null) {
+            readAsyncCommands = (RedisClusterAsyncCommands<byte[], byte[]>) lettuceConnectionManager.asyncCommandsOf(config.getReadConnection());
+        } else if (config.getReadFrom() != null) {
+            readAsyncCommands = (RedisClusterAsyncCommands<byte[], byte[]>) lettuceConnectionManager.readAsyncCommands(client, config.getReadFrom());
+        }
     }
 
     @Override
@@ -83,6 +107,69 @@ public class RedisLettuceCache<K, V> extends AbstractExternalCache<K, V> {
         return config;
     }
 
+    /**
+     * Send a command of the key by the connection of the key, so the commands of a key run in the order they are
+     * sent.
+     */
+    private <T> RedisFuture<T> execute(byte[] key, Function<RedisClusterAsyncCommands<byte[], byte[]>, RedisFuture<T>> command) {
+        return command.apply(commandsOf(connectionPool.select(key)));
+    }
+
+    private RedisClusterAsyncCommands<byte[], byte[]> commandsOf(int index) {
+        return (RedisClusterAsyncCommands<byte[], byte[]>) connectionPool.asyncCommands(index);
+    }
+
+    /**
+     * Send a multi-key command by the bulk connection if there are many keys, so it doesn't delay the commands
+     * of a few keys queued after it on the shared connections. Otherwise the keys are grouped by their
+     * connections and each group is sent as one command by its connection.
+     * @param command send the command of the keys by the commands
+     * @param merge merge the responses of the groups, the key indexes of each group are given with its response
+     */
+    private <T, R> CompletionStage<R> executeBulk(byte[][] keys,
+                                                  BiFunction<RedisClusterAsyncCommands<byte[], byte[]>, byte[][], RedisFuture<T>> command,
+                                                  Function<Map<int[], T>, R> merge) {
+        if (bulkConnection != null && config.getBulkKeyThreshold() > 0 && keys.length >= config.getBulkKeyThreshold()) {
+            RedisFuture<T> future;
+            try {
+                future = command.apply(bulkAsyncCommands, keys);
+            } finally {
+                bulkConnection.flushCommands();
+            }
+            int[] indexes = new int[keys.length];
+            for (int i = 0; i < indexes.length; i++) {
+                indexes[i] = i;
+            }
+            return future.thenApply(v -> merge.apply(Collections.singletonMap(indexes, v)));
+        }
+        int n = connectionPool.size();
+        List<Integer>[] groups = new List[n];
+        for (int i = 0; i < keys.length; i++) {
+            int index = connectionPool.select(keys[i]);
+            if (groups[index] == null) {
+                groups[index] = new ArrayList<>();
+            }
+            groups[index].add(i);
+        }
+        Map<int[], CompletableFuture<T>> futures = new LinkedHashMap<>();
+        for (int c = 0; c < n; c++) {
+            if (groups[c] == null) {
+                continue;
+            }
+            int[] indexes = groups[c].stream().mapToInt(Integer::intValue).toArray();
+            byte[][] groupKeys = new byte[indexes.length][];
+            for (int i = 0; i < indexes.length; i++) {
+                groupKeys[i] = keys[indexes[i]];
+            }
+            futures.put(indexes, command.apply(commandsOf(c), groupKeys).toCompletableFuture());
+        }
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).thenApply(v -> {
+            Map<int[], T> responses = new LinkedHashMap<>();
+            futures.forEach((indexes, f) -> responses.put(indexes, f.join()));
+            return merge.apply(responses);
+        });
+    }
+
     private void setTimeout(CacheResult cr) {
         Duration d = Duration.ofMillis(config.getAsyncResultTimeoutInMillis());
         cr.setTimeout(d);
@@ -93,7 +180,8 @@ public class RedisLettuceCache<K, V> extends AbstractExternalCache<K, V> {
         try {
             CacheValueHolder<V> holder = new CacheValueHolder(value, timeUnit.toMillis(expireAfterWrite));
             byte[] newKey = buildKey(key);
-            RedisFuture<String> future = stringAsyncCommands.psetex(newKey, timeUnit.toMillis(expireAfterWrite), valueEncoder.apply(holder));
+            byte[] newValue = valueEncoder.apply(holder);
+            RedisFuture<String> future = execute(newKey, c -> c.psetex(newKey, timeUnit.toMillis(expireAfterWrite), newValue));
             CacheResult result = new CacheResult(future.handle((rt, ex) -> {
                 if (ex != null) {
                     JetCacheExecutor.defaultExecutor().execute(() -> logError("PUT", key, ex));
@@ -116,11 +204,16 @@ public class RedisLettuceCache<K, V> extends AbstractExternalCache<K, V> {
 
     @Override
     protected CacheResult do_PUT_ALL(Map<? extends K, ? extends V> map, long expireAfterWrite, TimeUnit timeUnit) {
+        if (bulkConnection != null && config.getPutAllFlushSize() > 0 && !map.isEmpty()) {
+            return putAllBatched(map, expireAfterWrite, timeUnit);
+        }
         try {
             CompletionStage<Integer> future = CompletableFuture.completedFuture(0);
             for (Map.Entry<? extends K, ? extends V> en : map.entrySet()) {
                 CacheValueHolder<V> holder = new CacheValueHolder(en.getValue(), timeUnit.toMillis(expireAfterWrite));
-                RedisFuture<String> resp = stringAsyncCommands.psetex(buildKey(en.getKey()), timeUnit.toMillis(expireAfterWrite), valueEncoder.apply(holder));
+                byte[] newKey = buildKey(en.getKey());
+                byte[] newValue = valueEncoder.apply(holder);
+                RedisFuture<String> resp = execute(newKey, c -> c.psetex(newKey, timeUnit.toMillis(expireAfterWrite), newValue));
                 future = future.thenCombine(resp, (failCount, respStr) -> "OK".equals(respStr) ? failCount : failCount + 1);
             }
             CacheResult result = new CacheResult(future.handle((failCount, ex) -> {
@@ -145,19 +238,161 @@ public class RedisLettuceCache<K, V> extends AbstractExternalCache<K, V> {
         }
     }
 
+    /**
+     * Queue the psetex commands on the bulk connection and flush them every putAllFlushSize commands. The
+     * responses are counted down instead of chaining a future for each entry.
+     */
+    private CacheResult putAllBatched(Map<? extends K, ? extends V> map, long expireAfterWrite, TimeUnit timeUnit) {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(map.size());
+        AtomicInteger failCount = new AtomicInteger();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        int flushSize = config.getPutAllFlushSize();
+        long millis = timeUnit.toMillis(expireAfterWrite);
+        int count = 0;
+        try {
+            for (Map.Entry<? extends K, ? extends V> en : map.entrySet()) {
+                CacheValueHolder<V> holder = new CacheValueHolder(en.getValue(), millis);
+                RedisFuture<String> resp = bulkAsyncCommands.psetex(buildKey(en.getKey()), millis, valueEncoder.apply(holder));
+                resp.whenComplete((rt, ex) -> {
+                    if (ex != null) {
+                        error.compareAndSet(null, ex);
+                    } else if (!"OK".equals(rt)) {
+                        failCount.incrementAndGet();
+                    }
+                    if (pending.decrementAndGet() == 0) {
+                        if (error.get() != null) {
+                            future.completeExceptionally(error.get());
+                        } else {
+                            future.complete(failCount.get());
+                        }
+                    }
+                });
+                if (++count % flushSize == 0) {
+                    bulkConnection.flushCommands();
+                }
+            }
+        } catch (Exception ex) {
+            logError("PUT_ALL", "map(" + map.size() + ")", ex);
+            return new CacheResult(ex);
+        } finally {
+            // the queued commands are sent even if the encoding of an entry fails
+            bulkConnection.flushCommands();
+        }
+        CacheResult result = new CacheResult(future.handle((fails, ex) -> {
+            if (ex != null) {
+                JetCacheExecutor.defaultExecutor().execute(() -> logError("PUT_ALL", "map(" + map.size() + ")", ex));
+                return new ResultData(ex);
+            } else if (fails == 0) {
+                return new ResultData(CacheResultCode.SUCCESS, null, null);
+            } else if (fails == map.size()) {
+                return new ResultData(CacheResultCode.FAIL, null, null);
+            } else {
+                return new ResultData(CacheResultCode.PART_SUCCESS, null, null);
+            }
+        }));
+        setTimeout(result);
+        return result;
+    }
+
+    /**
+     * Handle the response by the function which decodes the values. The function runs in the decode executor
+     * if the total length of the values reaches the decode threshold, so the event loop of lettuce is not
+     * blocked by the deserialization of large values.
+     */
+    private <T> CompletionStage<ResultData> decode(CompletionStage<T> future, ToIntFunction<T> lengthFunction,
+                                                   BiFunction<T, Throwable, ResultData> function) {
+        Executor executor = config.getDecodeExecutor();
+        if (executor == null) {
+            return future.handle(function);
+        }
+        CompletableFuture<ResultData> result = new CompletableFuture<>();
+        future.whenComplete((v, ex) -> {
+            if (ex != null || lengthFunction.applyAsInt(v) < config.getDecodeThreshold()) {
+                complete(result, function, v, ex);
+                return;
+            }
+            try {
+                executor.execute(() -> complete(result, function, v, ex));
+            } catch (RejectedExecutionException e) {
+                complete(result, function, v, ex);
+            }
+        });
+        return result;
+    }
+
+    private static <T> void complete(CompletableFuture<ResultData> result, BiFunction<T, Throwable, ResultData> function,
+                                     T value, Throwable ex) {
+        try {
+            result.complete(function.apply(value, ex));
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private static List<KeyValue<byte[], byte[]>> mergeValues(Map<int[], List<KeyValue<byte[], byte[]>>> responses) {
+        if (responses.size() == 1) {
+            return responses.values().iterator().next();
+        }
+        int size = 0;
+        for (int[] indexes : responses.keySet()) {
+            size += indexes.length;
+        }
+        KeyValue<byte[], byte[]>[] values = new KeyValue[size];
+        responses.forEach((indexes, list) -> {
+            for (int i = 0; i < indexes.length; i++) {
+                values[indexes[i]] = list.get(i);
+            }
+        });
+        return Arrays.asList(values);
+    }
+
+    private static Long sum(Map<int[], Long> responses) {
+        long sum = 0;
+        for (Long v : responses.values()) {
+            sum += v == null ? 0 : v;
+        }
+        return sum;
+    }
+
+    private static int totalLength(List<KeyValue<byte[], byte[]>> list) {
+        int length = 0;
+        for (KeyValue<byte[], byte[]> kv : list) {
+            if (kv != null && kv.hasValue()) {
+                length += kv.getValue().length;
+            }
+        }
+        return length;
+    }
+
     @Override
     protected CacheGetResult<V> do_GET(K key) {
+        return get(key, null, false);
+    }
+
+    @Override
+    protected CacheGetResult<V> do_GET(K key, byte[] newKey) {
+        return get(key, newKey, false);
+    }
+
+    @Override
+    protected CacheGetResult<V> do_GET_FROM_MASTER(K key) {
+        return get(key, null, true);
+    }
+
+    private CacheGetResult<V> get(K key, byte[] builtKey, boolean fromMaster) {
         try {
-            byte[] newKey = buildKey(key);
-            RedisFuture<byte[]> future = stringAsyncCommands.get(newKey);
-            CacheGetResult result = new CacheGetResult(future.handle((valueBytes, ex) -> {
+            byte[] newKey = builtKey != null ? builtKey : buildKey(key);
+            RedisFuture<byte[]> future = fromMaster || readAsyncCommands == null ?
+                    execute(newKey, c -> c.get(newKey)) : readAsyncCommands.get(newKey);
+            CacheGetResult result = new CacheGetResult(decode(future, (valueBytes) -> valueBytes == null ? 0 : valueBytes.length, (valueBytes, ex) -> {
                 if (ex != null) {
                     JetCacheExecutor.defaultExecutor().execute(() -> logError("GET", key, ex));
                     return new ResultData(ex);
                 } else {
                     if (valueBytes != null) {
                         CacheValueHolder<V> holder = (CacheValueHolder<V>) valueDecoder.apply(valueBytes);
-                        if (System.currentTimeMillis() >= holder.getExpireTime()) {
+                        if (JetCacheClock.currentTimeMillis() >= holder.getExpireTime()) {
                             return new ResultData(CacheResultCode.EXPIRED, null, null);
                         } else {
                             return new ResultData(CacheResultCode.SUCCESS, null, holder);
@@ -185,8 +420,10 @@ public class RedisLettuceCache<K, V> extends AbstractExternalCache<K, V> {
             if (newKeys.length == 0) {
                 return new MultiGetResult<K, V>(CacheResultCode.SUCCESS, null, resultMap);
             }
-            RedisFuture<List<KeyValue<byte[],byte[]>>> mgetResults = stringAsyncCommands.mget(newKeys);
-            MultiGetResult result = new MultiGetResult<K, V>(mgetResults.handle((list, ex) -> {
+            CompletionStage<List<KeyValue<byte[],byte[]>>> mgetResults = readAsyncCommands == null ?
+                    executeBulk(newKeys, (c, groupKeys) -> c.mget(groupKeys), RedisLettuceCache::mergeValues) :
+                    readAsyncCommands.mget(newKeys);
+            MultiGetResult result = new MultiGetResult<K, V>(decode(mgetResults, RedisLettuceCache::totalLength, (list, ex) -> {
                 if (ex != null) {
                     JetCacheExecutor.defaultExecutor().execute(() -> logError("GET_ALL", "keys(" + keys.size() + ")", ex));
                     return new ResultData(ex);
@@ -196,7 +433,7 @@ public class RedisLettuceCache<K, V> extends AbstractExternalCache<K, V> {
                         K key = keyList.get(i);
                         if (kv != null && kv.hasValue()) {
                             CacheValueHolder<V> holder = (CacheValueHolder<V>) valueDecoder.apply((byte[]) kv.getValue());
-                            if (System.currentTimeMillis() >= holder.getExpireTime()) {
+                            if (JetCacheClock.currentTimeMillis() >= holder.getExpireTime()) {
                                 resultMap.put(key, CacheGetResult.EXPIRED_WITHOUT_MSG);
                             } else {
                                 CacheGetResult<V> r = new CacheGetResult<V>(CacheResultCode.SUCCESS, null, holder);
@@ -220,7 +457,8 @@ public class RedisLettuceCache<K, V> extends AbstractExternalCache<K, V> {
     @Override
     protected CacheResult do_REMOVE(K key) {
         try {
-            RedisFuture<Long> future = keyAsyncCommands.del(buildKey(key));
+            byte[] newKey = buildKey(key);
+            RedisFuture<Long> future = execute(newKey, c -> c.del(newKey));
             CacheResult result = new CacheResult(future.handle((rt, ex) -> {
                 if (ex != null) {
                     JetCacheExecutor.defaultExecutor().execute(() -> logError("REMOVE", key, ex));
@@ -249,7 +487,7 @@ public class RedisLettuceCache<K, V> extends AbstractExternalCache<K, V> {
     protected CacheResult do_REMOVE_ALL(Set<? extends K> keys) {
         try {
             byte[][] newKeys = keys.stream().map((k) -> buildKey(k)).toArray((len) -> new byte[keys.size()][]);
-            RedisFuture<Long> future = keyAsyncCommands.del(newKeys);
+            CompletionStage<Long> future = executeBulk(newKeys, (c, groupKeys) -> c.del(groupKeys), RedisLettuceCache::sum);
             CacheResult result = new CacheResult(future.handle((v, ex) -> {
                 if (ex != null) {
                     JetCacheExecutor.defaultExecutor().execute(() -> logError("REMOVE_ALL", "keys(" + keys.size() + ")", ex));
@@ -271,7 +509,8 @@ public class RedisLettuceCache<K, V> extends AbstractExternalCache<K, V> {
         try {
             CacheValueHolder<V> holder = new CacheValueHolder(value, timeUnit.toMillis(expireAfterWrite));
             byte[] newKey = buildKey(key);
-            RedisFuture<String> future = stringAsyncCommands.set(newKey, valueEncoder.apply(holder), SetArgs.Builder.nx().px(timeUnit.toMillis(expireAfterWrite)));
+            byte[] newValue = valueEncoder.apply(holder);
+            RedisFuture<String> future = execute(newKey, c -> c.set(newKey, newValue, SetArgs.Builder.nx().px(timeUnit.toMillis(expireAfterWrite))));
             CacheResult result = new CacheResult(future.handle((rt, ex) -> {
                 if (ex != null) {
                     JetCacheExecutor.defaultExecutor().execute(() -> logError("PUT_IF_ABSENT", key, ex));
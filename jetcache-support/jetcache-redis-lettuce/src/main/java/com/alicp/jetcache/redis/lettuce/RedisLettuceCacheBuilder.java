@@ -2,8 +2,11 @@ package com.alicp.jetcache.redis.lettuce;
 
 import com.alicp.jetcache.external.ExternalCacheBuilder;
 import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.ReadFrom;
 import io.lettuce.core.api.StatefulConnection;
 
+import java.util.concurrent.Executor;
+
 /**
  * Created on 2017/4/28.
  *
@@ -55,4 +58,67 @@ public class RedisLettuceCacheBuilder<T extends ExternalCacheBuilder<T>> extends
     public void setAsyncResultTimeoutInMillis(long asyncResultTimeoutInMillis) {
         getConfig().setAsyncResultTimeoutInMillis(asyncResultTimeoutInMillis);
     }
+
+    public T putAllFlushSize(int putAllFlushSize) {
+        getConfig().setPutAllFlushSize(putAllFlushSize);
+        return self();
+    }
+
+    public void setPutAllFlushSize(int putAllFlushSize) {
+        getConfig().setPutAllFlushSize(putAllFlushSize);
+    }
+
+    public T decodeExecutor(Executor decodeExecutor) {
+        getConfig().setDecodeExecutor(decodeExecutor);
+        return self();
+    }
+
+    public void setDecodeExecutor(Executor decodeExecutor) {
+        getConfig().setDecodeExecutor(decodeExecutor);
+    }
+
+    public T decodeThreshold(int decodeThreshold) {
+        getConfig().setDecodeThreshold(decodeThreshold);
+        return self();
+    }
+
+    public void setDecodeThreshold(int decodeThreshold) {
+        getConfig().setDecodeThreshold(decodeThreshold);
+    }
+
+    public T connectionCount(int connectionCount) {
+        getConfig().setConnectionCount(connectionCount);
+        return self();
+    }
+
+    public void setConnectionCount(int connectionCount) {
+        getConfig().setConnectionCount(connectionCount);
+    }
+
+    public T bulkKeyThreshold(int bulkKeyThreshold) {
+        getConfig().setBulkKeyThreshold(bulkKeyThreshold);
+        return self();
+    }
+
+    public void setBulkKeyThreshold(int bulkKeyThreshold) {
+        getConfig().setBulkKeyThreshold(bulkKeyThreshold);
+    }
+
+    public T readFrom(ReadFrom readFrom) {
+        getConfig().setReadFrom(readFrom);
+        return self();
+    }
+
+    public void setReadFrom(ReadFrom readFrom) {
+        getConfig().setReadFrom(readFrom);
+    }
+
+    public T readConnection(StatefulConnection readConnection) {
+        getConfig().setReadConnection(readConnection);
+        return self();
+    }
+
+    public void setReadConnection(StatefulConnection readConnection) {
+        getConfig().setReadConnection(readConnection);
+    }
 }
@@ -3,8 +3,11 @@ package com.alicp.jetcache.redis.lettuce;
 import com.alicp.jetcache.anno.CacheConsts;
 import com.alicp.jetcache.external.ExternalCacheConfig;
 import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.ReadFrom;
 import io.lettuce.core.api.StatefulConnection;
 
+import java.util.concurrent.Executor;
+
 /**
  * Created on 2017/4/28.
  *
@@ -12,12 +15,29 @@ import io.lettuce.core.api.StatefulConnection;
  */
 public class RedisLettuceCacheConfig<K, V> extends ExternalCacheConfig<K, V> {
 
+    public static final int DEFAULT_PUT_ALL_FLUSH_SIZE = 0;
+    public static final int DEFAULT_BULK_KEY_THRESHOLD = 0;
+
     private AbstractRedisClient redisClient;
 
     private StatefulConnection connection;
 
     private long asyncResultTimeoutInMillis = CacheConsts.ASYNC_RESULT_TIMEOUT.toMillis();
 
+    private int putAllFlushSize = DEFAULT_PUT_ALL_FLUSH_SIZE;
+
+    private Executor decodeExecutor;
+
+    private int decodeThreshold;
+
+    private int connectionCount = 1;
+
+    private int bulkKeyThreshold = DEFAULT_BULK_KEY_THRESHOLD;
+
+    private ReadFrom readFrom;
+
+    private StatefulConnection readConnection;
+
     public AbstractRedisClient getRedisClient() {
         return redisClient;
     }
@@ -41,4 +61,94 @@ public class RedisLettuceCacheConfig<K, V> extends ExternalCacheConfig<K, V> {
     public void setAsyncResultTimeoutInMillis(long asyncResultTimeoutInMillis) {
         this.asyncResultTimeoutInMillis = asyncResultTimeoutInMillis;
     }
+
+    /**
+     * @return the command count of a flush when PUT_ALL writes to the dedicated bulk connection, 0 (the default)
+     * means PUT_ALL uses the shared connections. The bulk connection is not ordered with the shared connections,
+     * so a command sent before the PUT_ALL result completes, such as a GET of a put key, may run before the
+     * writes. Wait for the PUT_ALL result before reading the keys if it's enabled. The bulk connection is not
+     * used if a connection is given for a RedisClient.
+     */
+    public int getPutAllFlushSize() {
+        return putAllFlushSize;
+    }
+
+    public void setPutAllFlushSize(int putAllFlushSize) {
+        this.putAllFlushSize = putAllFlushSize;
+    }
+
+    /**
+     * @return the executor to decode the values of GET and GET_ALL, null means they are decoded in the event loop
+     * of lettuce. It should be bounded, a response rejected by it with RejectedExecutionException is decoded in the
+     * event loop, see JetCacheExecutor.decodeExecutor()
+     */
+    public Executor getDecodeExecutor() {
+        return decodeExecutor;
+    }
+
+    public void setDecodeExecutor(Executor decodeExecutor) {
+        this.decodeExecutor = decodeExecutor;
+    }
+
+    /**
+     * @return the min total bytes of a response which is decoded in the decode executor, the smaller responses
+     * are decoded in the event loop
+     */
+    public int getDecodeThreshold() {
+        return decodeThreshold;
+    }
+
+    public void setDecodeThreshold(int decodeThreshold) {
+        this.decodeThreshold = decodeThreshold;
+    }
+
+    /**
+     * @return the connection count of the client, the connections are shared by the caches on the same client
+     * and created by the first cache. The connection of a command is chosen by the hash of its key, a multi-key
+     * command is split by the connections of the keys, so the commands of a key keep their order.
+     */
+    public int getConnectionCount() {
+        return connectionCount;
+    }
+
+    public void setConnectionCount(int connectionCount) {
+        this.connectionCount = connectionCount;
+    }
+
+    /**
+     * @return the min key count of a GET_ALL or REMOVE_ALL which is sent by the bulk connection, 0 (the default)
+     * means they always use the shared connections. The bulk connection is not ordered with the shared
+     * connections, so a bulk GET_ALL may not see a write sent just before it if it's enabled.
+     */
+    public int getBulkKeyThreshold() {
+        return bulkKeyThreshold;
+    }
+
+    public void setBulkKeyThreshold(int bulkKeyThreshold) {
+        this.bulkKeyThreshold = bulkKeyThreshold;
+    }
+
+    /**
+     * @return the nodes which GET and GET_ALL read from, null means the masters. The writes, the locks and the
+     * refresh timestamps always use the masters.
+     */
+    public ReadFrom getReadFrom() {
+        return readFrom;
+    }
+
+    public void setReadFrom(ReadFrom readFrom) {
+        this.readFrom = readFrom;
+    }
+
+    /**
+     * @return the connection for GET and GET_ALL with its own ReadFrom, it's required to read from the replicas
+     * of a master/slave RedisClient. A RedisClusterClient creates the read connection by readFrom if it's null.
+     */
+    public StatefulConnection getReadConnection() {
+        return readConnection;
+    }
+
+    public void setReadConnection(StatefulConnection readConnection) {
+        this.readConnection = readConnection;
+    }
 }
@@ -0,0 +1,105 @@
+package com.alicp.jetcache.redis.lettuce;
+
+import io.lettuce.core.ReadFrom;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.models.role.RedisInstance;
+import io.lettuce.core.models.role.RedisNodeDescription;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Read from the replicas by weights, like the slaveReadWeights of the jedis RedisCache. Each read picks a
+ * replica randomly in proportion to its weight, the other replicas and then the master are the fallbacks.
+ * A replica with the weight 0 is not used.
+ *
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class WeightedReadFrom extends ReadFrom {
+
+    public static final int DEFAULT_WEIGHT = 100;
+
+    // key is "host:port"
+    private final Map<String, Integer> weights;
+    private final int defaultWeight;
+
+    /**
+     * @param weights the weights of the replicas, the key is "host:port"
+     * @param defaultWeight the weight of the replicas not in the weights
+     */
+    public WeightedReadFrom(Map<String, Integer> weights, int defaultWeight) {
+        this.weights = new HashMap<>(weights);
+        this.defaultWeight = defaultWeight;
+    }
+
+    public WeightedReadFrom(Map<String, Integer> weights) {
+        this(weights, DEFAULT_WEIGHT);
+    }
+
+    /**
+     * Parse the weights like "127.0.0.1:6380=2,127.0.0.1:6381=1".
+     */
+    public static WeightedReadFrom parse(String weights) {
+        Map<String, Integer> map = new HashMap<>();
+        for (String s : weights.split(",")) {
+            s = s.trim();
+            if (s.isEmpty()) {
+                continue;
+            }
+            int index = s.lastIndexOf('=');
+            if (index <= 0) {
+                throw new IllegalArgumentException("illegal read weight: " + s);
+            }
+            map.put(s.substring(0, index).trim(), Integer.parseInt(s.substring(index + 1).trim()));
+        }
+        return new WeightedReadFrom(map);
+    }
+
+    int weight(RedisNodeDescription node) {
+        RedisURI uri = node.getUri();
+        Integer w = weights.get(uri.getHost() + ":" + uri.getPort());
+        return w == null ? defaultWeight : w;
+    }
+
+    @Override
+    public List<RedisNodeDescription> select(Nodes nodes) {
+        List<RedisNodeDescription> replicas = new ArrayList<>();
+        List<RedisNodeDescription> masters = new ArrayList<>();
+        int total = 0;
+        for (RedisNodeDescription node : nodes.getNodes()) {
+            if (node.getRole() == RedisInstance.Role.MASTER) {
+                masters.add(node);
+            } else {
+                int w = weight(node);
+                if (w > 0) {
+                    replicas.add(node);
+                    total += w;
+                }
+            }
+        }
+        if (replicas.size() > 1) {
+            // move the chosen replica to the head, lettuce reads from the first available node
+            int r = ThreadLocalRandom.current().nextInt(total);
+            for (int i = 0; i < replicas.size(); i++) {
+                r -= weight(replicas.get(i));
+                if (r < 0) {
+                    Collections.swap(replicas, 0, i);
+                    break;
+                }
+            }
+        }
+        replicas.addAll(masters);
+        return replicas;
+    }
+
+    @Override
+    public String toString() {
+        return "WeightedReadFrom" + weights;
+    }
+}
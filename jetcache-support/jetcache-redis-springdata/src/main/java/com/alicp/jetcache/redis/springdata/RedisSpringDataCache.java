@@ -2,6 +2,7 @@ package com.alicp.jetcache.redis.springdata;
 
 import com.alicp.jetcache.*;
 import com.alicp.jetcache.external.AbstractExternalCache;
+import com.alicp.jetcache.support.JetCacheClock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.redis.RedisConnectionFailureException;
@@ -52,14 +53,18 @@ public class RedisSpringDataCache<K, V> extends AbstractExternalCache<K, V> {
 
     @Override
     protected CacheGetResult<V> do_GET(K key) {
+        return do_GET(key, buildKey(key));
+    }
+
+    @Override
+    protected CacheGetResult<V> do_GET(K key, byte[] newKey) {
         RedisConnection con = null;
         try {
             con = connectionFactory.getConnection();
-            byte[] newKey = buildKey(key);
             byte[] resultBytes = con.get(newKey);
             if (resultBytes != null) {
                 CacheValueHolder<V> holder = (CacheValueHolder<V>) valueDecoder.apply((byte[]) resultBytes);
-                if (System.currentTimeMillis() >= holder.getExpireTime()) {
+                if (JetCacheClock.currentTimeMillis() >= holder.getExpireTime()) {
                     return CacheGetResult.EXPIRED_WITHOUT_MSG;
                 }
                 return new CacheGetResult(CacheResultCode.SUCCESS, null, holder);
@@ -91,7 +96,7 @@ public class RedisSpringDataCache<K, V> extends AbstractExternalCache<K, V> {
                     K key = keyList.get(i);
                     if (value != null) {
                         CacheValueHolder<V> holder = (CacheValueHolder<V>) valueDecoder.apply((byte[]) value);
-                        if (System.currentTimeMillis() >= holder.getExpireTime()) {
+                        if (JetCacheClock.currentTimeMillis() >= holder.getExpireTime()) {
                             resultMap.put(key, CacheGetResult.EXPIRED_WITHOUT_MSG);
                         } else {
                             CacheGetResult<V> r = new CacheGetResult<>(CacheResultCode.SUCCESS, null, holder);
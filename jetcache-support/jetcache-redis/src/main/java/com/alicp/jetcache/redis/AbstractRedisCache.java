@@ -0,0 +1,131 @@
+package com.alicp.jetcache.redis;
+
+import com.alicp.jetcache.CacheConfigException;
+import com.alicp.jetcache.CacheGetResult;
+import com.alicp.jetcache.CacheResult;
+import com.alicp.jetcache.CacheResultCode;
+import com.alicp.jetcache.CacheValueHolder;
+import com.alicp.jetcache.external.AbstractExternalCache;
+import com.alicp.jetcache.support.JetCacheClock;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.params.SetParams;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * The single key writes and the value decoding shared by RedisCache and RedisClusterCache, they differ only in
+ * the client which sends the command: a Jedis of the master pool or the JedisCluster.
+ *
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+abstract class AbstractRedisCache<K, V> extends AbstractExternalCache<K, V> {
+
+    Function<Object, byte[]> valueEncoder;
+    Function<byte[], Object> valueDecoder;
+
+    /**
+     * The single key write commands, both Jedis and JedisCluster have them.
+     */
+    interface WriteClient {
+        String psetex(byte[] key, long milliseconds, byte[] value);
+
+        String set(byte[] key, byte[] value, SetParams params);
+
+        Long del(byte[] key);
+    }
+
+    AbstractRedisCache(RedisCacheConfig<K, V> config) {
+        super(config);
+        this.valueEncoder = config.getValueEncoder();
+        this.valueDecoder = config.getValueDecoder();
+        if (config.isExpireAfterAccess()) {
+            throw new CacheConfigException("expireAfterAccess is not supported");
+        }
+    }
+
+    /**
+     * Run the command with the client of the master.
+     */
+    protected abstract <T> T executeWrite(Function<WriteClient, T> command);
+
+    protected CacheGetResult<V> parseValue(byte[] bytes) {
+        if (bytes == null) {
+            return CacheGetResult.NOT_EXISTS_WITHOUT_MSG;
+        }
+        CacheValueHolder<V> holder = (CacheValueHolder<V>) valueDecoder.apply(bytes);
+        if (JetCacheClock.currentTimeMillis() >= holder.getExpireTime()) {
+            return CacheGetResult.EXPIRED_WITHOUT_MSG;
+        }
+        return new CacheGetResult(CacheResultCode.SUCCESS, null, holder);
+    }
+
+    @Override
+    protected CacheResult do_PUT(K key, V value, long expireAfterWrite, TimeUnit timeUnit) {
+        try {
+            CacheValueHolder<V> holder = new CacheValueHolder(value, timeUnit.toMillis(expireAfterWrite));
+            byte[] newKey = buildKey(key);
+            String rt = executeWrite(c -> c.psetex(newKey, timeUnit.toMillis(expireAfterWrite), valueEncoder.apply(holder)));
+            if ("OK".equals(rt)) {
+                return CacheResult.SUCCESS_WITHOUT_MSG;
+            } else {
+                return new CacheResult(CacheResultCode.FAIL, rt);
+            }
+        } catch (Exception ex) {
+            logError("PUT", key, ex);
+            return new CacheResult(ex);
+        }
+    }
+
+    @Override
+    protected CacheResult do_REMOVE(K key) {
+        try {
+            byte[] newKey = buildKey(key);
+            Long rt = executeWrite(c -> c.del(newKey));
+            if (rt == null) {
+                return CacheResult.FAIL_WITHOUT_MSG;
+            } else if (rt == 1) {
+                return CacheResult.SUCCESS_WITHOUT_MSG;
+            } else if (rt == 0) {
+                return new CacheResult(CacheResultCode.NOT_EXISTS, null);
+            } else {
+                return CacheResult.FAIL_WITHOUT_MSG;
+            }
+        } catch (Exception ex) {
+            logError("REMOVE", key, ex);
+            return new CacheResult(ex);
+        }
+    }
+
+    @Override
+    protected CacheResult do_PUT_IF_ABSENT(K key, V value, long expireAfterWrite, TimeUnit timeUnit) {
+        try {
+            CacheValueHolder<V> holder = new CacheValueHolder(value, timeUnit.toMillis(expireAfterWrite));
+            byte[] newKey = buildKey(key);
+            SetParams params = new SetParams();
+            params.nx()
+                    .px(timeUnit.toMillis(expireAfterWrite));
+            String rt = executeWrite(c -> c.set(newKey, valueEncoder.apply(holder), params));
+            if ("OK".equals(rt)) {
+                return CacheResult.SUCCESS_WITHOUT_MSG;
+            } else if (rt == null) {
+                return CacheResult.EXISTS_WITHOUT_MSG;
+            } else {
+                return new CacheResult(CacheResultCode.FAIL, rt);
+            }
+        } catch (Exception ex) {
+            logError("PUT_IF_ABSENT", key, ex);
+            return new CacheResult(ex);
+        }
+    }
+
+    @Override
+    protected boolean needLogStackTrace(Throwable e) {
+        if (e instanceof JedisConnectionException) {
+            return false;
+        }
+        return true;
+    }
+}
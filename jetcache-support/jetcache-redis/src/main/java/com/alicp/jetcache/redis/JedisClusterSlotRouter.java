@@ -0,0 +1,88 @@
+package com.alicp.jetcache.redis;
+
+import com.alicp.jetcache.support.JetCacheClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.util.JedisClusterCRC16;
+import redis.clients.jedis.util.SafeEncoder;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Map the hash slots to the pools of the master nodes of a JedisCluster. The slot table is read by
+ * CLUSTER SLOTS and renewed when a redirection is found, the pools are the ones created by the JedisCluster.
+ *
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+class JedisClusterSlotRouter {
+
+    private static Logger logger = LoggerFactory.getLogger(JedisClusterSlotRouter.class);
+
+    static final int SLOT_COUNT = 16384;
+    // don't renew the slot table more than once in this interval
+    static final long MIN_RENEW_INTERVAL_MILLIS = 1000;
+
+    private final JedisCluster cluster;
+    // index is the slot, a null element means the slot is unknown
+    private volatile JedisPool[] slots = new JedisPool[SLOT_COUNT];
+    private long lastRenewTime;
+
+    JedisClusterSlotRouter(JedisCluster cluster) {
+        this.cluster = cluster;
+        renew();
+    }
+
+    /**
+     * @return the pool of the master node, or null if the slot of the key is unknown
+     */
+    JedisPool getPool(byte[] key) {
+        return slots[JedisClusterCRC16.getSlot(key)];
+    }
+
+    synchronized void renew() {
+        long now = JetCacheClock.currentTimeMillis();
+        if (now - lastRenewTime < MIN_RENEW_INTERVAL_MILLIS) {
+            return;
+        }
+        lastRenewTime = now;
+        Map<String, JedisPool> nodes = cluster.getClusterNodes();
+        for (JedisPool pool : nodes.values()) {
+            try (Jedis jedis = pool.getResource()) {
+                slots = parseSlots(jedis.clusterSlots(), nodes);
+                return;
+            } catch (Exception e) {
+                logger.warn("can't read cluster slots from a node: {}", e.toString());
+            }
+        }
+        logger.error("can't read cluster slots from any node, the bulk operations are run by key");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JedisPool[] parseSlots(List<Object> clusterSlots, Map<String, JedisPool> nodes) {
+        JedisPool[] newSlots = new JedisPool[SLOT_COUNT];
+        for (Object o : clusterSlots) {
+            // [start, end, [master host, master port, id], replicas...]
+            List<Object> range = (List<Object>) o;
+            if (range.size() < 3) {
+                continue;
+            }
+            int start = ((Long) range.get(0)).intValue();
+            int end = ((Long) range.get(1)).intValue();
+            List<Object> master = (List<Object>) range.get(2);
+            String host = SafeEncoder.encode((byte[]) master.get(0));
+            int port = ((Long) master.get(1)).intValue();
+            // the key format of JedisCluster.getClusterNodes()
+            JedisPool pool = nodes.get(host + ":" + port);
+            for (int i = start; i <= end; i++) {
+                newSlots[i] = pool;
+            }
+        }
+        return newSlots;
+    }
+}
@@ -1,13 +1,11 @@
 package com.alicp.jetcache.redis;
 
 import com.alicp.jetcache.*;
-import com.alicp.jetcache.external.AbstractExternalCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.Pipeline;
 import redis.clients.jedis.Response;
-import redis.clients.jedis.exceptions.JedisConnectionException;
 import redis.clients.jedis.params.SetParams;
 import redis.clients.jedis.util.Pool;
 
@@ -21,22 +19,17 @@ import java.util.function.Function;
  *
  * @author <a href="mailto:areyouok@gmail.com">huangli</a>
  */
-public class RedisCache<K, V> extends AbstractExternalCache<K, V> {
+public class RedisCache<K, V> extends AbstractRedisCache<K, V> {
 
     private static Logger logger = LoggerFactory.getLogger(RedisCache.class);
 
     private RedisCacheConfig<K, V> config;
 
-    Function<Object, byte[]> valueEncoder;
-    Function<byte[], Object> valueDecoder;
-
     private static ThreadLocalRandom random = ThreadLocalRandom.current();
 
     public RedisCache(RedisCacheConfig<K, V> config) {
         super(config);
         this.config = config;
-        this.valueEncoder = config.getValueEncoder();
-        this.valueDecoder = config.getValueDecoder();
 
         if (config.getJedisPool() == null) {
             throw new CacheConfigException("no pool");
@@ -52,9 +45,6 @@ public class RedisCache<K, V> extends AbstractExternalCache<K, V> {
                 initDefaultWeights(config);
             }
         }
-        if (config.isExpireAfterAccess()) {
-            throw new CacheConfigException("expireAfterAccess is not supported");
-        }
     }
 
     private void initDefaultWeights(RedisCacheConfig<K, V> config) {
@@ -104,18 +94,22 @@ public class RedisCache<K, V> extends AbstractExternalCache<K, V> {
 
     @Override
     protected CacheGetResult<V> do_GET(K key) {
-        try (Jedis jedis = getReadPool().getResource()) {
-            byte[] newKey = buildKey(key);
-            byte[] bytes = jedis.get(newKey);
-            if (bytes != null) {
-                CacheValueHolder<V> holder = (CacheValueHolder<V>) valueDecoder.apply(bytes);
-                if (System.currentTimeMillis() >= holder.getExpireTime()) {
-                    return CacheGetResult.EXPIRED_WITHOUT_MSG;
-                }
-                return new CacheGetResult(CacheResultCode.SUCCESS, null, holder);
-            } else {
-                return CacheGetResult.NOT_EXISTS_WITHOUT_MSG;
-            }
+        return do_GET(key, buildKey(key));
+    }
+
+    @Override
+    protected CacheGetResult<V> do_GET(K key, byte[] newKey) {
+        return get(key, newKey, getReadPool());
+    }
+
+    @Override
+    protected CacheGetResult<V> do_GET_FROM_MASTER(K key) {
+        return get(key, buildKey(key), config.getJedisPool());
+    }
+
+    private CacheGetResult<V> get(K key, byte[] newKey, Pool<Jedis> pool) {
+        try (Jedis jedis = pool.getResource()) {
+            return parseValue(jedis.get(newKey));
         } catch (Exception ex) {
             logError("GET", key, ex);
             return new CacheGetResult(ex);
@@ -132,19 +126,7 @@ public class RedisCache<K, V> extends AbstractExternalCache<K, V> {
             if (newKeys.length > 0) {
                 List mgetResults = jedis.mget(newKeys);
                 for (int i = 0; i < mgetResults.size(); i++) {
-                    Object value = mgetResults.get(i);
-                    K key = keyList.get(i);
-                    if (value != null) {
-                        CacheValueHolder<V> holder = (CacheValueHolder<V>) valueDecoder.apply((byte[]) value);
-                        if (System.currentTimeMillis() >= holder.getExpireTime()) {
-                            resultMap.put(key, CacheGetResult.EXPIRED_WITHOUT_MSG);
-                        } else {
-                            CacheGetResult<V> r = new CacheGetResult<V>(CacheResultCode.SUCCESS, null, holder);
-                            resultMap.put(key, r);
-                        }
-                    } else {
-                        resultMap.put(key, CacheGetResult.NOT_EXISTS_WITHOUT_MSG);
-                    }
+                    resultMap.put(keyList.get(i), parseValue((byte[]) mgetResults.get(i)));
                 }
             }
             return new MultiGetResult<K, V>(CacheResultCode.SUCCESS, null, resultMap);
@@ -156,19 +138,24 @@ public class RedisCache<K, V> extends AbstractExternalCache<K, V> {
 
 
     @Override
-    protected CacheResult do_PUT(K key, V value, long expireAfterWrite, TimeUnit timeUnit) {
+    protected <T> T executeWrite(Function<WriteClient, T> command) {
         try (Jedis jedis = config.getJedisPool().getResource()) {
-            CacheValueHolder<V> holder = new CacheValueHolder(value, timeUnit.toMillis(expireAfterWrite));
-            byte[] newKey = buildKey(key);
-            String rt = jedis.psetex(newKey, timeUnit.toMillis(expireAfterWrite), valueEncoder.apply(holder));
-            if ("OK".equals(rt)) {
-                return CacheResult.SUCCESS_WITHOUT_MSG;
-            } else {
-                return new CacheResult(CacheResultCode.FAIL, rt);
-            }
-        } catch (Exception ex) {
-            logError("PUT", key, ex);
-            return new CacheResult(ex);
+            return command.apply(new WriteClient() {
+                @Override
+                public String psetex(byte[] key, long milliseconds, byte[] value) {
+                    return jedis.psetex(key, milliseconds, value);
+                }
+
+                @Override
+                public String set(byte[] key, byte[] value, SetParams params) {
+                    return jedis.set(key, value, params);
+                }
+
+                @Override
+                public Long del(byte[] key) {
+                    return jedis.del(key);
+                }
+            });
         }
     }
 
@@ -197,29 +184,6 @@ public class RedisCache<K, V> extends AbstractExternalCache<K, V> {
         }
     }
 
-    @Override
-    protected CacheResult do_REMOVE(K key) {
-        return REMOVE_impl(key, buildKey(key));
-    }
-
-    private CacheResult REMOVE_impl(Object key, byte[] newKey) {
-        try (Jedis jedis = config.getJedisPool().getResource()) {
-            Long rt = jedis.del(newKey);
-            if (rt == null) {
-                return CacheResult.FAIL_WITHOUT_MSG;
-            } else if (rt == 1) {
-                return CacheResult.SUCCESS_WITHOUT_MSG;
-            } else if (rt == 0) {
-                return new CacheResult(CacheResultCode.NOT_EXISTS, null);
-            } else {
-                return CacheResult.FAIL_WITHOUT_MSG;
-            }
-        } catch (Exception ex) {
-            logError("REMOVE", key, ex);
-            return new CacheResult(ex);
-        }
-    }
-
     @Override
     protected CacheResult do_REMOVE_ALL(Set<? extends K> keys) {
         try (Jedis jedis = config.getJedisPool().getResource()) {
@@ -231,34 +195,4 @@ public class RedisCache<K, V> extends AbstractExternalCache<K, V> {
             return new CacheResult(ex);
         }
     }
-
-    @Override
-    protected CacheResult do_PUT_IF_ABSENT(K key, V value, long expireAfterWrite, TimeUnit timeUnit) {
-        try (Jedis jedis = config.getJedisPool().getResource()) {
-            CacheValueHolder<V> holder = new CacheValueHolder(value, timeUnit.toMillis(expireAfterWrite));
-            byte[] newKey = buildKey(key);
-            SetParams params = new SetParams();
-            params.nx()
-                    .px(timeUnit.toMillis(expireAfterWrite));
-            String rt = jedis.set(newKey, valueEncoder.apply(holder), params);
-            if ("OK".equals(rt)) {
-                return CacheResult.SUCCESS_WITHOUT_MSG;
-            } else if (rt == null) {
-                return CacheResult.EXISTS_WITHOUT_MSG;
-            } else {
-                return new CacheResult(CacheResultCode.FAIL, rt);
-            }
-        } catch (Exception ex) {
-            logError("PUT_IF_ABSENT", key, ex);
-            return new CacheResult(ex);
-        }
-    }
-
-    @Override
-    protected boolean needLogStackTrace(Throwable e) {
-        if (e instanceof JedisConnectionException) {
-            return false;
-        }
-        return true;
-    }
 }
@@ -2,6 +2,7 @@ package com.alicp.jetcache.redis;
 
 import com.alicp.jetcache.external.ExternalCacheBuilder;
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisCluster;
 import redis.clients.jedis.util.Pool;
 
 /**
@@ -18,7 +19,10 @@ public class RedisCacheBuilder<T extends ExternalCacheBuilder<T>> extends Extern
     }
 
     protected RedisCacheBuilder() {
-        buildFunc(config -> new RedisCache((RedisCacheConfig) config));
+        buildFunc(config -> {
+            RedisCacheConfig c = (RedisCacheConfig) config;
+            return c.getJedisCluster() != null ? new RedisClusterCache(c) : new RedisCache(c);
+        });
     }
 
     @Override
@@ -65,4 +69,13 @@ public class RedisCacheBuilder<T extends ExternalCacheBuilder<T>> extends Extern
         getConfig().setSlaveReadWeights(slaveReadWeights);
     }
 
+    public T jedisCluster(JedisCluster jedisCluster) {
+        getConfig().setJedisCluster(jedisCluster);
+        return self();
+    }
+
+    public void setJedisCluster(JedisCluster jedisCluster) {
+        getConfig().setJedisCluster(jedisCluster);
+    }
+
 }
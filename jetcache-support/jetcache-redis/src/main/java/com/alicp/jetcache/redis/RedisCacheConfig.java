@@ -2,6 +2,7 @@ package com.alicp.jetcache.redis;
 
 import com.alicp.jetcache.external.ExternalCacheConfig;
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisCluster;
 import redis.clients.jedis.util.Pool;
 
 /**
@@ -15,6 +16,7 @@ public class RedisCacheConfig<K, V> extends ExternalCacheConfig<K, V> {
     private Pool<Jedis>[] jedisSlavePools;
     private boolean readFromSlave;
     private int[] slaveReadWeights;
+    private JedisCluster jedisCluster;
 
     public Pool<Jedis> getJedisPool() {
         return jedisPool;
@@ -47,4 +49,15 @@ public class RedisCacheConfig<K, V> extends ExternalCacheConfig<K, V> {
     public void setSlaveReadWeights(int... slaveReadWeights) {
         this.slaveReadWeights = slaveReadWeights;
     }
+
+    /**
+     * @return the cluster, a RedisClusterCache is built instead of RedisCache if it's set
+     */
+    public JedisCluster getJedisCluster() {
+        return jedisCluster;
+    }
+
+    public void setJedisCluster(JedisCluster jedisCluster) {
+        this.jedisCluster = jedisCluster;
+    }
 }
@@ -0,0 +1,261 @@
+package com.alicp.jetcache.redis;
+
+import com.alicp.jetcache.*;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisRedirectionException;
+import redis.clients.jedis.params.SetParams;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * A redis cache on a JedisCluster. The bulk operations group the keys by the node of their hash slot and send
+ * each group in a pipeline, the groups of different nodes run in parallel. The keys which are not routed or
+ * redirected (the slot is migrated) are retried by the JedisCluster one by one.
+ *
+ * The groups run in a dedicated pool instead of JetCacheExecutor.heavyIOExecutor() or asyncExecutor(), which run
+ * the refresh and the async loads: a bulk operation called from those tasks would wait for tasks queued behind
+ * itself. When all the threads of the pool are busy, the group runs in the caller thread.
+ *
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class RedisClusterCache<K, V> extends AbstractRedisCache<K, V> {
+
+    static final int MAX_BULK_THREADS = 16;
+
+    private static volatile ExecutorService bulkExecutor;
+
+    private RedisCacheConfig<K, V> config;
+
+    private final JedisCluster cluster;
+    private final JedisClusterSlotRouter router;
+    private final WriteClient writeClient;
+
+    public RedisClusterCache(RedisCacheConfig<K, V> config) {
+        super(config);
+        this.config = config;
+        this.cluster = config.getJedisCluster();
+
+        if (cluster == null) {
+            throw new CacheConfigException("no jedisCluster");
+        }
+        this.router = new JedisClusterSlotRouter(cluster);
+        this.writeClient = new WriteClient() {
+            @Override
+            public String psetex(byte[] key, long milliseconds, byte[] value) {
+                return cluster.psetex(key, milliseconds, value);
+            }
+
+            @Override
+            public String set(byte[] key, byte[] value, SetParams params) {
+                return cluster.set(key, value, params);
+            }
+
+            @Override
+            public Long del(byte[] key) {
+                return cluster.del(key);
+            }
+        };
+    }
+
+    static ExecutorService bulkExecutor() {
+        if (bulkExecutor != null) {
+            return bulkExecutor;
+        }
+        synchronized (RedisClusterCache.class) {
+            if (bulkExecutor == null) {
+                AtomicInteger threadCount = new AtomicInteger();
+                ThreadFactory tf = r -> {
+                    Thread t = new Thread(r, "JetCacheRedisClusterBulk" + threadCount.getAndIncrement());
+                    t.setDaemon(true);
+                    return t;
+                };
+                // no queue, a task is never discarded or left waiting behind other tasks
+                bulkExecutor = new ThreadPoolExecutor(0, MAX_BULK_THREADS, 60, TimeUnit.SECONDS,
+                        new SynchronousQueue<>(), tf, new ThreadPoolExecutor.CallerRunsPolicy());
+            }
+        }
+        return bulkExecutor;
+    }
+
+    @Override
+    public CacheConfig<K, V> config() {
+        return config;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> clazz) {
+        if (JedisCluster.class.isAssignableFrom(clazz)) {
+            return (T) cluster;
+        }
+        throw new IllegalArgumentException(clazz.getName());
+    }
+
+    @Override
+    protected <T> T executeWrite(Function<WriteClient, T> command) {
+        return command.apply(writeClient);
+    }
+
+    /**
+     * Run a command for each key in the pipelines of the nodes.
+     * @param pipelineCommand send the command of the key at the index to the pipeline
+     * @param clusterCommand run the command of the key at the index by the JedisCluster
+     * @return the results in the order of the keys
+     */
+    private Object[] executeBulk(byte[][] keys, BiFunction<Pipeline, Integer, Response<?>> pipelineCommand,
+                                 IntFunction<Object> clusterCommand) {
+        Object[] results = new Object[keys.length];
+        Map<JedisPool, List<Integer>> groups = new HashMap<>();
+        List<Integer> retries = new ArrayList<>();
+        for (int i = 0; i < keys.length; i++) {
+            JedisPool pool = router.getPool(keys[i]);
+            if (pool == null) {
+                retries.add(i);
+            } else {
+                groups.computeIfAbsent(pool, p -> new ArrayList<>()).add(i);
+            }
+        }
+
+        List<CompletableFuture<List<Integer>>> futures = new ArrayList<>();
+        Iterator<Map.Entry<JedisPool, List<Integer>>> it = groups.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<JedisPool, List<Integer>> en = it.next();
+            if (it.hasNext()) {
+                futures.add(CompletableFuture.supplyAsync(
+                        () -> executePipeline(en.getKey(), en.getValue(), results, pipelineCommand),
+                        bulkExecutor()));
+            } else {
+                // the last group runs in the caller thread
+                retries.addAll(executePipeline(en.getKey(), en.getValue(), results, pipelineCommand));
+            }
+        }
+        for (CompletableFuture<List<Integer>> f : futures) {
+            try {
+                retries.addAll(f.join());
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+
+        if (!retries.isEmpty()) {
+            router.renew();
+            for (int i : retries) {
+                results[i] = clusterCommand.apply(i);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @return the indexes of the redirected keys
+     */
+    private List<Integer> executePipeline(JedisPool pool, List<Integer> indexes, Object[] results,
+                                          BiFunction<Pipeline, Integer, Response<?>> pipelineCommand) {
+        List<Integer> redirected = new ArrayList<>();
+        try (Jedis jedis = pool.getResource()) {
+            Pipeline p = jedis.pipelined();
+            List<Response<?>> responses = new ArrayList<>(indexes.size());
+            for (int i : indexes) {
+                responses.add(pipelineCommand.apply(p, i));
+            }
+            p.sync();
+            for (int j = 0; j < indexes.size(); j++) {
+                try {
+                    results[indexes.get(j)] = responses.get(j).get();
+                } catch (JedisRedirectionException e) {
+                    redirected.add(indexes.get(j));
+                }
+            }
+        }
+        return redirected;
+    }
+
+    @Override
+    protected CacheGetResult<V> do_GET(K key) {
+        return do_GET(key, buildKey(key));
+    }
+
+    @Override
+    protected CacheGetResult<V> do_GET(K key, byte[] newKey) {
+        try {
+            return parseValue(cluster.get(newKey));
+        } catch (Exception ex) {
+            logError("GET", key, ex);
+            return new CacheGetResult(ex);
+        }
+    }
+
+    @Override
+    protected MultiGetResult<K, V> do_GET_ALL(Set<? extends K> keys) {
+        try {
+            ArrayList<K> keyList = new ArrayList<K>(keys);
+            byte[][] newKeys = keyList.stream().map((k) -> buildKey(k)).toArray(byte[][]::new);
+            Object[] values = executeBulk(newKeys, (p, i) -> p.get(newKeys[i]), i -> cluster.get(newKeys[i]));
+            Map<K, CacheGetResult<V>> resultMap = new HashMap<>();
+            for (int i = 0; i < values.length; i++) {
+                resultMap.put(keyList.get(i), parseValue((byte[]) values[i]));
+            }
+            return new MultiGetResult<K, V>(CacheResultCode.SUCCESS, null, resultMap);
+        } catch (Exception ex) {
+            logError("GET_ALL", "keys(" + keys.size() + ")", ex);
+            return new MultiGetResult<K, V>(ex);
+        }
+    }
+
+    @Override
+    protected CacheResult do_PUT_ALL(Map<? extends K, ? extends V> map, long expireAfterWrite, TimeUnit timeUnit) {
+        try {
+            long millis = timeUnit.toMillis(expireAfterWrite);
+            byte[][] newKeys = new byte[map.size()][];
+            byte[][] newValues = new byte[map.size()][];
+            int index = 0;
+            for (Map.Entry<? extends K, ? extends V> en : map.entrySet()) {
+                CacheValueHolder<V> holder = new CacheValueHolder(en.getValue(), millis);
+                newKeys[index] = buildKey(en.getKey());
+                newValues[index] = valueEncoder.apply(holder);
+                index++;
+            }
+            Object[] results = executeBulk(newKeys, (p, i) -> p.psetex(newKeys[i], millis, newValues[i]),
+                    i -> cluster.psetex(newKeys[i], millis, newValues[i]));
+            int failCount = 0;
+            for (Object rt : results) {
+                if (!"OK".equals(rt)) {
+                    failCount++;
+                }
+            }
+            return failCount == 0 ? CacheResult.SUCCESS_WITHOUT_MSG :
+                    failCount == map.size() ? CacheResult.FAIL_WITHOUT_MSG : CacheResult.PART_SUCCESS_WITHOUT_MSG;
+        } catch (Exception ex) {
+            logError("PUT_ALL", "map(" + map.size() + ")", ex);
+            return new CacheResult(ex);
+        }
+    }
+
+    @Override
+    protected CacheResult do_REMOVE_ALL(Set<? extends K> keys) {
+        try {
+            byte[][] newKeys = keys.stream().map((k) -> buildKey(k)).toArray(byte[][]::new);
+            executeBulk(newKeys, (p, i) -> p.del(newKeys[i]), i -> cluster.del(newKeys[i]));
+            return CacheResult.SUCCESS_WITHOUT_MSG;
+        } catch (Exception ex) {
+            logError("REMOVE_ALL", "keys(" + keys.size() + ")", ex);
+            return new CacheResult(ex);
+        }
+    }
+}
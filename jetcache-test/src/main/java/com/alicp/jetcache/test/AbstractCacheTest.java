@@ -1,6 +1,11 @@
 package com.alicp.jetcache.test;
 
 import com.alicp.jetcache.*;
+import com.alicp.jetcache.event.CacheEvent;
+import com.alicp.jetcache.event.CacheGetAllEvent;
+import com.alicp.jetcache.event.CacheGetEvent;
+import com.alicp.jetcache.event.CachePutEvent;
+import com.alicp.jetcache.event.CacheRemoveEvent;
 import com.alicp.jetcache.support.DefaultCacheMonitor;
 import com.alicp.jetcache.support.StatInfo;
 import com.alicp.jetcache.support.StatInfoLogger;
@@ -12,8 +17,12 @@ import org.slf4j.LoggerFactory;
 import java.io.Serializable;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -62,6 +71,7 @@ public abstract class AbstractCacheTest {
         complextValueTest();
 
         asyncTest();
+        monitorTest();
 
         penetrationProtectTestWrapper(cache);
     }
@@ -365,6 +375,52 @@ public abstract class AbstractCacheTest {
         });
         removeResult.future().toCompletableFuture().get();
         Assert.assertFalse(asyncTestFail);
+
+        asyncApiTest();
+    }
+
+    private void asyncApiTest() throws Exception {
+        Assert.assertNull(cache.getAsync("async_api_K1").get());
+        cache.putAsync("async_api_K1", "V1").get();
+        Assert.assertEquals("V1", cache.getAsync("async_api_K1").get());
+        cache.putAsync("async_api_K1", "V2", 1, TimeUnit.MINUTES).get();
+        Assert.assertEquals("V2", cache.getAsync("async_api_K1").get());
+
+        Map<Object, Object> m = new HashMap<>();
+        m.put("async_api_K2", "V2");
+        m.put("async_api_K3", "V3");
+        cache.putAllAsync(m).get();
+        HashSet<Object> s = new HashSet<>(m.keySet());
+        s.add("async_api_K4");
+        Map<Object, Object> values = cache.getAllAsync(s).get();
+        Assert.assertEquals(2, values.size());
+        Assert.assertEquals("V3", values.get("async_api_K3"));
+
+        Assert.assertTrue(cache.removeAsync("async_api_K1").get());
+        Assert.assertNull(cache.getAsync("async_api_K1").get());
+
+        Assert.assertEquals("V2", cache.computeIfAbsentAsync("async_api_K2", k -> {
+            throw new RuntimeException();
+        }).get());
+        Assert.assertEquals("V5", cache.computeIfAbsentAsync("async_api_K5",
+                k -> CompletableFuture.completedFuture("V5")).get());
+        Assert.assertEquals("V5", cache.get("async_api_K5"));
+        Assert.assertEquals("V6", cache.computeIfAbsentAsync("async_api_K6",
+                k -> CompletableFuture.supplyAsync(() -> "V6"), false, 1, TimeUnit.MINUTES).get());
+        Assert.assertEquals("V6", cache.get("async_api_K6"));
+        Assert.assertNull(cache.computeIfAbsentAsync("async_api_K7",
+                k -> CompletableFuture.completedFuture(null), false).get());
+        Assert.assertNull(cache.get("async_api_K7"));
+
+        CompletableFuture<Object> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new RuntimeException("mock"));
+        try {
+            cache.computeIfAbsentAsync("async_api_K8", k -> failed).get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            // expected
+        }
+        cache.removeAll(new HashSet<>(Arrays.asList("async_api_K2", "async_api_K3", "async_api_K5", "async_api_K6")));
     }
 
 
@@ -554,6 +610,43 @@ public abstract class AbstractCacheTest {
         Assert.assertNull(cache.get(d3));
     }
 
+    private void monitorTest() throws Exception {
+        List<CacheEvent> events = new CopyOnWriteArrayList<>();
+        CacheMonitor monitor = events::add;
+        cache.config().getMonitors().add(monitor);
+        try {
+            Assert.assertTrue(cache.PUT("MONITOR_K1", "V1").isSuccess());
+            Assert.assertEquals("V1", cache.get("MONITOR_K1"));
+            Assert.assertTrue(cache.GET_ALL(new HashSet<>(Arrays.asList("MONITOR_K1"))).isSuccess());
+            Assert.assertTrue(cache.REMOVE("MONITOR_K1").isSuccess());
+            // the events of an external cache are sent after the result future completes, maybe out of order
+            waitEvents(events, 4);
+            Assert.assertEquals(1, events.stream().filter(e -> e instanceof CachePutEvent).count());
+            Assert.assertEquals(1, events.stream().filter(e -> e instanceof CacheGetEvent
+                    && "MONITOR_K1".equals(((CacheGetEvent) e).getKey())).count());
+            Assert.assertEquals(1, events.stream().filter(e -> e instanceof CacheGetAllEvent).count());
+            Assert.assertEquals(1, events.stream().filter(e -> e instanceof CacheRemoveEvent).count());
+        } finally {
+            cache.config().getMonitors().remove(monitor);
+        }
+
+        // no event after the monitor is removed
+        int count = events.size();
+        cache.PUT("MONITOR_K1", "V1").getResultCode();
+        cache.get("MONITOR_K1");
+        cache.REMOVE("MONITOR_K1").getResultCode();
+        Thread.sleep(10);
+        Assert.assertEquals(count, events.size());
+    }
+
+    private static void waitEvents(List<CacheEvent> events, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 1000;
+        while (events.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        Assert.assertEquals(count, events.size());
+    }
+
     protected void doWithMonitor(Cache cache, Runnable runnable) {
         DefaultCacheMonitor monitor = new DefaultCacheMonitor("concurrentTest");
         cache.config().getMonitors().add(monitor);
@@ -742,8 +835,10 @@ public abstract class AbstractCacheTest {
         cache.config().setCachePenetrationProtect(true);
 
         penetrationProtectTestWithComputeIfAbsent(cache);
+        penetrationProtectTestWithComputeIfAbsentAsync(cache);
         if (cache instanceof LoadingCache) {
             penetrationProtectTestWithLoadingCache(cache);
+            penetrationProtectTestWithLoadingCacheGetAll(cache);
         }
 
         penetrationProtectReEntryTest(cache);
@@ -819,6 +914,30 @@ public abstract class AbstractCacheTest {
         cache.remove(keyPrefix + "2");
     }
 
+    private static void penetrationProtectTestWithComputeIfAbsentAsync(Cache cache) throws Exception {
+        String key = "penetrationProtectAsync_K1";
+        AtomicInteger loadCount = new AtomicInteger(0);
+        CompletableFuture<Object> loadFuture = new CompletableFuture<>();
+        Function<Object, CompletionStage<Object>> loader = k -> {
+            loadCount.incrementAndGet();
+            return loadFuture;
+        };
+        List<CompletableFuture<Object>> list = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            list.add(cache.computeIfAbsentAsync(key, loader));
+        }
+        Thread.sleep(50);
+        for (CompletableFuture<Object> f : list) {
+            Assert.assertFalse(f.isDone());
+        }
+        loadFuture.complete("V");
+        for (CompletableFuture<Object> f : list) {
+            Assert.assertEquals("V", f.get());
+        }
+        Assert.assertEquals(1, loadCount.get());
+        cache.remove(key);
+    }
+
     private static void penetrationProtectTestWithLoadingCache(Cache cache) throws Exception {
         String failMsg[] = new String[1];
 
@@ -890,6 +1009,55 @@ public abstract class AbstractCacheTest {
         cache.config().setLoader(oldLoader);
     }
 
+    private static void penetrationProtectTestWithLoadingCacheGetAll(Cache cache) throws Exception {
+        AtomicInteger loadCount = new AtomicInteger(0);
+        AtomicInteger loadAllCount = new AtomicInteger(0);
+        AtomicInteger loadedKeyCount = new AtomicInteger(0);
+        CacheLoader<Integer, Integer> loader = new CacheLoader<Integer, Integer>() {
+            @Override
+            public Integer load(Integer key) throws Throwable {
+                Thread.sleep(100);
+                loadCount.incrementAndGet();
+                loadedKeyCount.incrementAndGet();
+                return key + 100;
+            }
+
+            @Override
+            public Map<Integer, Integer> loadAll(Set<Integer> keys) throws Throwable {
+                loadAllCount.incrementAndGet();
+                loadedKeyCount.addAndGet(keys.size());
+                Map<Integer, Integer> map = new HashMap<>();
+                keys.forEach(k -> map.put(k, k + 100));
+                return map;
+            }
+        };
+
+        CacheLoader oldLoader = cache.config().getLoader();
+        cache.config().setLoader(loader);
+
+        Cache<Integer, Integer> c = cache;
+        Thread t = new Thread(() -> c.get(3000));
+        t.start();
+        Thread.sleep(30);
+        Set<Integer> s = new HashSet<>();
+        for (int i = 3000; i < 3010; i++) {
+            s.add(i);
+        }
+        Map<Integer, Integer> values = c.getAll(s);
+        t.join();
+
+        Assert.assertEquals(10, values.size());
+        for (int i = 3000; i < 3010; i++) {
+            Assert.assertEquals(i + 100, values.get(i).intValue());
+        }
+        Assert.assertEquals(1, loadCount.get());
+        Assert.assertEquals(1, loadAllCount.get());
+        Assert.assertEquals(10, loadedKeyCount.get());
+
+        cache.removeAll(s);
+        cache.config().setLoader(oldLoader);
+    }
+
     private static void penetrationProtectReEntryTest(Cache cache) {
         Object v = cache.computeIfAbsent("penetrationProtectReEntryTest",
                 (k) -> cache.computeIfAbsent(k, (k2) -> "V"));
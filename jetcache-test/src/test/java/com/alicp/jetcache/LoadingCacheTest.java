@@ -11,6 +11,8 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -30,6 +32,24 @@ public class LoadingCacheTest extends AbstractCacheTest {
         errorTest();
     }
 
+    @Test
+    public void asyncExecutorTest() throws Exception {
+        // the async loads run in the executor of the cache
+        ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "loadingCacheTestExecutor"));
+        try {
+            cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                    .loader(key -> key + "_" + Thread.currentThread().getName())
+                    .asyncExecutor(executor)
+                    .buildCache();
+            Assert.assertEquals("K1_loadingCacheTestExecutor", cache.getAsync("K1").get());
+            Set<String> keys = new HashSet<>();
+            keys.add("K2");
+            Assert.assertEquals("K2_loadingCacheTestExecutor", cache.getAllAsync(keys).get().get("K2"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     public static void loadingCacheTest(Cache cache, long waitMillis) throws Exception {
         AtomicInteger count = new AtomicInteger(0);
         CacheLoader oldLoader = cache.config().getLoader();
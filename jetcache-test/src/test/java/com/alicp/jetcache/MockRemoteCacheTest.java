@@ -7,9 +7,14 @@ import com.alicp.jetcache.support.FastjsonKeyConvertor;
 import com.alicp.jetcache.support.JavaValueDecoder;
 import com.alicp.jetcache.support.JavaValueEncoder;
 import com.alicp.jetcache.test.AbstractCacheTest;
+import com.alicp.jetcache.external.HotKeyDetector;
 import com.alicp.jetcache.external.MockRemoteCacheBuilder;
+import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
 /**
  * @author <a href="mailto:areyouok@gmail.com">huangli</a>
  */
@@ -23,4 +28,62 @@ public class MockRemoteCacheTest extends AbstractCacheTest {
         cache = b.buildCache();
         baseTest();
     }
+
+    @Test
+    public void hotKeyTest() throws Exception {
+        cache = MockRemoteCacheBuilder.createMockRemoteCacheBuilder()
+                .valueEncoder(JavaValueEncoder.INSTANCE)
+                .valueDecoder(JavaValueDecoder.INSTANCE)
+                .hotKeyThreshold(3)
+                .hotKeyExpire(200, TimeUnit.MILLISECONDS)
+                .buildCache();
+        LinkedHashMap remote = cache.unwrap(LinkedHashMap.class);
+
+        cache.put("K1", "V1");
+        cache.put("K2", "V2");
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals("V1", cache.get("K1"));
+        }
+        Assert.assertEquals("V2", cache.get("K2"));
+        remote.clear();
+        // the hot key is served locally
+        Assert.assertEquals("V1", cache.get("K1"));
+        Assert.assertNull(cache.get("K2"));
+
+        cache.put("K1", "V1_NEW");
+        Assert.assertEquals("V1_NEW", cache.get("K1"));
+        cache.remove("K1");
+        Assert.assertNull(cache.get("K1"));
+
+        cache.put("K1", "V1");
+        Assert.assertEquals("V1", cache.get("K1"));
+        remote.clear();
+        Assert.assertEquals("V1", cache.get("K1"));
+        Thread.sleep(250);
+        Assert.assertNull(cache.get("K1"));
+
+        // the counters of the sketch are 4 bits
+        try {
+            MockRemoteCacheBuilder.createMockRemoteCacheBuilder()
+                    .valueEncoder(JavaValueEncoder.INSTANCE)
+                    .valueDecoder(JavaValueDecoder.INSTANCE)
+                    .hotKeyThreshold(16)
+                    .buildCache();
+            Assert.fail();
+        } catch (CacheConfigException e) {
+        }
+    }
+
+    @Test
+    public void hotKeyInvalidateRaceTest() {
+        HotKeyDetector detector = new HotKeyDetector(1, 10, 1000);
+        // the GET reads the old value, then a write invalidates the key before the value is kept locally
+        long invalidateCount = detector.invalidateCount("K1");
+        detector.invalidate("K1");
+        detector.put("K1", "V_OLD", invalidateCount);
+        Assert.assertNull(detector.get("K1"));
+
+        detector.put("K1", "V_NEW", detector.invalidateCount("K1"));
+        Assert.assertEquals("V_NEW", detector.get("K1").getValue());
+    }
 }
@@ -4,14 +4,17 @@
 package com.alicp.jetcache.embedded;
 
 import com.alicp.jetcache.*;
+import com.alicp.jetcache.support.DefaultCacheMonitor;
 import com.alicp.jetcache.support.DefaultCacheMonitorTest;
 import com.alicp.jetcache.support.FastjsonKeyConvertor;
+import com.alicp.jetcache.support.JetCacheClock;
 import com.alicp.jetcache.test.AbstractCacheTest;
 import com.alicp.jetcache.test.support.DynamicQuery;
 import com.alicp.jetcache.test.support.DynamicQueryWithEquals;
 import org.junit.Assert;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 /**
@@ -38,10 +41,79 @@ public abstract class AbstractEmbeddedCacheTest extends AbstractCacheTest {
         Assert.assertEquals(CacheResultCode.SUCCESS, cache.GET("K3").getResultCode());
     }
 
+    private void getIfPresentTest(long expireMillis) throws Exception {
+        AbstractEmbeddedCache<Object, Object> c = (AbstractEmbeddedCache<Object, Object>) cache;
+        Assert.assertNull(c.getIfPresent(null));
+        Assert.assertNull(c.getIfPresent("getIfPresent_K1"));
+        Assert.assertNull(c.getHolderIfPresent("getIfPresent_K1"));
+        c.put("getIfPresent_K1", "V1");
+        Assert.assertEquals("V1", c.getIfPresent("getIfPresent_K1"));
+        Assert.assertEquals("V1", c.getHolderIfPresent("getIfPresent_K1").getValue());
+        c.put("getIfPresent_K2", null);
+        Assert.assertNull(c.getIfPresent("getIfPresent_K2"));
+        Assert.assertNotNull(c.getHolderIfPresent("getIfPresent_K2"));
+
+        DefaultCacheMonitor monitor = new DefaultCacheMonitor("test");
+        c.config().getMonitors().add(monitor);
+        Assert.assertEquals("V1", c.getIfPresent("getIfPresent_K1"));
+        Assert.assertEquals(1, monitor.getCacheStat().getGetHitCount());
+        c.config().getMonitors().remove(monitor);
+
+        // the lag of the default ticker is tested by JetCacheClockTest, use a manual one for the exact boundary
+        AtomicLong now = new AtomicLong(System.currentTimeMillis());
+        JetCacheClock.setTicker(now::get);
+        try {
+            c.put("getIfPresent_K3", "V3", expireMillis / 2, TimeUnit.MILLISECONDS);
+            now.addAndGet(expireMillis / 2 - 1);
+            Assert.assertEquals("V3", c.getIfPresent("getIfPresent_K3"));
+            now.addAndGet(1);
+            Assert.assertNull(c.getIfPresent("getIfPresent_K3"));
+        } finally {
+            JetCacheClock.setTicker(null);
+        }
+        c.remove("getIfPresent_K1");
+        c.remove("getIfPresent_K2");
+    }
+
+    private void accessTimeTest() {
+        AtomicLong now = new AtomicLong(System.currentTimeMillis());
+        long t0 = now.get();
+        JetCacheClock.setTicker(now::get);
+        try {
+            // the access time is not written without expireAfterAccess
+            AbstractEmbeddedCache<Object, Object> c = (AbstractEmbeddedCache<Object, Object>) EmbeddedCacheBuilder
+                    .createEmbeddedCacheBuilder().buildFunc(getBuildFunc())
+                    .expireAfterWrite(1000, TimeUnit.MILLISECONDS).limit(200).buildCache();
+            c.put("accessTime_K1", "V1");
+            now.addAndGet(60);
+            Assert.assertEquals("V1", c.get("accessTime_K1"));
+            Assert.assertEquals("V1", c.GET("accessTime_K1").getValue());
+            Assert.assertEquals(t0, c.getHolderIfPresent("accessTime_K1").getAccessTime());
+
+            // each read moves the access time, so the entry lives longer than expireAfterAccess
+            now.set(t0);
+            c = (AbstractEmbeddedCache<Object, Object>) EmbeddedCacheBuilder
+                    .createEmbeddedCacheBuilder().buildFunc(getBuildFunc())
+                    .expireAfterAccess(100, TimeUnit.MILLISECONDS).limit(200).buildCache();
+            c.put("accessTime_K1", "V1");
+            now.addAndGet(60);
+            Assert.assertEquals("V1", c.get("accessTime_K1"));
+            Assert.assertEquals(t0 + 60, c.getHolderIfPresent("accessTime_K1").getAccessTime());
+            now.addAndGet(60);
+            Assert.assertEquals("V1", c.GET("accessTime_K1").getValue());
+            now.addAndGet(100);
+            Assert.assertNull(c.get("accessTime_K1"));
+        } finally {
+            JetCacheClock.setTicker(null);
+        }
+    }
+
     public void test(int expireMillis, boolean testLru) throws Exception {
         cache = EmbeddedCacheBuilder.createEmbeddedCacheBuilder()
                 .buildFunc(getBuildFunc()).expireAfterWrite(expireMillis, TimeUnit.MILLISECONDS).limit(200).buildCache();
         baseTest();
+        getIfPresentTest(expireMillis);
+        accessTimeTest();
         expireAfterWriteTest(cache.config().getExpireAfterWriteInMillis());
         if (testLru) {
             cache = EmbeddedCacheBuilder.createEmbeddedCacheBuilder()
@@ -82,6 +154,82 @@ public abstract class AbstractEmbeddedCacheTest extends AbstractCacheTest {
         concurrentTest(thread, limit, time);
     }
 
+    protected void atomicUpdateTest(EmbeddedCacheBuilder builder) throws Exception {
+        cache = builder.expireAfterWrite(200, TimeUnit.MILLISECONDS).buildCache();
+        AbstractEmbeddedCache<Object, Object> c = (AbstractEmbeddedCache<Object, Object>) cache;
+        Assert.assertEquals("V1", c.compute("K1", (k, v) -> v == null ? "V1" : v + "X"));
+        Assert.assertEquals("V1X", c.compute("K1", (k, v) -> v == null ? "V1" : v + "X"));
+        Assert.assertNull(c.compute("K1", (k, v) -> null));
+        Assert.assertNull(c.get("K1"));
+
+        Assert.assertEquals(1, c.merge("K2", 1, (v1, v2) -> (Integer) v1 + (Integer) v2));
+        Assert.assertEquals(2, c.merge("K2", 1, (v1, v2) -> (Integer) v1 + (Integer) v2));
+
+        Assert.assertFalse(c.replace("K3", "V3", "V3_NEW"));
+        c.put("K3", "V3");
+        Assert.assertFalse(c.replace("K3", "V4", "V3_NEW"));
+        Assert.assertTrue(c.replace("K3", "V3", "V3_NEW"));
+        Assert.assertEquals("V3_NEW", c.get("K3"));
+
+        // an expired value is treated as absent
+        c.put("K4", "V4", 1, TimeUnit.MILLISECONDS);
+        Thread.sleep(5);
+        Assert.assertFalse(c.replace("K4", "V4", "V4_NEW"));
+        Assert.assertEquals("V4_NEW", c.compute("K4", (k, v) -> v == null ? "V4_NEW" : "WRONG"));
+
+        int threadCount = 4;
+        int count = 1000;
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < count; j++) {
+                    c.merge("K5", 1, (v1, v2) -> (Integer) v1 + (Integer) v2);
+                    while (true) {
+                        Integer v = (Integer) c.get("K6");
+                        if (v == null ? c.putIfAbsent("K6", 1) : c.replace("K6", v, v + 1)) {
+                            break;
+                        }
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        Assert.assertEquals(threadCount * count, c.get("K5"));
+        Assert.assertEquals(threadCount * count, c.get("K6"));
+    }
+
+    protected void storeValueAsBytesTest() throws Exception {
+        cache = EmbeddedCacheBuilder.createEmbeddedCacheBuilder().buildFunc(getBuildFunc())
+                .storeValueAsBytes(true).compressValue(true)
+                .expireAfterWrite(200, TimeUnit.MILLISECONDS).limit(200).buildCache();
+        baseTest();
+        getIfPresentTest(200);
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append("0123456789");
+        }
+        String v = sb.toString();
+        cache.put("K1", v);
+        Object stored = ((CacheValueHolder) ((AbstractEmbeddedCache) cache).innerMap.getValue("K1")).getValue();
+        Assert.assertTrue(((CompactValueCodec.EncodedValue) stored).bytes.length < v.length() / 10);
+        String v1 = (String) cache.get("K1");
+        Assert.assertEquals(v, v1);
+        Assert.assertNotSame(v, v1);
+        // served by the decoded cache
+        Assert.assertSame(v1, cache.get("K1"));
+        cache.put("K1", v);
+        Assert.assertNotSame(v1, cache.get("K1"));
+
+        cache = EmbeddedCacheBuilder.createEmbeddedCacheBuilder().buildFunc(getBuildFunc())
+                .storeValueAsBytes(true).decodedCacheSize(0).buildCache();
+        cache.put("K1", v);
+        Assert.assertNotSame(cache.get("K1"), cache.get("K1"));
+    }
+
     protected void nullKeyConvertorTest() {
         {
             DynamicQuery d1 = new DynamicQuery();
@@ -0,0 +1,110 @@
+package com.alicp.jetcache.embedded;
+
+import com.alicp.jetcache.Cache;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class CacheSnapshotTest {
+
+    private void test(EmbeddedCacheBuilder builder) throws Exception {
+        File file = File.createTempFile("jetcache", ".snapshot");
+        Assert.assertTrue(file.delete());
+        try {
+            builder.snapshotFile(file.getPath()).expireAfterWrite(10, TimeUnit.SECONDS);
+            Cache<String, Object> cache = builder.buildCache();
+            for (int i = 0; i < 10; i++) {
+                cache.put("K" + i, "V" + i);
+            }
+            cache.put("K10", "V10", 1, TimeUnit.MILLISECONDS);
+            Thread.sleep(5);
+            cache.close();
+            Assert.assertTrue(file.exists());
+
+            cache = builder.buildCache();
+            for (int i = 0; i < 10; i++) {
+                Assert.assertEquals("V" + i, cache.get("K" + i));
+            }
+            Assert.assertNull(cache.get("K10"));
+
+            // a bad snapshot is ignored
+            Files.write(file.toPath(), "bad".getBytes());
+            cache = builder.buildCache();
+            Assert.assertNull(cache.get("K1"));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void linkedHashMapCacheTest() throws Exception {
+        test(LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().limit(100));
+        test(LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().segments(4).limit(100));
+    }
+
+    @Test
+    public void caffeineCacheTest() throws Exception {
+        test(CaffeineCacheBuilder.createCaffeineCacheBuilder().limit(100));
+    }
+
+    @Test
+    public void clockCacheTest() throws Exception {
+        test(ClockCacheBuilder.createClockCacheBuilder().limit(100));
+    }
+
+    @Test
+    public void offHeapCacheTest() throws Exception {
+        test(OffHeapCacheBuilder.createOffHeapCacheBuilder().limit(100));
+    }
+
+    @Test
+    public void longKeyCacheTest() throws Exception {
+        File file = File.createTempFile("jetcache", ".snapshot");
+        try {
+            EmbeddedCacheBuilder builder = LongKeyCacheBuilder.createLongKeyCacheBuilder()
+                    .limit(100).snapshotFile(file.getPath());
+            LongKeyCache<Long, Object> cache = (LongKeyCache<Long, Object>) builder.buildCache();
+            for (long i = 0; i < 10; i++) {
+                cache.put(i, "V" + i);
+            }
+            cache.close();
+
+            cache = (LongKeyCache<Long, Object>) builder.buildCache();
+            for (long i = 0; i < 10; i++) {
+                Assert.assertEquals("V" + i, cache.get(i));
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void lruOrderTest() throws Exception {
+        File file = File.createTempFile("jetcache", ".snapshot");
+        try {
+            EmbeddedCacheBuilder builder = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                    .limit(3).snapshotFile(file.getPath());
+            Cache<String, Object> cache = builder.buildCache();
+            cache.put("K1", "V1");
+            cache.put("K2", "V2");
+            cache.put("K3", "V3");
+            cache.get("K1");
+            cache.close();
+
+            cache = builder.buildCache();
+            cache.put("K4", "V4");
+            Assert.assertNull(cache.get("K2"));
+            Assert.assertEquals("V1", cache.get("K1"));
+        } finally {
+            file.delete();
+        }
+    }
+}
@@ -2,8 +2,13 @@ package com.alicp.jetcache.embedded;
 
 import com.alicp.jetcache.Cache;
 import com.alicp.jetcache.CacheConfig;
+import com.alicp.jetcache.RefreshCache;
+import com.alicp.jetcache.RefreshPolicy;
+import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 /**
@@ -34,4 +39,54 @@ public class CaffeineCacheTest extends AbstractEmbeddedCacheTest {
 //        System.out.println(cache.get("K3"));
     }
 
+    @Test
+    public void weightTest() {
+        cache = CaffeineCacheBuilder.createCaffeineCacheBuilder()
+                .maximumWeight(100).weigher((k, v) -> ((String) v).length()).buildCache();
+        for (int i = 0; i < 100; i++) {
+            cache.put("K" + i, "0123456789");
+        }
+        com.github.benmanes.caffeine.cache.Cache c = cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+        c.cleanUp();
+        Assert.assertTrue(c.estimatedSize() <= 10);
+    }
+
+    @Test
+    public void atomicUpdateTest() throws Exception {
+        atomicUpdateTest(CaffeineCacheBuilder.createCaffeineCacheBuilder());
+    }
+
+    @Test
+    public void storeValueAsBytesTest() throws Exception {
+        super.storeValueAsBytesTest();
+    }
+
+    @Test
+    public void nativeRefreshTest() throws Exception {
+        AtomicInteger count = new AtomicInteger();
+        cache = CaffeineCacheBuilder.createCaffeineCacheBuilder()
+                .nativeRefresh(true)
+                .loader(k -> k + "_V" + count.getAndIncrement())
+                .refreshPolicy(RefreshPolicy.newPolicy(100, TimeUnit.MILLISECONDS))
+                .buildCache();
+        CaffeineCache c = (CaffeineCache) ((RefreshCache) cache).getTargetCache();
+        Assert.assertEquals(100, c.getNativeRefreshMillis());
+
+        Assert.assertEquals("K1_V0", cache.get("K1"));
+        Assert.assertEquals(1, c.refreshTasks().size());
+        Thread.sleep(150);
+        // the key is reloaded when it's read, no task is scheduled before
+        Assert.assertEquals(1, count.get());
+        Assert.assertEquals("K1_V0", cache.get("K1"));
+        Thread.sleep(50);
+        Assert.assertEquals("K1_V1", cache.get("K1"));
+        Assert.assertEquals(2, count.get());
+
+        cache.remove("K1");
+        Assert.assertEquals(0, c.refreshTasks().size());
+        Assert.assertEquals("K1_V2", cache.get("K1"));
+        cache.close();
+        Assert.assertEquals(0, c.refreshTasks().size());
+    }
+
 }
@@ -0,0 +1,54 @@
+package com.alicp.jetcache.embedded;
+
+import com.alicp.jetcache.Cache;
+import com.alicp.jetcache.CacheConfig;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.function.Function;
+
+/**
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class ClockCacheTest extends AbstractEmbeddedCacheTest {
+    @Override
+    protected Function<CacheConfig, Cache> getBuildFunc() {
+        return (c) -> new ClockCache((EmbeddedCacheConfig) c);
+    }
+
+    @Test
+    public void test() throws Exception {
+        super.test(100, false);
+    }
+
+    @Test
+    public void atomicUpdateTest() throws Exception {
+        atomicUpdateTest(ClockCacheBuilder.createClockCacheBuilder());
+    }
+
+    @Test
+    public void evictTest() {
+        cache = ClockCacheBuilder.createClockCacheBuilder().limit(100).buildCache();
+        cache.put("hot", "V");
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals("V", cache.get("hot"));
+            cache.put("K" + i, "V" + i);
+        }
+        int count = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (cache.get("K" + i) != null) {
+                count++;
+            }
+        }
+        Assert.assertTrue(count < 100);
+        Assert.assertEquals("V", cache.get("hot"));
+
+        for (int i = 0; i < 1000; i++) {
+            cache.put("R" + i, "V");
+            cache.remove("R" + i);
+        }
+        Assert.assertEquals("V", cache.get("hot"));
+    }
+}
@@ -3,13 +3,18 @@
  */
 package com.alicp.jetcache.embedded;
 
+import com.alicp.jetcache.AutoReleaseLock;
 import com.alicp.jetcache.Cache;
 import com.alicp.jetcache.CacheConfig;
+import com.alicp.jetcache.CacheConfigException;
 import com.alicp.jetcache.CacheResultCode;
+import com.alicp.jetcache.support.JetCacheClock;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.LinkedHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 /**
@@ -28,14 +33,274 @@ public class LinkedHashMapCacheTest extends AbstractEmbeddedCacheTest {
     }
 
     @Test
-    public void cleanTest() throws Exception {
-        cache = EmbeddedCacheBuilder.createEmbeddedCacheBuilder()
-                .buildFunc(getBuildFunc()).expireAfterWrite(2000, TimeUnit.MILLISECONDS).limit(3).buildCache();
+    public void segmentTest() throws Exception {
+        cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .segments(4).limit(200).expireAfterWrite(100, TimeUnit.MILLISECONDS).buildCache();
+        baseTest();
+        expireAfterWriteTest(cache.config().getExpireAfterWriteInMillis());
+
+        cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .segments(4).limit(8).buildCache();
+        for (int i = 0; i < 100; i++) {
+            cache.put("K" + i, "V" + i);
+        }
+        int count = 0;
+        for (int i = 0; i < 100; i++) {
+            if (cache.get("K" + i) != null) {
+                count++;
+            }
+        }
+        Assert.assertTrue(count > 0 && count <= 8);
+
         cache.put("K1", "V1", 1, TimeUnit.MILLISECONDS);
-        Thread.sleep(1);
-        Assert.assertEquals(CacheResultCode.EXPIRED, cache.GET("K1").getResultCode());
+        Thread.sleep(5);
         ((LinkedHashMapCache) cache).cleanExpiredEntry();
         Assert.assertEquals(CacheResultCode.NOT_EXISTS, cache.GET("K1").getResultCode());
+
+        cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().segments(8).limit(1000).buildCache();
+        concurrentTest(10, 1000, 3000);
+    }
+
+    @Test
+    public void incrementalCleanTest() throws Exception {
+        // the time is controlled, so the background cleaner doesn't remove the entries before the checks
+        AtomicLong now = new AtomicLong(System.currentTimeMillis());
+        JetCacheClock.setTicker(now::get);
+        try {
+            cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().limit(1000).buildCache();
+            for (int i = 0; i < 600; i++) {
+                cache.put("K" + i, "V" + i, 1, TimeUnit.MILLISECONDS);
+            }
+            cache.put("K0", "V0", 1, TimeUnit.HOURS);
+            cache.put("K_LONG", "V", 1, TimeUnit.HOURS);
+            LinkedHashMap map = cache.unwrap(LinkedHashMap.class);
+            Assert.assertEquals(601, map.size());
+
+            now.addAndGet(5);
+            ((LinkedHashMapCache) cache).cleanExpiredEntry(300);
+            Assert.assertTrue(map.size() >= 301 && map.size() <= 302);
+
+            ((LinkedHashMapCache) cache).cleanExpiredEntry();
+            Assert.assertEquals(2, map.size());
+            Assert.assertEquals("V0", cache.get("K0"));
+            Assert.assertEquals("V", cache.get("K_LONG"));
+        } finally {
+            JetCacheClock.setTicker(null);
+        }
+    }
+
+    @Test
+    public void cleanStopAtLiveEntryTest() throws Exception {
+        // both entries expire in the same tick, the one of the shorter ttl is put later
+        long base = System.currentTimeMillis() / LinkedHashMapCache.EXPIRE_TICK_MILLIS * LinkedHashMapCache.EXPIRE_TICK_MILLIS;
+        AtomicLong now = new AtomicLong(base);
+        JetCacheClock.setTicker(now::get);
+        try {
+            cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().limit(10).buildCache();
+            cache.put("K1", "V1", 500, TimeUnit.MILLISECONDS);
+            cache.put("K2", "V2", 100, TimeUnit.MILLISECONDS);
+            LinkedHashMap map = cache.unwrap(LinkedHashMap.class);
+
+            // the scan stops at the live K1, the expired K2 is not visible to reads
+            now.addAndGet(200);
+            ((LinkedHashMapCache) cache).cleanExpiredEntry();
+            Assert.assertEquals(2, map.size());
+            Assert.assertEquals(CacheResultCode.EXPIRED, cache.GET("K2").getResultCode());
+
+            now.addAndGet(LinkedHashMapCache.EXPIRE_TICK_MILLIS);
+            ((LinkedHashMapCache) cache).cleanExpiredEntry();
+            Assert.assertEquals(0, map.size());
+        } finally {
+            JetCacheClock.setTicker(null);
+        }
+    }
+
+    @Test
+    public void expireRecordTest() throws Exception {
+        AtomicLong now = new AtomicLong(System.currentTimeMillis());
+        JetCacheClock.setTicker(now::get);
+        try {
+            cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().limit(10).buildCache();
+            // a key updated frequently, then a key with a long ttl
+            for (int i = 0; i < 1000; i++) {
+                cache.put("K1", "V" + i, 1, TimeUnit.HOURS);
+            }
+            cache.put("K2", "V", 30, TimeUnit.DAYS);
+            cache.put("K3", "V", 60, TimeUnit.DAYS);
+            LinkedHashMap map = cache.unwrap(LinkedHashMap.class);
+            Assert.assertEquals(3, map.size());
+
+            now.addAndGet(TimeUnit.HOURS.toMillis(1));
+            ((LinkedHashMapCache) cache).cleanExpiredEntry();
+            Assert.assertEquals(2, map.size());
+
+            now.addAndGet(TimeUnit.DAYS.toMillis(30));
+            ((LinkedHashMapCache) cache).cleanExpiredEntry();
+            Assert.assertEquals(1, map.size());
+            Assert.assertEquals("V", cache.get("K3"));
+        } finally {
+            JetCacheClock.setTicker(null);
+        }
+    }
+
+    @Test
+    public void weightTest() throws Exception {
+        cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .maximumWeight(100).weigher((k, v) -> ((String) v).length()).buildCache();
+        for (int i = 0; i < 100; i++) {
+            cache.put("K" + i, "0123456789");
+        }
+        LinkedHashMap map = cache.unwrap(LinkedHashMap.class);
+        Assert.assertEquals(10, map.size());
+        Assert.assertEquals("0123456789", cache.get("K99"));
+        Assert.assertNull(cache.get("K89"));
+
+        cache.put("K99", "01234567890123456789");
+        Assert.assertEquals(9, map.size());
+        cache.remove("K99");
+        cache.put("K100", "01234567890123456789");
+        cache.put("K101", "01234567890123456789");
+        Assert.assertEquals(8, map.size());
+
+        cache.put("K102", new String(new char[101]));
+        Assert.assertNull(cache.get("K102"));
+
+        // the weight is taken when the value is put, mutating the value later doesn't change it
+        cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .maximumWeight(100).weigher((k, v) -> ((StringBuilder) v).length()).buildCache();
+        StringBuilder[] values = new StringBuilder[10];
+        for (int i = 0; i < 10; i++) {
+            values[i] = new StringBuilder("0123456789");
+            cache.put("K" + i, values[i]);
+        }
+        for (StringBuilder sb : values) {
+            sb.append("0123456789");
+        }
+        for (int i = 0; i < 5; i++) {
+            cache.remove("K" + i);
+        }
+        for (int i = 10; i < 16; i++) {
+            cache.put("K" + i, new StringBuilder("0123456789"));
+        }
+        map = cache.unwrap(LinkedHashMap.class);
+        Assert.assertEquals(10, map.size());
+
+        // a value which can't be weighed fails the put and is not stored
+        try {
+            cache.put("K100", "V");
+            Assert.fail();
+        } catch (ClassCastException e) {
+        }
+        Assert.assertNull(cache.get("K100"));
+        Assert.assertEquals(10, map.size());
+
+        // a weigher is required, unless the values are stored as bytes and weighed by their byte count
+        try {
+            LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().maximumWeight(1000).buildCache();
+            Assert.fail();
+        } catch (CacheConfigException e) {
+        }
+        cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .maximumWeight(1000).storeValueAsBytes(true).buildCache();
+        for (int i = 0; i < 100; i++) {
+            cache.put("K" + i, "0123456789");
+        }
+        map = cache.unwrap(LinkedHashMap.class);
+        Assert.assertTrue(map.size() > 0 && map.size() < 100);
+
+        cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .maximumWeight(1000).weigher(SerializedSizeWeigher.INSTANCE).buildCache();
+        for (int i = 0; i < 100; i++) {
+            cache.put("K" + i, "0123456789");
+        }
+        map = cache.unwrap(LinkedHashMap.class);
+        Assert.assertTrue(map.size() > 0 && map.size() < 100);
+    }
+
+    @Test
+    public void cleanTest() throws Exception {
+        AtomicLong now = new AtomicLong(System.currentTimeMillis());
+        JetCacheClock.setTicker(now::get);
+        try {
+            cache = EmbeddedCacheBuilder.createEmbeddedCacheBuilder()
+                    .buildFunc(getBuildFunc()).expireAfterWrite(2000, TimeUnit.MILLISECONDS).limit(3).buildCache();
+            cache.put("K1", "V1", 1, TimeUnit.MILLISECONDS);
+            now.addAndGet(1);
+            Assert.assertEquals(CacheResultCode.EXPIRED, cache.GET("K1").getResultCode());
+            ((LinkedHashMapCache) cache).cleanExpiredEntry();
+            Assert.assertEquals(CacheResultCode.NOT_EXISTS, cache.GET("K1").getResultCode());
+        } finally {
+            JetCacheClock.setTicker(null);
+        }
+    }
+
+    @Test
+    public void atomicUpdateTest() throws Exception {
+        atomicUpdateTest(LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder());
+        atomicUpdateTest(LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().segments(4));
+        atomicUpdateTest(LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().storeValueAsBytes(true));
+    }
+
+    @Test
+    public void storeValueAsBytesTest() throws Exception {
+        super.storeValueAsBytesTest();
+    }
+
+    @Test
+    public void tinyLfuTest() throws Exception {
+        // the filter compares the entry counts, it doesn't work with the weight bound
+        try {
+            LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                    .tinyLfu(true).maximumWeight(100).weigher((k, v) -> 1).buildCache();
+            Assert.fail();
+        } catch (CacheConfigException e) {
+        }
+
+        cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .tinyLfu(true).limit(100).buildCache();
+        for (int i = 0; i < 50; i++) {
+            cache.put("H" + i, "V" + i);
+        }
+        for (int j = 0; j < 5; j++) {
+            for (int i = 0; i < 50; i++) {
+                Assert.assertEquals("V" + i, cache.get("H" + i));
+            }
+        }
+        // a scan of one-hit keys, while the hot keys are still read
+        for (int i = 0; i < 1000; i++) {
+            cache.get("S" + i);
+            cache.put("S" + i, "V" + i);
+            if (i % 4 == 0) {
+                cache.get("H" + (i / 4 % 50));
+            }
+        }
+        // all the hot keys are flushed by a plain LRU, most of them are kept by the admission filter
+        int hotCount = 0;
+        for (int i = 0; i < 50; i++) {
+            if (cache.get("H" + i) != null) {
+                hotCount++;
+            }
+        }
+        Assert.assertTrue(hotCount > 25);
+        Assert.assertEquals(100, ((LinkedHashMapCache) cache).estimatedSize());
+
+        // a key becomes hot enough to be admitted
+        for (int i = 0; i < 10; i++) {
+            cache.get("X");
+        }
+        cache.put("X", "V");
+        Assert.assertEquals("V", cache.get("X"));
+
+        // a cold key is rejected by put, but putIfAbsent and tryLock still store it
+        cache.put("COLD1", "V");
+        Assert.assertNull(cache.get("COLD1"));
+        Assert.assertTrue(cache.putIfAbsent("COLD2", "V"));
+        Assert.assertFalse(cache.putIfAbsent("COLD2", "V"));
+        Assert.assertEquals("V", cache.get("COLD2"));
+        try (AutoReleaseLock lock = cache.tryLock("COLD_LOCK", 10, TimeUnit.SECONDS)) {
+            Assert.assertNotNull(lock);
+            Assert.assertNull(cache.tryLock("COLD_LOCK", 10, TimeUnit.SECONDS));
+        }
     }
 
 }
@@ -0,0 +1,128 @@
+package com.alicp.jetcache.embedded;
+
+import com.alicp.jetcache.Cache;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class LocalCacheBudgetTest {
+
+    private int limit(Cache c) {
+        return ((EmbeddedCacheConfig) c.config()).getLimit();
+    }
+
+    @Test
+    public void test() {
+        LocalCacheBudget budget = new LocalCacheBudget(1000, 16, 0, 0);
+        Cache c1 = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().limit(1000).buildCache();
+        Cache c2 = CaffeineCacheBuilder.createCaffeineCacheBuilder().limit(500).buildCache();
+        Cache c3 = ClockCacheBuilder.createClockCacheBuilder().limit(500).buildCache();
+        Assert.assertTrue(budget.register((AbstractEmbeddedCache) c1));
+        Assert.assertEquals(1000, limit(c1));
+        // the new cache gets an even share, the registered one shrinks to make room for it
+        Assert.assertTrue(budget.register((AbstractEmbeddedCache) c2));
+        Assert.assertFalse(budget.register((AbstractEmbeddedCache) c3));
+        Assert.assertEquals(500, limit(c1));
+        Assert.assertEquals(500, limit(c2));
+        // the misses are counted without a monitor
+        Assert.assertTrue(c1.config().getMonitors().isEmpty());
+        Assert.assertTrue(c2.config().getMonitors().isEmpty());
+
+        for (int i = 0; i < 100; i++) {
+            c1.put("K" + i, "V" + i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            c2.get("K" + i);
+            c2.put("K" + i, "V" + i);
+        }
+        budget.rebalance();
+        Assert.assertEquals(125, limit(c1));
+        // never more than the configured limit, the rest of the budget is left free
+        Assert.assertEquals(500, limit(c2));
+        Assert.assertEquals(100, ((AbstractEmbeddedCache) c1).estimatedSize());
+
+        // a cache bounded by weight has no budget here
+        Cache c4 = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .maximumWeight(1000).weigher((k, v) -> 1).buildCache();
+        Assert.assertFalse(budget.register((AbstractEmbeddedCache) c4));
+    }
+
+    @Test
+    public void minLimitTest() {
+        LocalCacheBudget budget = new LocalCacheBudget(40, 16, 0, 0);
+        Cache c1 = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().limit(100).buildCache();
+        Cache c2 = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().limit(100).buildCache();
+        Cache c3 = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().limit(100).buildCache();
+        Assert.assertTrue(budget.register((AbstractEmbeddedCache) c1));
+        Assert.assertTrue(budget.register((AbstractEmbeddedCache) c2));
+        Assert.assertEquals(20, limit(c1));
+        Assert.assertEquals(20, limit(c2));
+        // the budget can't give the min limit to a third cache
+        Assert.assertFalse(budget.register((AbstractEmbeddedCache) c3));
+        Assert.assertEquals(100, limit(c3));
+
+        budget.rebalance();
+        Assert.assertTrue(limit(c1) + limit(c2) <= 40);
+        Assert.assertTrue(limit(c1) >= 16 && limit(c2) >= 16);
+    }
+
+    private long maximumWeight(Cache c) {
+        return ((EmbeddedCacheConfig) c.config()).getMaximumWeight();
+    }
+
+    @Test
+    public void weightTest() {
+        LocalCacheBudget budget = new LocalCacheBudget(0, 16, 1000, 10);
+        Cache c1 = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .maximumWeight(1000).weigher((k, v) -> ((String) v).length()).buildCache();
+        Cache c2 = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .maximumWeight(600).weigher((k, v) -> ((String) v).length()).buildCache();
+        Cache c3 = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().limit(100).buildCache();
+        Assert.assertTrue(budget.register((AbstractEmbeddedCache) c1));
+        Assert.assertTrue(budget.register((AbstractEmbeddedCache) c2));
+        Assert.assertFalse(budget.register((AbstractEmbeddedCache) c3));
+        Assert.assertEquals(500, maximumWeight(c1));
+        Assert.assertEquals(500, maximumWeight(c2));
+
+        for (int i = 0; i < 10; i++) {
+            c1.put("K" + i, "0123456789");
+        }
+        for (int i = 0; i < 100; i++) {
+            ((AbstractEmbeddedCache) c2).getIfPresent("K" + i);
+            c2.put("K" + i, "01234");
+        }
+        Assert.assertEquals(500, ((AbstractEmbeddedCache) c2).estimatedWeight());
+        budget.rebalance();
+        Assert.assertEquals(125, maximumWeight(c1));
+        Assert.assertEquals(600, maximumWeight(c2));
+        Assert.assertEquals(100, ((AbstractEmbeddedCache) c1).estimatedWeight());
+
+        ((AbstractEmbeddedCache) c1).resizeWeight(50);
+        Assert.assertEquals(50, ((AbstractEmbeddedCache) c1).estimatedWeight());
+        Assert.assertEquals("0123456789", c1.get("K9"));
+        Assert.assertNull(c1.get("K4"));
+    }
+
+    @Test
+    public void resizeTest() {
+        Cache c = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().limit(100).buildCache();
+        for (int i = 0; i < 100; i++) {
+            c.put("K" + i, "V" + i);
+        }
+        Assert.assertTrue(((AbstractEmbeddedCache) c).resize(10));
+        Assert.assertEquals(10, ((AbstractEmbeddedCache) c).estimatedSize());
+        Assert.assertEquals("V99", c.get("K99"));
+        Assert.assertNull(c.get("K89"));
+
+        c = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().segments(4).limit(100).buildCache();
+        for (int i = 0; i < 100; i++) {
+            c.put("K" + i, "V" + i);
+        }
+        ((AbstractEmbeddedCache) c).resize(8);
+        Assert.assertTrue(((AbstractEmbeddedCache) c).estimatedSize() <= 8);
+    }
+}
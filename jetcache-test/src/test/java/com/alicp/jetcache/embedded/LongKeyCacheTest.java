@@ -0,0 +1,124 @@
+package com.alicp.jetcache.embedded;
+
+import com.alicp.jetcache.Cache;
+import com.alicp.jetcache.CacheResultCode;
+import com.alicp.jetcache.support.DefaultCacheMonitor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class LongKeyCacheTest {
+
+    @Test
+    public void test() throws Exception {
+        Cache<Object, String> cache = LongKeyCacheBuilder.createLongKeyCacheBuilder()
+                .limit(100).expireAfterWrite(100, TimeUnit.MILLISECONDS).buildCache();
+        LongKeyCache<Object, String> c = (LongKeyCache<Object, String>) cache;
+
+        c.put(1L, "V1");
+        Assert.assertEquals("V1", c.get(1L));
+        Assert.assertEquals("V1", cache.get(1L));
+        Assert.assertEquals("V1", cache.get(1));
+        Assert.assertEquals("V1", cache.get(new Object[]{1L}));
+        Assert.assertNull(c.get(2L));
+        // the args arrays of two calls build an equal key, which is used by the loader lock and the refresh task
+        Assert.assertEquals(c.buildKey(new Object[]{1L}), c.buildKey(new Object[]{1L}));
+        Assert.assertEquals(c.buildKey(1), c.buildKey(new Object[]{1L}));
+
+        cache.put(0L, "V0");
+        cache.put(-1L, "V-1");
+        Assert.assertEquals("V0", c.get(0L));
+        Assert.assertEquals("V-1", c.get(-1L));
+        Assert.assertTrue(c.remove(0L));
+        Assert.assertFalse(c.remove(0L));
+        Assert.assertNull(c.get(0L));
+
+        Assert.assertTrue(cache.putIfAbsent(3L, "V3"));
+        Assert.assertFalse(cache.putIfAbsent(3L, "V3"));
+
+        cache.put(4L, "V4", 1, TimeUnit.MILLISECONDS);
+        Thread.sleep(5);
+        Assert.assertNull(c.get(4L));
+        Assert.assertEquals(CacheResultCode.EXPIRED, cache.GET(4L).getResultCode());
+        Assert.assertTrue(cache.putIfAbsent(4L, "V4"));
+
+        DefaultCacheMonitor monitor = new DefaultCacheMonitor("test");
+        cache.config().getMonitors().add(monitor);
+        Assert.assertEquals("V1", c.get(1L));
+        c.put(5L, "V5");
+        Assert.assertEquals(1, monitor.getCacheStat().getGetHitCount());
+        Assert.assertEquals(1, monitor.getCacheStat().getPutCount());
+        cache.config().getMonitors().remove(monitor);
+
+        try {
+            cache.get("K1");
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void atomicUpdateTest() {
+        Cache<Object, Object> cache = LongKeyCacheBuilder.createLongKeyCacheBuilder().limit(100).buildCache();
+        LongKeyCache<Object, Object> c = (LongKeyCache<Object, Object>) cache;
+        Assert.assertEquals("V1", c.compute(1L, (k, v) -> v == null ? "V1" : v + "X"));
+        Assert.assertEquals("V1X", c.compute(1L, (k, v) -> v == null ? "V1" : v + "X"));
+        Assert.assertNull(c.compute(1L, (k, v) -> null));
+        Assert.assertNull(c.get(1L));
+
+        Assert.assertEquals(1, c.merge(2L, 1, (v1, v2) -> (Integer) v1 + (Integer) v2));
+        Assert.assertEquals(2, c.merge(2L, 1, (v1, v2) -> (Integer) v1 + (Integer) v2));
+
+        Assert.assertFalse(c.replace(3L, "V3", "V3_NEW"));
+        c.put(3L, "V3");
+        Assert.assertFalse(c.replace(3L, "V4", "V3_NEW"));
+        Assert.assertTrue(c.replace(3L, "V3", "V3_NEW"));
+        Assert.assertEquals("V3_NEW", c.get(3L));
+    }
+
+    @Test
+    public void evictTest() {
+        Cache<Object, String> cache = LongKeyCacheBuilder.createLongKeyCacheBuilder().limit(100).buildCache();
+        LongKeyCache<Object, String> c = (LongKeyCache<Object, String>) cache;
+        c.put(-1L, "hot");
+        for (long i = 0; i < 1000; i++) {
+            Assert.assertEquals("hot", c.get(-1L));
+            c.put(i, "V" + i);
+        }
+        int count = 0;
+        for (long i = 0; i < 1000; i++) {
+            if (c.get(i) != null) {
+                count++;
+            }
+        }
+        Assert.assertTrue(count < 100);
+    }
+
+    @Test
+    public void randomTest() {
+        // the limit is not reached, so the cache should work like a map
+        Cache<Object, Long> cache = LongKeyCacheBuilder.createLongKeyCacheBuilder().limit(1000).buildCache();
+        LongKeyCache<Object, Long> c = (LongKeyCache<Object, Long>) cache;
+        HashMap<Long, Long> map = new HashMap<>();
+        Random r = new Random();
+        for (int i = 0; i < 100000; i++) {
+            long k = r.nextInt(500);
+            if (r.nextBoolean()) {
+                c.put(k, Long.valueOf(i));
+                map.put(k, Long.valueOf(i));
+            } else {
+                Assert.assertEquals(map.remove(k) != null, c.remove(k));
+            }
+            long k2 = r.nextInt(500);
+            Assert.assertEquals(map.get(k2), c.get(k2));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.alicp.jetcache.embedded;
+
+import com.alicp.jetcache.Cache;
+import com.alicp.jetcache.CacheConfig;
+import com.alicp.jetcache.MultiLevelCacheBuilder;
+import com.alicp.jetcache.support.JavaValueDecoder;
+import com.alicp.jetcache.support.JavaValueEncoder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.function.Function;
+
+/**
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class OffHeapCacheTest extends AbstractEmbeddedCacheTest {
+    @Override
+    protected Function<CacheConfig, Cache> getBuildFunc() {
+        return (c) -> new OffHeapCache((EmbeddedCacheConfig) c);
+    }
+
+    @Test
+    public void test() throws Exception {
+        super.test(100, false);
+    }
+
+    @Test
+    public void atomicUpdateTest() throws Exception {
+        atomicUpdateTest(OffHeapCacheBuilder.createOffHeapCacheBuilder());
+    }
+
+    @Test
+    public void capacityTest() {
+        cache = OffHeapCacheBuilder.createOffHeapCacheBuilder()
+                .valueEncoder(JavaValueEncoder.INSTANCE).valueDecoder(JavaValueDecoder.INSTANCE)
+                .slabSizeInBytes(1024).capacityInBytes(4096).buildCache();
+        for (int i = 0; i < 1000; i++) {
+            cache.put("K" + i, "V" + i);
+        }
+        Assert.assertNull(cache.get("K0"));
+        Assert.assertEquals("V999", cache.get("K999"));
+        int count = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (cache.get("K" + i) != null) {
+                count++;
+            }
+        }
+        Assert.assertTrue(count > 0 && count < 1000);
+
+        cache.put("K999", new byte[2048]);
+        Assert.assertNull(cache.get("K999"));
+
+        cache.put("K1", "V1");
+        cache.remove("K1");
+        Assert.assertNull(cache.get("K1"));
+    }
+
+    @Test
+    public void multiLevelTest() {
+        Cache l1 = OffHeapCacheBuilder.createOffHeapCacheBuilder().buildCache();
+        Cache l2 = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().buildCache();
+        cache = MultiLevelCacheBuilder.createMultiLevelCacheBuilder().addCache(l1, l2).buildCache();
+        cache.put("K1", "V1");
+        Assert.assertEquals("V1", l1.get("K1"));
+        Assert.assertEquals("V1", cache.get("K1"));
+    }
+}
@@ -2,18 +2,24 @@ package com.alicp.jetcache.redis;
 
 import com.alicp.jetcache.Cache;
 import com.alicp.jetcache.LoadingCacheTest;
+import com.alicp.jetcache.MultiGetResult;
 import com.alicp.jetcache.RefreshCacheTest;
+import com.alicp.jetcache.redis.lettuce.RedisLettuceCacheTest;
 import com.alicp.jetcache.support.*;
 import com.alicp.jetcache.test.external.AbstractExternalCacheTest;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.junit.Assert;
 import org.junit.Test;
+import redis.clients.jedis.HostAndPort;
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisCluster;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisSentinelPool;
 import redis.clients.jedis.util.Pool;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -108,6 +114,58 @@ public class RedisCacheTest extends AbstractExternalCacheTest {
         concurrentTest(thread, 500, time);
     }
 
+    @Test
+    public void testCluster() throws Exception {
+        if (!RedisLettuceCacheTest.checkOS()) {
+            return;
+        }
+        Set<HostAndPort> nodes = new HashSet<>();
+        nodes.add(new HostAndPort("127.0.0.1", 7000));
+        nodes.add(new HostAndPort("127.0.0.1", 7001));
+        nodes.add(new HostAndPort("127.0.0.1", 7002));
+        JedisCluster jedisCluster = new JedisCluster(nodes);
+
+        cache = RedisCacheBuilder.createRedisCacheBuilder()
+                .keyConvertor(FastjsonKeyConvertor.INSTANCE)
+                .valueEncoder(JavaValueEncoder.INSTANCE)
+                .valueDecoder(JavaValueDecoder.INSTANCE)
+                .jedisCluster(jedisCluster)
+                .keyPrefix(new Random().nextInt() + "")
+                .expireAfterWrite(500, TimeUnit.MILLISECONDS)
+                .buildCache();
+        Assert.assertTrue(cache instanceof RedisClusterCache);
+        Assert.assertSame(jedisCluster, cache.unwrap(JedisCluster.class));
+
+        baseTest();
+        fastjsonKeyCoverterTest();
+        expireAfterWriteTest(cache.config().getExpireAfterWriteInMillis());
+
+        // the keys are spread over the slots of all nodes
+        Map<String, String> map = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put("K" + i, "V" + i);
+        }
+        Assert.assertTrue(cache.PUT_ALL(map).isSuccess());
+        MultiGetResult<Object, Object> r = cache.GET_ALL(new HashSet<>(map.keySet()));
+        Assert.assertTrue(r.isSuccess());
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals("V" + i, r.getValues().get("K" + i).getValue());
+        }
+        Assert.assertTrue(cache.REMOVE_ALL(new HashSet<>(map.keySet())).isSuccess());
+        Assert.assertTrue(cache.getAll(new HashSet<>(map.keySet())).isEmpty());
+
+        int thread = 10;
+        int time = 3000;
+        cache = RedisCacheBuilder.createRedisCacheBuilder()
+                .keyConvertor(FastjsonKeyConvertor.INSTANCE)
+                .valueEncoder(JavaValueEncoder.INSTANCE)
+                .valueDecoder(JavaValueDecoder.INSTANCE)
+                .jedisCluster(jedisCluster)
+                .keyPrefix(new Random().nextInt() + "")
+                .buildCache();
+        concurrentTest(thread, 500, time);
+    }
+
     @Test
     public void testRandomIndex() {
         {
@@ -7,6 +7,8 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Created on 2017/5/9.
@@ -26,6 +28,29 @@ public class LettuceConnectionManagerTest {
         m.removeAndClose(client);
     }
 
+    @Test
+    public void testConnectionPool() {
+        RedisClient client = RedisClient.create("redis://127.0.0.1");
+        LettuceConnectionManager m = LettuceConnectionManager.defaultManager();
+        m.init(client, null);
+        LettuceConnectionPool pool = m.connectionPool(client, 3);
+        Assert.assertSame(pool, m.connectionPool(client, 1));
+        Assert.assertEquals(3, pool.size());
+        Assert.assertSame(m.asyncCommands(client), pool.asyncCommands(0));
+
+        // a key always uses the same connection, the keys are spread over the connections
+        Set<Integer> indexes = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            byte[] key = ("K" + i).getBytes();
+            int index = pool.select(key);
+            Assert.assertTrue(index >= 0 && index < 3);
+            Assert.assertEquals(index, pool.select(("K" + i).getBytes()));
+            indexes.add(index);
+        }
+        Assert.assertEquals(3, indexes.size());
+        m.removeAndClose(client);
+    }
+
     @Test
     public void testCluster() {
         if (!RedisLettuceCacheTest.checkOS()) {
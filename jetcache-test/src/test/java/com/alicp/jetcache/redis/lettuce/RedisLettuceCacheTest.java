@@ -1,6 +1,8 @@
 package com.alicp.jetcache.redis.lettuce;
 
+import com.alicp.jetcache.AutoReleaseLock;
 import com.alicp.jetcache.Cache;
+import com.alicp.jetcache.CacheResultCode;
 import com.alicp.jetcache.LoadingCacheTest;
 import com.alicp.jetcache.MultiLevelCacheBuilder;
 import com.alicp.jetcache.embedded.CaffeineCacheBuilder;
@@ -26,8 +28,12 @@ import org.junit.Ignore;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Created on 2017/5/4.
@@ -51,6 +57,36 @@ public class RedisLettuceCacheTest extends AbstractExternalCacheTest {
         test(client, null);
     }
 
+    @Test
+    public void testConnectionPool() throws Exception {
+        RedisClient client = RedisClient.create("redis://127.0.0.1");
+        cache = RedisLettuceCacheBuilder.createRedisLettuceCacheBuilder()
+                .redisClient(client)
+                .connectionCount(3)
+                .keyConvertor(FastjsonKeyConvertor.INSTANCE)
+                .valueEncoder(JavaValueEncoder.INSTANCE)
+                .valueDecoder(JavaValueDecoder.INSTANCE)
+                .keyPrefix(new Random().nextInt() + "")
+                .expireAfterWrite(500, TimeUnit.MILLISECONDS)
+                .buildCache();
+        baseTest();
+        concurrentTest(10, 500, 1000);
+
+        // the multi-key commands use the bulk connection only if it is enabled
+        cache = RedisLettuceCacheBuilder.createRedisLettuceCacheBuilder()
+                .redisClient(client)
+                .connectionCount(3)
+                .bulkKeyThreshold(2)
+                .keyConvertor(FastjsonKeyConvertor.INSTANCE)
+                .valueEncoder(JavaValueEncoder.INSTANCE)
+                .valueDecoder(JavaValueDecoder.INSTANCE)
+                .keyPrefix(new Random().nextInt() + "")
+                .expireAfterWrite(500, TimeUnit.MILLISECONDS)
+                .buildCache();
+        baseTest();
+        LettuceConnectionManager.defaultManager().removeAndClose(client);
+    }
+
     @Test
     public void testSentinel() throws Exception {
         RedisURI redisUri = RedisURI.Builder
@@ -116,6 +152,39 @@ public class RedisLettuceCacheTest extends AbstractExternalCacheTest {
         Assert.assertEquals("V1", cache.get("K1"));
     }
 
+    @Test
+    public void testClusterReadFrom() throws Exception {
+        if (!checkOS()) {
+            return;
+        }
+        RedisURI node1 = RedisURI.create("127.0.0.1", 7000);
+        RedisURI node2 = RedisURI.create("127.0.0.1", 7001);
+        RedisURI node3 = RedisURI.create("127.0.0.1", 7002);
+        RedisClusterClient client = RedisClusterClient.create(Arrays.asList(node1, node2, node3));
+        readFromTest(client, ReadFrom.SLAVE_PREFERRED);
+        readFromTest(client, ReadFrom.NEAREST);
+        readFromTest(client, WeightedReadFrom.parse("127.0.0.1:7003=2,127.0.0.1:7004=1"));
+        LettuceConnectionManager.defaultManager().removeAndClose(client);
+    }
+
+    private void readFromTest(AbstractRedisClient client, ReadFrom readFrom) throws Exception {
+        cache = RedisLettuceCacheBuilder.createRedisLettuceCacheBuilder()
+                .redisClient(client)
+                .readFrom(readFrom)
+                .keyPrefix(new Random().nextInt() + "")
+                .buildCache();
+        cache.put("K1", "V1");
+        // the master sees the write at once
+        Assert.assertEquals("V1", ((RedisLettuceCache) cache).GET_FROM_MASTER("K1").getValue());
+        try (AutoReleaseLock lock = cache.tryLock("K2", 10, TimeUnit.SECONDS)) {
+            Assert.assertNotNull(lock);
+            Assert.assertNull(cache.tryLock("K2", 10, TimeUnit.SECONDS));
+        }
+        Thread.sleep(100);
+        Assert.assertEquals("V1", cache.get("K1"));
+        Assert.assertEquals("V1", cache.getAll(new HashSet<>(Arrays.asList("K1", "K3"))).get("K1"));
+    }
+
     @Test
     public void testWithMultiLevelCache() throws Exception {
         Cache l1Cache = CaffeineCacheBuilder.createCaffeineCacheBuilder()
@@ -160,6 +229,9 @@ public class RedisLettuceCacheTest extends AbstractExternalCacheTest {
         expireAfterWriteTest(cache.config().getExpireAfterWriteInMillis());
         fastjsonKeyCoverterTest();
         testUnwrap(client);
+        putAllTest(client, 7);
+        putAllTest(client, 0);
+        decodeExecutorTest(client);
 
         LoadingCacheTest.loadingCacheTest(RedisLettuceCacheBuilder.createRedisLettuceCacheBuilder()
                 .redisClient(client)
@@ -191,6 +263,50 @@ public class RedisLettuceCacheTest extends AbstractExternalCacheTest {
         LettuceConnectionManager.defaultManager().removeAndClose(client);
     }
 
+    private void putAllTest(AbstractRedisClient client, int putAllFlushSize) {
+        Cache<Object, Object> c = RedisLettuceCacheBuilder.createRedisLettuceCacheBuilder()
+                .redisClient(client)
+                .putAllFlushSize(putAllFlushSize)
+                .valueEncoder(JavaValueEncoder.INSTANCE)
+                .valueDecoder(JavaValueDecoder.INSTANCE)
+                .keyPrefix(new Random().nextInt() + "")
+                .buildCache();
+        Map<Object, Object> map = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put("K" + i, "V" + i);
+        }
+        Assert.assertEquals(CacheResultCode.SUCCESS, c.PUT_ALL(map).getResultCode());
+        Assert.assertEquals(map, c.getAll(map.keySet()));
+    }
+
+    private void decodeExecutorTest(AbstractRedisClient client) {
+        AtomicInteger count = new AtomicInteger();
+        Cache<Object, Object> c = RedisLettuceCacheBuilder.createRedisLettuceCacheBuilder()
+                .redisClient(client)
+                .decodeExecutor(r -> {
+                    count.incrementAndGet();
+                    JetCacheExecutor.decodeExecutor().execute(r);
+                })
+                .decodeThreshold(100)
+                .valueEncoder(JavaValueEncoder.INSTANCE)
+                .valueDecoder(JavaValueDecoder.INSTANCE)
+                .keyPrefix(new Random().nextInt() + "")
+                .buildCache();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            sb.append("0123456789");
+        }
+        c.put("K1", "V1");
+        c.put("K2", sb.toString());
+        Assert.assertEquals("V1", c.get("K1"));
+        Assert.assertNull(c.get("K3"));
+        Assert.assertEquals(0, count.get());
+        Assert.assertEquals(sb.toString(), c.get("K2"));
+        Assert.assertEquals(1, count.get());
+        Assert.assertEquals(2, c.getAll(new HashSet<>(Arrays.asList("K1", "K2", "K3"))).size());
+        Assert.assertEquals(2, count.get());
+    }
+
     private void testUnwrap(AbstractRedisClient client) {
         Assert.assertTrue(cache.unwrap(AbstractRedisClient.class) instanceof AbstractRedisClient);
         if (client instanceof RedisClient) {
@@ -0,0 +1,104 @@
+package com.alicp.jetcache.support;
+
+import com.alicp.jetcache.Cache;
+import com.alicp.jetcache.embedded.LinkedHashMapCacheBuilder;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Created on 2026/10/17.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class JetCacheClockTest {
+
+    @After
+    public void tearDown() {
+        JetCacheClock.setTicker(null);
+    }
+
+    @Test
+    public void testCachedTicker() throws Exception {
+        CachedTicker ticker = new CachedTicker();
+        try {
+            long t1 = ticker.currentTimeMillis();
+            Assert.assertTrue(Math.abs(t1 - System.currentTimeMillis()) < 50);
+            Thread.sleep(20);
+            Assert.assertTrue(ticker.currentTimeMillis() > t1);
+        } finally {
+            ticker.stop();
+        }
+    }
+
+    @Test
+    public void testCachedTickerMaxLag() throws Exception {
+        CachedTicker ticker = new CachedTicker();
+        try {
+            long maxLag = 0;
+            for (int i = 0; i < 200; i++) {
+                long t = ticker.currentTimeMillis();
+                long lag = System.currentTimeMillis() - t;
+                // the ticker is never ahead of the wall clock
+                Assert.assertTrue(lag >= 0);
+                maxLag = Math.max(maxLag, lag);
+                Thread.sleep(1);
+            }
+            Assert.assertTrue("max lag " + maxLag, maxLag <= CachedTicker.MAX_EXPECTED_LAG_MILLIS);
+        } finally {
+            ticker.stop();
+        }
+    }
+
+    @Test
+    public void testIdleCachedTicker() throws Exception {
+        CachedTicker ticker = new CachedTicker();
+        try {
+            Assert.assertFalse(ticker.isRunning());
+            ticker.currentTimeMillis();
+            Assert.assertTrue(ticker.isRunning());
+            // the thread exits if the ticker is not read
+            long deadline = System.currentTimeMillis() + 5000;
+            while (ticker.isRunning() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            Assert.assertFalse(ticker.isRunning());
+            // the next read starts it again and doesn't return the stale time
+            Thread.sleep(20);
+            long t = System.currentTimeMillis();
+            Assert.assertTrue(ticker.currentTimeMillis() >= t);
+            Assert.assertTrue(ticker.isRunning());
+        } finally {
+            ticker.stop();
+        }
+    }
+
+    @Test
+    public void testExpireWithStarvedCachedTicker() throws Exception {
+        CachedTicker ticker = new CachedTicker();
+        JetCacheClock.setTicker(ticker);
+        Cache<String, String> cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().buildCache();
+        cache.put("K1", "V1", 5, TimeUnit.MILLISECONDS);
+        // the ticker thread is not scheduled any more, the cached time is frozen
+        ticker.stop();
+        Thread.sleep(20);
+        Assert.assertNull(cache.get("K1"));
+    }
+
+    @Test
+    public void testExpireWithTicker() {
+        AtomicLong now = new AtomicLong(System.currentTimeMillis());
+        JetCacheClock.setTicker(now::get);
+        Cache<String, String> cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .expireAfterWrite(1000, TimeUnit.MILLISECONDS)
+                .buildCache();
+        cache.put("K1", "V1");
+        now.addAndGet(999);
+        Assert.assertEquals("V1", cache.get("K1"));
+        now.addAndGet(1);
+        Assert.assertNull(cache.get("K1"));
+    }
+}